@@ -0,0 +1,73 @@
+package com.infinbank.rest.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with {@code students} students, one teacher per ten students and one course
+ * per twenty students. Every student is enrolled in {@code linksPerStudent} random courses and has as
+ * many random teachers. Generated ids start at 1, so ids {@code 1..count} exist afterwards.
+ */
+final class DatasetSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static int courseCount(int students) {
+        return Math.max(1, students / 20);
+    }
+
+    static int teacherCount(int students) {
+        return Math.max(1, students / 10);
+    }
+
+    void seed(int students, int linksPerStudent) {
+        int courses = courseCount(students);
+        int teachers = teacherCount(students);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < courses; i++) {
+            rows.add(new Object[]{"Seeded course " + i});
+        }
+        insert("INSERT INTO course (course_name) VALUES (?)", rows);
+
+        rows.clear();
+        for (int i = 0; i < teachers; i++) {
+            rows.add(new Object[]{"Teacher" + i, "Lastname" + i, "Middlename" + i, 30 + i % 30, 1 + i % courses});
+        }
+        insert("INSERT INTO teacher (first_name, last_name, middle_name, age, course_id) VALUES (?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (int i = 0; i < students; i++) {
+            rows.add(new Object[]{"Student" + i, "Lastname" + i, "Middlename" + i, 10 + i % 10});
+        }
+        insert("INSERT INTO student (first_name, last_name, middle_name, age) VALUES (?, ?, ?, ?)", rows);
+
+        List<Object[]> enrollments = new ArrayList<>();
+        List<Object[]> tutoring = new ArrayList<>();
+        for (int student = 1; student <= students; student++) {
+            for (int j = 0; j < linksPerStudent; j++) {
+                enrollments.add(new Object[]{student, 1 + random.nextInt(courses)});
+                tutoring.add(new Object[]{student, 1 + random.nextInt(teachers)});
+            }
+        }
+        insert("INSERT INTO student_course (student_id, course_id) VALUES (?, ?)", enrollments);
+        insert("INSERT INTO teacher_student (student_id, teacher_id) VALUES (?, ?)", tutoring);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.infinbank.rest.benchmark;
+
+import com.infinbank.rest.RestCrudApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boots the full application against an in-memory H2 database in PostgreSQL compatibility mode.
+ * The schema is created by the regular Liquibase changelog.
+ */
+final class EmbeddedApplication {
+
+    private EmbeddedApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, Map<String, Object> extraProperties) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:" + databaseName + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        properties.putAll(extraProperties);
+        // passed as command line arguments so that they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(RestCrudApiApplication.class).run(args);
+    }
+}
@@ -0,0 +1,235 @@
+package com.infinbank.rest.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Cost of every REST operation through the whole controller, service and repository pipeline.
+ *
+ * <p>The application context is booted against an embedded H2 database (PostgreSQL mode) seeded with
+ * {@code students} students (see {@link DatasetSeeder} for the derived teacher and course counts).
+ * Requests are driven through {@link MockMvc}, so they execute on the benchmark thread and the GC
+ * profiler attributes all allocation of a request to the operation. Results are reported as throughput
+ * (ops/s) and as sampled latency with percentiles.</p>
+ *
+ * <p>Every benchmark runs in its own fork, i.e. on a freshly seeded database. Write benchmarks that
+ * would change the data volume are paired (create + delete, assign + remove).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EndpointBenchmark {
+
+    @Param({"1000", "100000"})
+    private int students;
+
+    @Param({"3"})
+    private int linksPerStudent;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private int teachers;
+
+    private int courses;
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApplication.start("endpoints", Map.of());
+        new DatasetSeeder(context.getBean(JdbcTemplate.class)).seed(students, linksPerStudent);
+        teachers = DatasetSeeder.teacherCount(students);
+        courses = DatasetSeeder.courseCount(students);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getAllStudents() throws Exception {
+        return perform(get("/api/students"));
+    }
+
+    @Benchmark
+    public MvcResult getStudentById() throws Exception {
+        return perform(get("/api/students/{id}", randomStudent()));
+    }
+
+    @Benchmark
+    public MvcResult getCoursesOfStudent() throws Exception {
+        return perform(get("/api/students/{id}/courses", randomStudent()));
+    }
+
+    @Benchmark
+    public MvcResult getTeachersOfStudent() throws Exception {
+        return perform(get("/api/students/{id}/teachers", randomStudent()));
+    }
+
+    @Benchmark
+    public MvcResult updateStudent() throws Exception {
+        int id = randomStudent();
+        return perform(put("/api/students/{id}", id)
+                .content(Payloads.person("Student", id - 1, 10 + random.nextInt(10))));
+    }
+
+    @Benchmark
+    public MvcResult createAndDeleteStudent() throws Exception {
+        MvcResult created = perform(post("/api/students").content(Payloads.person("Created", sequence++, 12)));
+        return perform(delete(created.getResponse().getHeader("Location")));
+    }
+
+    @Benchmark
+    public MvcResult assignAndRemoveCourseOfStudent() throws Exception {
+        int studentId = randomStudent();
+        int courseId = randomCourse();
+        perform(post("/api/students/{studentId}/courses/{courseId}", studentId, courseId));
+        return perform(delete("/api/students/{studentId}/courses/{courseId}", studentId, courseId));
+    }
+
+    @Benchmark
+    public MvcResult assignAndRemoveTeacherOfStudent() throws Exception {
+        int studentId = randomStudent();
+        int teacherId = randomTeacher();
+        perform(post("/api/students/{studentId}/teachers/{teacherId}", studentId, teacherId));
+        return perform(delete("/api/students/{studentId}/teachers/{teacherId}", studentId, teacherId));
+    }
+
+    @Benchmark
+    public MvcResult getAllTeachers() throws Exception {
+        return perform(get("/api/teachers"));
+    }
+
+    @Benchmark
+    public MvcResult getTeacherById() throws Exception {
+        return perform(get("/api/teachers/{id}", randomTeacher()));
+    }
+
+    @Benchmark
+    public MvcResult getCourseOfTeacher() throws Exception {
+        return perform(get("/api/teachers/{id}/courses", randomTeacher()));
+    }
+
+    @Benchmark
+    public MvcResult getStudentsOfTeacher() throws Exception {
+        return perform(get("/api/teachers/{id}/students", randomTeacher()));
+    }
+
+    @Benchmark
+    public MvcResult updateTeacher() throws Exception {
+        int id = randomTeacher();
+        return perform(put("/api/teachers/{id}", id)
+                .content(Payloads.person("Teacher", id - 1, 30 + random.nextInt(30))));
+    }
+
+    @Benchmark
+    public MvcResult createAndDeleteTeacher() throws Exception {
+        MvcResult created = perform(post("/api/teachers").content(Payloads.person("Created", sequence++, 40)));
+        return perform(delete(created.getResponse().getHeader("Location")));
+    }
+
+    @Benchmark
+    public MvcResult removeAndAssignCourseOfTeacher() throws Exception {
+        int teacherId = randomTeacher();
+        int courseId = 1 + (teacherId - 1) % courses;
+        perform(delete("/api/teachers/{teacherId}/courses/{courseId}", teacherId, courseId));
+        return perform(post("/api/teachers/{teacherId}/courses/{courseId}", teacherId, courseId));
+    }
+
+    @Benchmark
+    public MvcResult getAllCourses() throws Exception {
+        return perform(get("/api/courses"));
+    }
+
+    @Benchmark
+    public MvcResult getCourseById() throws Exception {
+        return perform(get("/api/courses/{id}", randomCourse()));
+    }
+
+    @Benchmark
+    public MvcResult getStudentsOfCourse() throws Exception {
+        return perform(get("/api/courses/{id}/students", randomCourse()));
+    }
+
+    @Benchmark
+    public MvcResult getTeachersOfCourse() throws Exception {
+        return perform(get("/api/courses/{id}/teachers", randomCourse()));
+    }
+
+    @Benchmark
+    public MvcResult updateCourse() throws Exception {
+        int id = randomCourse();
+        return perform(put("/api/courses/{id}", id).content(Payloads.course("Seeded course " + (id - 1))));
+    }
+
+    @Benchmark
+    public MvcResult createAndDeleteCourse() throws Exception {
+        MvcResult created = perform(post("/api/courses").content(Payloads.course("Created " + sequence++)));
+        return perform(delete(created.getResponse().getHeader("Location")));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        if (result.getResponse().getStatus() >= 500) {
+            throw new IllegalStateException("Request failed with status " + result.getResponse().getStatus()
+                    + ": " + result.getResponse().getContentAsString(), result.getResolvedException());
+        }
+        return result;
+    }
+
+    private int randomStudent() {
+        return 1 + random.nextInt(students);
+    }
+
+    private int randomTeacher() {
+        return 1 + random.nextInt(teachers);
+    }
+
+    private int randomCourse() {
+        return 1 + random.nextInt(courses);
+    }
+}
@@ -0,0 +1,105 @@
+package com.infinbank.rest.benchmark;
+
+import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds object graphs shaped like the ones loaded by the services: every student is enrolled in
+ * several courses and has several teachers, every teacher belongs to a course that in turn references
+ * its teachers and students.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static List<Course> courses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(Course.builder()
+                    .id(i + 1)
+                    .courseName("Course number " + i)
+                    .teachers(new ArrayList<>())
+                    .students(new ArrayList<>())
+                    .build());
+        }
+        return courses;
+    }
+
+    static List<Teacher> teachers(int count, List<Course> courses) {
+        List<Teacher> teachers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Course course = courses.get(i % courses.size());
+            Teacher teacher = Teacher.builder()
+                    .id(i + 1)
+                    .firstName("Teacher" + i)
+                    .lastName("Lastname" + i)
+                    .middleName("Middlename" + i)
+                    .age(30 + i % 30)
+                    .course(course)
+                    .students(new ArrayList<>())
+                    .build();
+            course.getTeachers().add(teacher);
+            teachers.add(teacher);
+        }
+        return teachers;
+    }
+
+    static List<Student> students(int count, List<Course> courses, List<Teacher> teachers, int linksPerStudent) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = Student.builder()
+                    .id(i + 1)
+                    .firstName("Student" + i)
+                    .lastName("Lastname" + i)
+                    .middleName("Middlename" + i)
+                    .age(10 + i % 10)
+                    .courses(new ArrayList<>(linksPerStudent))
+                    .teachers(new ArrayList<>(linksPerStudent))
+                    .build();
+            for (int j = 0; j < linksPerStudent; j++) {
+                Course course = courses.get((i + j) % courses.size());
+                Teacher teacher = teachers.get((i + j) % teachers.size());
+                student.getCourses().add(course);
+                course.getStudents().add(student);
+                student.getTeachers().add(teacher);
+                teacher.getStudents().add(student);
+            }
+            students.add(student);
+        }
+        return students;
+    }
+
+    static StudentDto studentDto(int i) {
+        return StudentDto.builder()
+                .firstName("Student" + i)
+                .lastName("Lastname" + i)
+                .middleName("Middlename" + i)
+                .age(10 + i % 10)
+                .build();
+    }
+
+    static TeacherDto teacherDto(int i) {
+        return TeacherDto.builder()
+                .firstName("Teacher" + i)
+                .lastName("Lastname" + i)
+                .middleName("Middlename" + i)
+                .age(30 + i % 30)
+                .course(courseDto(i))
+                .build();
+    }
+
+    static CourseDto courseDto(int i) {
+        return CourseDto.builder()
+                .id(i + 1)
+                .courseName("Course number " + i)
+                .build();
+    }
+}
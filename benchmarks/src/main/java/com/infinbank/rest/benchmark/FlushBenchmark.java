@@ -0,0 +1,108 @@
+package com.infinbank.rest.benchmark;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of flushing a persistence context that holds thousands of managed entities.
+ *
+ * <p>All students, teachers and courses seeded by {@link DatasetSeeder} are loaded into one
+ * application-managed {@link EntityManager}; every invocation changes the age of {@code modified}
+ * random students and flushes. With {@code modified = 0} the result is the pure dirty checking overhead
+ * of the managed entities.</p>
+ *
+ * <p>Whether the entities are bytecode enhanced is decided when the application is built, so the
+ * comparison takes two runs; the setup prints which variant is measured:</p>
+ * <pre>
+ * mvn -B install -DskipTests
+ * mvn -B -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar FlushBenchmark
+ *
+ * mvn -B install -DskipTests -Dhibernate.enhance.dirtyTracking=false -Dhibernate.enhance.lazyInitialization=false
+ * mvn -B -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar FlushBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlushBenchmark {
+
+    @Param({"1000", "10000"})
+    private int students;
+
+    @Param({"0", "10"})
+    private int modified;
+
+    private ConfigurableApplicationContext context;
+
+    private EntityManager entityManager;
+
+    private List<Student> managedStudents;
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApplication.start("flush", Map.of());
+        new DatasetSeeder(context.getBean(JdbcTemplate.class)).seed(students, 3);
+        System.out.println("Entities bytecode enhanced: "
+                + SelfDirtinessTracker.class.isAssignableFrom(Student.class));
+
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        entityManager.getTransaction().begin();
+        managedStudents = entityManager.createQuery("SELECT s FROM Student s", Student.class).getResultList();
+        entityManager.createQuery("SELECT t FROM Teacher t", Teacher.class).getResultList();
+        entityManager.createQuery("SELECT c FROM Course c", Course.class).getResultList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void commit() {
+        // an application-managed persistence context stays open across transactions, the entities remain managed
+        entityManager.getTransaction().commit();
+        entityManager.getTransaction().begin();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        for (int i = 0; i < modified; i++) {
+            Student student = managedStudents.get(random.nextInt(managedStudents.size()));
+            student.setAge(student.getAge() % 2 == 0 ? student.getAge() + 1 : student.getAge() - 1);
+        }
+        entityManager.flush();
+    }
+}
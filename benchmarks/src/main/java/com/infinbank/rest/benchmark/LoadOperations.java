@@ -0,0 +1,167 @@
+package com.infinbank.rest.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The REST operations a {@link LoadTest} can issue, by the name used in the {@code mix.*} settings.
+ *
+ * <p>Ids are drawn uniformly from the rows seeded by {@link DatasetSeeder}. Created students are
+ * remembered, so {@code delete-student} removes rows the load test added itself and the seeded ids
+ * stay valid. Random assign and remove calls regularly hit an association in the wrong state; the
+ * resulting 404/409 responses are expected and reported as rejected, not as errors.</p>
+ */
+final class LoadOperations {
+
+    /**
+     * A single kind of request.
+     */
+    interface Operation {
+
+        /**
+         * @return the request to send, or {@code null} when there is nothing to act on right now.
+         */
+        HttpRequest.Builder request(ThreadLocalRandom random);
+
+        /**
+         * Called with every response of a request built by this operation.
+         */
+        default void completed(HttpResponse<?> response) {
+        }
+    }
+
+    private final URI baseUri;
+
+    private final int students;
+
+    private final int teachers;
+
+    private final int courses;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Queue<String> createdStudents = new ConcurrentLinkedQueue<>();
+
+    private final Map<String, Operation> operations = new TreeMap<>();
+
+    LoadOperations(URI baseUri, int students) {
+        this.baseUri = baseUri;
+        this.students = students;
+        this.teachers = DatasetSeeder.teacherCount(students);
+        this.courses = DatasetSeeder.courseCount(students);
+
+        read("list-students", random -> "/api/students");
+        read("get-student", random -> "/api/students/" + student(random));
+        read("get-student-courses", random -> "/api/students/" + student(random) + "/courses");
+        read("get-student-teachers", random -> "/api/students/" + student(random) + "/teachers");
+        read("list-teachers", random -> "/api/teachers");
+        read("get-teacher", random -> "/api/teachers/" + teacher(random));
+        read("get-teacher-course", random -> "/api/teachers/" + teacher(random) + "/courses");
+        read("get-teacher-students", random -> "/api/teachers/" + teacher(random) + "/students");
+        read("list-courses", random -> "/api/courses");
+        read("get-course", random -> "/api/courses/" + course(random));
+        read("get-course-students", random -> "/api/courses/" + course(random) + "/students");
+        read("get-course-teachers", random -> "/api/courses/" + course(random) + "/teachers");
+
+        operations.put("create-student", new Operation() {
+            @Override
+            public HttpRequest.Builder request(ThreadLocalRandom random) {
+                return post("/api/students", Payloads.person("Load", sequence.incrementAndGet(), 12));
+            }
+
+            @Override
+            public void completed(HttpResponse<?> response) {
+                response.headers().firstValue("Location").ifPresent(createdStudents::add);
+            }
+        });
+        operations.put("delete-student", random -> {
+            String location = createdStudents.poll();
+            return location == null ? null : request(baseUri.resolve(location)).DELETE();
+        });
+        operations.put("update-student", random -> {
+            int id = student(random);
+            return put("/api/students/" + id, Payloads.person("Student", id - 1, 10 + random.nextInt(10)));
+        });
+        operations.put("create-teacher", random ->
+                post("/api/teachers", Payloads.person("Load", sequence.incrementAndGet(), 40)));
+        operations.put("update-teacher", random -> {
+            int id = teacher(random);
+            return put("/api/teachers/" + id, Payloads.person("Teacher", id - 1, 30 + random.nextInt(30)));
+        });
+        operations.put("create-course", random ->
+                post("/api/courses", Payloads.course("Load course " + sequence.incrementAndGet())));
+        operations.put("update-course", random -> {
+            int id = course(random);
+            return put("/api/courses/" + id, Payloads.course("Seeded course " + (id - 1)));
+        });
+
+        operations.put("assign-course", random ->
+                post("/api/students/" + student(random) + "/courses/" + course(random), null));
+        operations.put("remove-course", random ->
+                delete("/api/students/" + student(random) + "/courses/" + course(random)));
+        operations.put("assign-teacher", random ->
+                post("/api/students/" + student(random) + "/teachers/" + teacher(random), null));
+        operations.put("remove-teacher", random ->
+                delete("/api/students/" + student(random) + "/teachers/" + teacher(random)));
+        operations.put("assign-teacher-course", random ->
+                post("/api/teachers/" + teacher(random) + "/courses/" + course(random), null));
+        operations.put("remove-teacher-course", random ->
+                delete("/api/teachers/" + teacher(random) + "/courses/" + course(random)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no operation with that name.
+     */
+    Operation get(String name) {
+        Operation operation = operations.get(name);
+        if (operation == null) {
+            throw new IllegalArgumentException("Unknown operation " + name + ", known: " + operations.keySet());
+        }
+        return operation;
+    }
+
+    private void read(String name, Function<ThreadLocalRandom, String> path) {
+        operations.put(name, random -> request(baseUri.resolve(path.apply(random))).GET());
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return request(baseUri.resolve(path)).POST(body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder put(String path, String body) {
+        return request(baseUri.resolve(path)).PUT(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder delete(String path) {
+        return request(baseUri.resolve(path)).DELETE();
+    }
+
+    private static HttpRequest.Builder request(URI uri) {
+        // the controllers declare consumes = application/json on every mapping, including GET and DELETE
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private int student(ThreadLocalRandom random) {
+        return 1 + random.nextInt(students);
+    }
+
+    private int teacher(ThreadLocalRandom random) {
+        return 1 + random.nextInt(teachers);
+    }
+
+    private int course(ThreadLocalRandom random) {
+        return 1 + random.nextInt(courses);
+    }
+}
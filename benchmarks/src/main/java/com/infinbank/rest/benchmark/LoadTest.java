@@ -0,0 +1,236 @@
+package com.infinbank.rest.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator that replays a weighted mix of REST operations against the application.
+ *
+ * <p>The application is started in this JVM on an embedded H2 database seeded by {@link DatasetSeeder},
+ * listening on a random local port; requests go through the real HTTP stack. Request {@code n} is due
+ * at {@code start + n / rate}, whatever happened to the previous ones. A pool of client threads picks
+ * up due requests; latency is measured from the time a request was due, not from the time a client got
+ * around to send it, so a stalled server shows up as latency instead of as a lower request rate
+ * (coordinated omission). Requests due during the warmup are sent but not recorded.</p>
+ *
+ * <p>For every operation the report lists throughput, responses rejected with 4xx, errors (5xx,
+ * timeouts and I/O failures) and the HDR latency percentiles. Run it with
+ * {@code java -cp benchmarks/target/benchmarks.jar com.infinbank.rest.benchmark.LoadTest};
+ * see {@link LoadTestSettings} for the configuration.</p>
+ */
+public final class LoadTest {
+
+    private final LoadTestSettings settings;
+
+    private final HttpClient client;
+
+    private final List<LoadOperations.Operation> operations = new ArrayList<>();
+
+    private final List<Stats> stats = new ArrayList<>();
+
+    private final int[] cumulativeWeights;
+
+    private final AtomicLong tickets = new AtomicLong();
+
+    private LoadTest(LoadTestSettings settings, URI baseUri) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.requestTimeout())
+                .build();
+        LoadOperations catalog = new LoadOperations(baseUri, settings.students());
+        cumulativeWeights = new int[settings.mix().size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : settings.mix().entrySet()) {
+            operations.add(catalog.get(entry.getKey()));
+            stats.add(new Stats(entry.getKey()));
+            total += entry.getValue();
+            cumulativeWeights[operations.size() - 1] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.load();
+        System.out.printf("Seeding %d students, %d teachers, %d courses%n", settings.students(),
+                DatasetSeeder.teacherCount(settings.students()), DatasetSeeder.courseCount(settings.students()));
+        ConfigurableApplicationContext context = EmbeddedApplication.start("loadtest", Map.of());
+        try {
+            new DatasetSeeder(context.getBean(JdbcTemplate.class))
+                    .seed(settings.students(), settings.linksPerStudent());
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadTest loadTest = new LoadTest(settings, URI.create("http://localhost:" + port));
+            loadTest.run();
+            loadTest.report(System.out);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + settings.warmup().toNanos();
+        long endNanos = measureFromNanos + settings.duration().toNanos();
+        System.out.printf("Running %d requests/s with %d clients: %s warmup, %s measured%n",
+                settings.rate(), settings.clients(), settings.warmup(), settings.duration());
+
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients());
+        for (int i = 0; i < settings.clients(); i++) {
+            clients.execute(() -> {
+                long ticket;
+                while ((ticket = tickets.getAndIncrement()) * intervalNanos < endNanos - startNanos) {
+                    long dueNanos = startNanos + ticket * intervalNanos;
+                    long delay;
+                    while ((delay = dueNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    send(dueNanos, dueNanos >= measureFromNanos);
+                }
+            });
+        }
+        clients.shutdown();
+        long timeoutNanos = endNanos - System.nanoTime() + settings.requestTimeout().toNanos() * 2;
+        if (!clients.awaitTermination(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            clients.shutdownNow();
+        }
+    }
+
+    private void send(long dueNanos, boolean record) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = pick(random);
+        LoadOperations.Operation operation = operations.get(index);
+        Stats operationStats = stats.get(index);
+        HttpRequest.Builder request = operation.request(random);
+        if (request == null) {
+            if (record) {
+                operationStats.skipped.increment();
+            }
+            return;
+        }
+        int status;
+        try {
+            HttpResponse<Void> response = client.send(request.timeout(settings.requestTimeout()).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            operation.completed(response);
+            status = response.statusCode();
+        } catch (IOException ex) {
+            status = -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (record) {
+            operationStats.record(status, System.nanoTime() - dueNanos);
+        }
+    }
+
+    private int pick(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void report(PrintStream out) throws IOException {
+        double seconds = settings.duration().toNanos() / 1e9;
+        Histogram total = new Histogram(3);
+        long totalRejected = 0;
+        long totalErrors = 0;
+        long totalSkipped = 0;
+
+        out.printf("%n%-22s %9s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s",
+                "rejected", "errors", "skipped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Stats operationStats : stats) {
+            Histogram histogram = operationStats.histogram.copy();
+            printRow(out, operationStats.name, histogram, seconds, operationStats.rejected.sum(),
+                    operationStats.errors.sum(), operationStats.skipped.sum());
+            total.add(histogram);
+            totalRejected += operationStats.rejected.sum();
+            totalErrors += operationStats.errors.sum();
+            totalSkipped += operationStats.skipped.sum();
+            writeDistribution(operationStats.name, histogram);
+        }
+        printRow(out, "total", total, seconds, totalRejected, totalErrors, totalSkipped);
+        writeDistribution("total", total);
+        out.printf("%nTarget %d req/s, achieved %.1f req/s, error rate %.3f%%%n", settings.rate(),
+                total.getTotalCount() / seconds,
+                total.getTotalCount() == 0 ? 0.0 : 100.0 * totalErrors / total.getTotalCount());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, double seconds,
+                                 long rejected, long errors, long skipped) {
+        out.printf("%-22s %9d %9.1f %9d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds, rejected, errors, skipped,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private void writeDistribution(String name, Histogram histogram) throws IOException {
+        if (settings.reportDirectory() == null) {
+            return;
+        }
+        Files.createDirectories(settings.reportDirectory());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(
+                settings.reportDirectory().resolve(name + ".hgrm")))) {
+            // recorded in microseconds, written in milliseconds
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Outcomes of one operation. Latencies are recorded in microseconds.
+     */
+    private static final class Stats {
+
+        private final String name;
+
+        private final Histogram histogram = new ConcurrentHistogram(3);
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder skipped = new LongAdder();
+
+        private Stats(String name) {
+            this.name = name;
+        }
+
+        private void record(int status, long latencyNanos) {
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            if (status < 0 || status >= 500) {
+                errors.increment();
+            } else if (status >= 400) {
+                rejected.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.infinbank.rest.benchmark;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Settings of a {@link LoadTest} run.
+ *
+ * <p>Defaults are read from {@code load-test.properties} on the classpath. A file given with
+ * {@code -Dloadtest.config=<path>} is applied on top of them, and finally every system property
+ * {@code loadtest.<key>} overrides {@code <key>}, e.g. {@code -Dloadtest.rate=500} or
+ * {@code -Dloadtest.mix.list-students=1}.</p>
+ */
+final class LoadTestSettings {
+
+    private static final String DEFAULTS = "load-test.properties";
+
+    private static final String SYSTEM_PREFIX = "loadtest.";
+
+    private static final String MIX_PREFIX = "mix.";
+
+    /**
+     * Requests per second the generator tries to start, independent of how fast the application answers.
+     */
+    private final int rate;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    /**
+     * Number of client threads; bounds the number of requests in flight.
+     */
+    private final int clients;
+
+    private final Duration requestTimeout;
+
+    private final int students;
+
+    private final int linksPerStudent;
+
+    /**
+     * Directory for the full HDR percentile distribution of every operation, or {@code null}.
+     */
+    private final Path reportDirectory;
+
+    /**
+     * Operation name to relative weight, without operations of weight zero.
+     */
+    private final Map<String, Integer> mix;
+
+    private LoadTestSettings(Properties properties) {
+        this.rate = Integer.parseInt(required(properties, "rate"));
+        this.warmup = DurationStyle.detectAndParse(required(properties, "warmup"));
+        this.duration = DurationStyle.detectAndParse(required(properties, "duration"));
+        this.clients = Integer.parseInt(required(properties, "clients"));
+        this.requestTimeout = DurationStyle.detectAndParse(required(properties, "request-timeout"));
+        this.students = Integer.parseInt(required(properties, "students"));
+        this.linksPerStudent = Integer.parseInt(required(properties, "links-per-student"));
+        String reportDir = properties.getProperty("report-dir", "").trim();
+        this.reportDirectory = reportDir.isEmpty() ? null : Path.of(reportDir);
+        Map<String, Integer> weights = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(MIX_PREFIX)) {
+                int weight = Integer.parseInt(properties.getProperty(key).trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight for " + key);
+                }
+                if (weight > 0) {
+                    weights.put(key.substring(MIX_PREFIX.length()), weight);
+                }
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix is empty");
+        }
+        if (rate <= 0 || clients <= 0) {
+            throw new IllegalArgumentException("rate and clients must be positive");
+        }
+        this.mix = weights;
+    }
+
+    int rate() {
+        return rate;
+    }
+
+    Duration warmup() {
+        return warmup;
+    }
+
+    Duration duration() {
+        return duration;
+    }
+
+    int clients() {
+        return clients;
+    }
+
+    Duration requestTimeout() {
+        return requestTimeout;
+    }
+
+    int students() {
+        return students;
+    }
+
+    int linksPerStudent() {
+        return linksPerStudent;
+    }
+
+    Path reportDirectory() {
+        return reportDirectory;
+    }
+
+    Map<String, Integer> mix() {
+        return mix;
+    }
+
+    static LoadTestSettings load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = LoadTestSettings.class.getClassLoader().getResourceAsStream(DEFAULTS)) {
+            if (in == null) {
+                throw new IllegalStateException(DEFAULTS + " not found on the classpath");
+            }
+            properties.load(in);
+        }
+        String config = System.getProperty(SYSTEM_PREFIX + "config");
+        if (config != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(config))) {
+                properties.load(reader);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(SYSTEM_PREFIX)) {
+                properties.setProperty(key.substring(SYSTEM_PREFIX.length()), System.getProperty(key));
+            }
+        }
+        return new LoadTestSettings(properties);
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing load test setting " + key);
+        }
+        return value.trim();
+    }
+}
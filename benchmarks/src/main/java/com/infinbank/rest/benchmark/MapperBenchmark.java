@@ -0,0 +1,167 @@
+package com.infinbank.rest.benchmark;
+
+import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.mapper.CourseMapper;
+import com.infinbank.rest.mapper.CourseMapperImpl;
+import com.infinbank.rest.mapper.StudentMapper;
+import com.infinbank.rest.mapper.StudentMapperImpl;
+import com.infinbank.rest.mapper.TeacherMapper;
+import com.infinbank.rest.mapper.TeacherMapperImpl;
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mappers on realistic object graphs.
+ *
+ * <p>The single-object benchmarks correspond to the {@code /{id}} endpoints, the {@code *List}
+ * benchmarks to the list endpoints, which map once per row ({@link Rows#rows}). Entities carry populated
+ * collections ({@code linksPerStudent} courses and teachers per student) the way they are after lazy
+ * loading, to catch a mapper that starts walking them.</p>
+ *
+ * <p>The mappers are wired through a minimal Spring context because {@code TeacherMapperImpl}
+ * gets its {@code CourseMapper} injected.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"5"})
+    private int linksPerStudent;
+
+    private AnnotationConfigApplicationContext context;
+
+    private StudentMapper studentMapper;
+
+    private TeacherMapper teacherMapper;
+
+    private CourseMapper courseMapper;
+
+    private Student student;
+
+    private Teacher teacher;
+
+    private Course course;
+
+    private StudentDto studentDto;
+
+    private TeacherDto teacherDto;
+
+    private CourseDto courseDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                CourseMapperImpl.class, StudentMapperImpl.class, TeacherMapperImpl.class);
+        studentMapper = context.getBean(StudentMapper.class);
+        teacherMapper = context.getBean(TeacherMapper.class);
+        courseMapper = context.getBean(CourseMapper.class);
+
+        List<Course> courses = Fixtures.courses(linksPerStudent);
+        List<Teacher> teachers = Fixtures.teachers(linksPerStudent, courses);
+        student = Fixtures.students(1, courses, teachers, linksPerStudent).get(0);
+        teacher = teachers.get(0);
+        course = courses.get(0);
+        studentDto = Fixtures.studentDto(0);
+        teacherDto = Fixtures.teacherDto(0);
+        courseDto = Fixtures.courseDto(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The entities of the list benchmarks, kept apart so that only those run once per {@code rows}.
+     */
+    @State(Scope.Benchmark)
+    public static class Rows {
+
+        @Param({"1", "100", "1000"})
+        private int rows;
+
+        private List<Student> students;
+
+        private List<Teacher> teachers;
+
+        @Setup(Level.Trial)
+        public void setUp(MapperBenchmark benchmark) {
+            List<Course> courses = Fixtures.courses(Math.max(1, rows / 10));
+            teachers = Fixtures.teachers(rows, courses);
+            students = Fixtures.students(rows, courses, teachers, benchmark.linksPerStudent);
+        }
+    }
+
+    @Benchmark
+    public StudentDto studentToDto() {
+        return studentMapper.toDto(student);
+    }
+
+    @Benchmark
+    public Student studentToEntity() {
+        return studentMapper.toEntity(studentDto);
+    }
+
+    @Benchmark
+    public TeacherDto teacherToDto() {
+        return teacherMapper.toDto(teacher);
+    }
+
+    @Benchmark
+    public Teacher teacherToEntity() {
+        return teacherMapper.toEntity(teacherDto);
+    }
+
+    @Benchmark
+    public CourseDto courseToDto() {
+        return courseMapper.toDto(course);
+    }
+
+    @Benchmark
+    public Course courseToEntity() {
+        return courseMapper.toEntity(courseDto);
+    }
+
+    @Benchmark
+    public List<StudentDto> studentToDtoList(Rows rows) {
+        List<StudentDto> result = new ArrayList<>(rows.students.size());
+        for (Student row : rows.students) {
+            result.add(studentMapper.toDto(row));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<TeacherDto> teacherToDtoList(Rows rows) {
+        List<TeacherDto> result = new ArrayList<>(rows.teachers.size());
+        for (Teacher row : rows.teachers) {
+            result.add(teacherMapper.toDto(row));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.infinbank.rest.benchmark;
+
+/**
+ * Request bodies of the write endpoints. The generated names match the ones of {@link DatasetSeeder},
+ * so updating seeded row {@code i} with index {@code i} keeps the data set unchanged.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static String person(String prefix, long index, int age) {
+        return "{\"firstName\":\"" + prefix + index
+                + "\",\"lastName\":\"Lastname" + index
+                + "\",\"middleName\":\"Middlename" + index
+                + "\",\"age\":" + age + "}";
+    }
+
+    static String course(String name) {
+        return "{\"courseName\":\"" + name + "\"}";
+    }
+}
@@ -0,0 +1,134 @@
+package com.infinbank.rest.benchmark;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.infinbank.rest.config.BinaryFormatConfig;
+import com.infinbank.rest.converter.ProtobufJacksonHttpMessageConverter;
+import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the list endpoints' bodies in every supported format, through the same message
+ * converters the application registers.
+ *
+ * <p>Time is measured per body of {@code rows} DTOs. The body sizes do not vary between runs and are printed
+ * once per trial, e.g. {@code payload format=cbor rows=100 students=4321 bytes teachers=6543 bytes}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final Type STUDENTS = new ParameterizedTypeReference<List<StudentDto>>() { }.getType();
+
+    private static final Type TEACHERS = new ParameterizedTypeReference<List<TeacherDto>>() { }.getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"1", "100", "1000"})
+    private int rows;
+
+    private GenericHttpMessageConverter<Object> converter;
+
+    private MediaType mediaType;
+
+    private List<StudentDto> students;
+
+    private List<TeacherDto> teachers;
+
+    private byte[] encodedStudents;
+
+    private byte[] encodedTeachers;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (format) {
+            case "json":
+                converter = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+                mediaType = MediaType.APPLICATION_JSON;
+                break;
+            case "cbor":
+                converter = new MappingJackson2CborHttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+                mediaType = MediaType.APPLICATION_CBOR;
+                break;
+            case "smile":
+                converter = new MappingJackson2SmileHttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+                mediaType = MediaType.parseMediaType(BinaryFormatConfig.SMILE_VALUE);
+                break;
+            case "protobuf":
+                converter = new ProtobufJacksonHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+                mediaType = ProtobufJacksonHttpMessageConverter.MEDIA_TYPE;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+        students = new ArrayList<>(rows);
+        teachers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            students.add(Fixtures.studentDto(i));
+            teachers.add(Fixtures.teacherDto(i));
+        }
+        encodedStudents = write(students, STUDENTS);
+        encodedTeachers = write(teachers, TEACHERS);
+        System.out.printf("payload format=%s rows=%d students=%d bytes teachers=%d bytes%n",
+                format, rows, encodedStudents.length, encodedTeachers.length);
+    }
+
+    @Benchmark
+    public byte[] writeStudents() throws IOException {
+        return write(students, STUDENTS);
+    }
+
+    @Benchmark
+    public Object readStudents() throws IOException {
+        return converter.read(STUDENTS, null, new MockHttpInputMessage(encodedStudents));
+    }
+
+    @Benchmark
+    public byte[] writeTeachers() throws IOException {
+        return write(teachers, TEACHERS);
+    }
+
+    @Benchmark
+    public Object readTeachers() throws IOException {
+        return converter.read(TEACHERS, null, new MockHttpInputMessage(encodedTeachers));
+    }
+
+    private byte[] write(Object body, Type type) throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(body, type, mediaType, outputMessage);
+        return outputMessage.getBodyAsBytes();
+    }
+}
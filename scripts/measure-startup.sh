@@ -0,0 +1,94 @@
+#!/usr/bin/env bash
+#
+# Measures the time from `docker run` to the first successful GET /api/courses of the application image,
+# for every start-up variant, and prints the median of the runs:
+#
+#   mvn package -DskipTests && docker build -t rest-api:v1 . && scripts/measure-startup.sh 5
+#
+# Variants:
+#   baseline  class-data sharing off, every bean created on start-up
+#   cds       AppCDS archive of the image
+#   cds-lazy  AppCDS archive and the lazy profile
+#
+# A PostgreSQL container is started on a private network and migrated once with the migrate profile, so
+# that every timed run starts against the same schema. IMAGE and VARIANTS can be overridden from the
+# environment, e.g. IMAGE=rest-api:previous VARIANTS=baseline to measure an older image.
+
+set -euo pipefail
+
+RUNS=${1:-5}
+IMAGE=${IMAGE:-rest-api:v1}
+VARIANTS=${VARIANTS:-baseline cds cds-lazy}
+NETWORK=startup-measurement
+DATABASE=startup-measurement-postgres
+APP=startup-measurement-app
+TIMEOUT_SECONDS=180
+
+cleanup() {
+    docker rm -f "$APP" "$DATABASE" > /dev/null 2>&1 || true
+    docker network rm "$NETWORK" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_millis() {
+    date +%s%3N
+}
+
+# Starts the application with the options of the variant, prints the milliseconds until the first
+# successful request and removes the container again
+start_and_wait() {
+    local variant=$1
+    local java_options=""
+    local profiles=""
+    case "$variant" in
+        baseline) java_options="-Xshare:off" ;;
+        cds) ;;
+        cds-lazy) profiles="lazy" ;;
+        *) echo "Unknown variant $variant" >&2; exit 1 ;;
+    esac
+
+    local start
+    start=$(now_millis)
+    docker run -d --name "$APP" --network "$NETWORK" -p 127.0.0.1::9090 \
+        -e JAVA_TOOL_OPTIONS="$java_options" \
+        -e SPRING_PROFILES_ACTIVE="$profiles" \
+        -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DATABASE:5432/postgres" \
+        "$IMAGE" > /dev/null
+    local port
+    port=$(docker port "$APP" 9090/tcp | head -n 1 | cut -d: -f2)
+
+    until curl -sf -o /dev/null -H 'Content-Type: application/json' "http://127.0.0.1:$port/api/courses"; do
+        if (( $(now_millis) - start > TIMEOUT_SECONDS * 1000 )); then
+            echo "No successful request after ${TIMEOUT_SECONDS}s, see docker logs $APP" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    echo $(( $(now_millis) - start ))
+    docker rm -f "$APP" > /dev/null
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+cleanup
+docker network create "$NETWORK" > /dev/null
+docker run -d --name "$DATABASE" --network "$NETWORK" \
+    -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres -e POSTGRES_DB=postgres postgres > /dev/null
+until docker exec "$DATABASE" pg_isready -U postgres > /dev/null 2>&1; do
+    sleep 0.5
+done
+
+echo "Migrating the database"
+docker run --rm --network "$NETWORK" -e SPRING_PROFILES_ACTIVE=migrate \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DATABASE:5432/postgres" "$IMAGE" > /dev/null
+
+printf '%-10s %10s   %s\n' variant median_ms runs_ms
+for variant in $VARIANTS; do
+    timings=()
+    for ((run = 1; run <= RUNS; run++)); do
+        timings+=("$(start_and_wait "$variant")")
+    done
+    printf '%-10s %10s   %s\n' "$variant" "$(printf '%s\n' "${timings[@]}" | median)" "${timings[*]}"
+done
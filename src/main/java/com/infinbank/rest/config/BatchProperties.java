@@ -0,0 +1,19 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits of the {@code POST /api/batch} endpoint.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "batch")
+public class BatchProperties {
+
+    /**
+     * Maximum number of operations per batch; larger batches are rejected with 400.
+     */
+    private int maxOperations = 200;
+}
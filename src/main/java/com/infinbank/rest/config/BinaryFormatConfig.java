@@ -0,0 +1,52 @@
+package com.infinbank.rest.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.infinbank.rest.converter.ProtobufJacksonHttpMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary alternatives to JSON, chosen by the {@code Accept} and {@code Content-Type} headers: CBOR, Smile
+ * and Protocol Buffers. All three object mappers are configured like the JSON one.
+ *
+ * <p>The CBOR and Smile converters replace the ones Spring MVC registers by default, after the JSON
+ * converter. The protobuf converter is appended last, so it is never chosen for a request that accepts
+ * any media type.</p>
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufJacksonHttpMessageConverter(objectMapperBuilder.getObject()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits of the {@code DELETE /api/{students,teachers,courses}?ids=...} endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bulk-delete")
+public class BulkDeleteProperties {
+
+    /**
+     * Maximum number of distinct ids per request; larger requests are rejected with 400.
+     */
+    private int maxBatchSize = 500;
+}
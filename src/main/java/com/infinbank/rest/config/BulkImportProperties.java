@@ -0,0 +1,30 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * CSV files imported by {@link com.infinbank.rest.dataset.BulkImportRunner}; files that are not set
+ * are skipped. See {@link com.infinbank.rest.dataset.ImportDataset} for the expected columns.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bulk-import")
+public class BulkImportProperties {
+
+    private Path students;
+
+    private Path teachers;
+
+    private Path enrollments;
+
+    private Path tutoring;
+
+    /**
+     * Rows per JDBC batch on databases without {@code COPY}.
+     */
+    private int batchSize = 1_000;
+}
@@ -0,0 +1,71 @@
+package com.infinbank.rest.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Training run of the AppCDS archive, active with the {@code cds-training} profile. Once the application
+ * has started it sends the requests of a typical client to itself, so that the classes of the request
+ * path are loaded and recorded too, then exits:
+ * <pre>
+ * java -XX:DumpLoadedClassList=classes.lst @classpath.args com.infinbank.rest.RestCrudApiApplication \
+ *      --spring.profiles.active=cds-training
+ * </pre>
+ */
+@Slf4j
+@Component
+@Profile("cds-training")
+@RequiredArgsConstructor
+public class CdsTrainingRunner implements ApplicationRunner {
+
+    private final WebServerApplicationContext context;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String api = "http://localhost:" + context.getWebServer().getPort() + "/api";
+
+        Map<?, ?> course = exchange(HttpMethod.POST, api + "/courses", Map.of("courseName", "Training"));
+        Map<?, ?> student = exchange(HttpMethod.POST, api + "/students",
+                Map.of("firstName", "Cds", "lastName", "Training", "middleName", "Run", "age", 20));
+        Map<?, ?> teacher = exchange(HttpMethod.POST, api + "/teachers",
+                Map.of("firstName", "Cds", "lastName", "Training", "middleName", "Run", "age", 40));
+        exchange(HttpMethod.POST, api + "/students/" + student.get("id") + "/courses/" + course.get("id"), null);
+        exchange(HttpMethod.POST, api + "/students/" + student.get("id") + "/teachers/" + teacher.get("id"), null);
+        exchange(HttpMethod.PUT, api + "/courses/" + course.get("id"), Map.of("courseName", "Trained"));
+        for (String path : List.of("/students", "/teachers", "/courses", "/courses/" + course.get("id") + "/students",
+                "/students/" + student.get("id") + "?include=courses,teachers", "/students/-1")) {
+            exchange(HttpMethod.GET, api + path, null);
+        }
+
+        log.info("CDS training run finished, exiting");
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private Map<?, ?> exchange(HttpMethod method, String url, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        try {
+            return restTemplate.exchange(url, method, new HttpEntity<>(body, headers), Map.class).getBody();
+        } catch (RuntimeException e) {
+            // error responses are part of the training as well
+            log.debug("{} {} failed: {}", method, url, e.getMessage());
+            return Map.of();
+        }
+    }
+}
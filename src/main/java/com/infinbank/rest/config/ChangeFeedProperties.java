@@ -0,0 +1,43 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the change feed behind {@code GET /api/changes/stream}.
+ *
+ * @see com.infinbank.rest.service.ChangeFeed
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * Most recent events kept for subscribers that resume with {@code Last-Event-ID}.
+     */
+    private int historySize = 10_000;
+
+    /**
+     * Events waiting to be sent to one subscriber; a subscriber that falls further behind is disconnected.
+     */
+    private int bufferSize = 1_000;
+
+    /**
+     * Concurrent subscribers, further ones are rejected with 503.
+     */
+    private int maxSubscribers = 100;
+
+    /**
+     * Interval of the comment lines that keep idle connections open.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Lifetime of a stream, the client reconnects afterwards; {@code 0} for no limit.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,57 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link com.infinbank.rest.service.CourseSimilarityIndex}, which keeps the most similar
+ * courses of every course by co-enrollment.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "course-similarity")
+public class CourseSimilarityProperties {
+
+    private boolean enabled = true;
+
+    private Metric metric = Metric.JACCARD;
+
+    /**
+     * Similar courses kept per course.
+     */
+    private int topK = 10;
+
+    /**
+     * Delay between the application start and the first computation.
+     */
+    private Duration initialDelay = Duration.ofSeconds(10);
+
+    /**
+     * Delay between the end of a refresh and the start of the next one.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    /**
+     * Share of changed courses above which a refresh recomputes every course instead of the affected ones.
+     */
+    private double fullRefreshRatio = 0.25;
+
+    /**
+     * Worker threads of the computation, {@code 0} for one per available processor.
+     */
+    private int parallelism = 0;
+
+    public enum Metric {
+        /**
+         * Common students divided by the students of either course.
+         */
+        JACCARD,
+        /**
+         * Common students divided by the geometric mean of both course sizes.
+         */
+        COSINE
+    }
+}
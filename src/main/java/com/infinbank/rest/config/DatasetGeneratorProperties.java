@@ -0,0 +1,56 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cardinalities and skew of the synthetic data set written by
+ * {@link com.infinbank.rest.dataset.DatasetGenerator}.
+ * <p>
+ * Generated rows are appended after the rows already present in the tables.
+ * </p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "dataset.generator")
+public class DatasetGeneratorProperties {
+
+    private int students = 100_000;
+
+    private int teachers = 5_000;
+
+    private int courses = 500;
+
+    /**
+     * Distinct courses per student, capped at the number of generated courses.
+     */
+    private int coursesPerStudent = 3;
+
+    /**
+     * Distinct teachers per student, capped at the number of generated teachers.
+     */
+    private int teachersPerStudent = 2;
+
+    /**
+     * Zipf exponent of course popularity; {@code 0} picks courses uniformly.
+     */
+    private double courseSkew = 1.0;
+
+    /**
+     * Zipf exponent of first and last name frequencies; {@code 0} picks names uniformly.
+     */
+    private double nameSkew = 1.0;
+
+    /**
+     * Number of threads inserting rows in parallel.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Rows per JDBC batch.
+     */
+    private int batchSize = 1_000;
+
+    private long seed = 42;
+}
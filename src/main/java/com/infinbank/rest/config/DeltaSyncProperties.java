@@ -0,0 +1,23 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@code GET /api/{students,teachers,courses}/changes} endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "delta-sync")
+public class DeltaSyncProperties {
+
+    /**
+     * Age a change must have before the sync token moves past it. A transaction still running takes its
+     * sequence values before it commits, so a younger change may still be preceded by uncommitted ones;
+     * transactions running longer than this window can be missed by clients.
+     */
+    private Duration settleWindow = Duration.ofSeconds(5);
+}
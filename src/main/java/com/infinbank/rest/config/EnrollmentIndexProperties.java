@@ -0,0 +1,23 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link com.infinbank.rest.service.EnrollmentIndex}, the in-memory copy of the enrollments.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "enrollment-index")
+public class EnrollmentIndexProperties {
+
+    /**
+     * Delay between the end of a reload of {@code student_course} and the start of the next one, which picks
+     * up the enrollments written by other replicas or behind the services' back. {@code 0} loads the index at
+     * start-up only.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,37 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the write-coalescing queue for student/course associations.
+ * <p>
+ * The queue is opt-in: when {@code enabled} is {@code false} the assign/remove endpoints
+ * write straight through {@link com.infinbank.rest.service.StudentService}.
+ * </p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "enrollment.write-queue")
+public class EnrollmentWriteQueueProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Maximum time a change waits in the queue before it is flushed.
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * Number of distinct (student, course) pairs that triggers an early flush.
+     */
+    private int maxBatchSize = 500;
+
+    /**
+     * Number of distinct pending pairs above which new changes are rejected.
+     */
+    private int capacity = 20_000;
+}
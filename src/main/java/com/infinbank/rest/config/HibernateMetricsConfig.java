@@ -0,0 +1,38 @@
+package com.infinbank.rest.config;
+
+import com.infinbank.rest.metrics.MicrometerStatisticsFactory;
+import com.infinbank.rest.metrics.RepositoryMethodContextBeanPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Hibernate statistics and bridges them into Micrometer, tagged by repository method.
+ * <p>
+ * Disabled by default because statistics collection adds bookkeeping to every session.
+ * Enable with {@code persistence.metrics.enabled=true}.
+ * </p>
+ *
+ * @see com.infinbank.rest.metrics.MicrometerStatistics
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "persistence.metrics", name = "enabled", havingValue = "true")
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer(MeterRegistry meterRegistry) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(StatisticsInitiator.STATS_BUILDER, new MicrometerStatisticsFactory(meterRegistry));
+        };
+    }
+
+    @Bean
+    public static RepositoryMethodContextBeanPostProcessor repositoryMethodContextBeanPostProcessor() {
+        return new RepositoryMethodContextBeanPostProcessor();
+    }
+}
@@ -0,0 +1,20 @@
+package com.infinbank.rest.config;
+
+import com.infinbank.rest.metrics.ErrorOutcomeTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tags of the {@code http.server.requests} latency metrics in addition to the route ({@code uri}), method,
+ * status and outcome tags of Spring Boot. The histograms, percentiles and SLO buckets are configured with the
+ * {@code management.metrics.distribution.*} properties and scraped from {@code /actuator/prometheus} on the
+ * management port.
+ */
+@Configuration
+public class HttpMetricsConfig {
+
+    @Bean
+    public ErrorOutcomeTagsContributor errorOutcomeTagsContributor() {
+        return new ErrorOutcomeTagsContributor();
+    }
+}
@@ -0,0 +1,39 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link com.infinbank.rest.service.JoinTablePurgeJob}, which removes the join table rows
+ * orphaned by the former {@code ON DELETE SET NULL} foreign keys.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "join-table-purge")
+public class JoinTablePurgeProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Delay between the application start and the first run.
+     */
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    /**
+     * Delay between the end of a run and the start of the next one.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Rows deleted per statement; every batch is its own short transaction.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Pause after every full batch, leaving room for regular traffic on the join tables.
+     */
+    private Duration pause = Duration.ofMillis(200);
+}
@@ -0,0 +1,38 @@
+package com.infinbank.rest.config;
+
+import com.infinbank.rest.service.CourseSimilarityIndex;
+import com.infinbank.rest.service.EnrollmentIndex;
+import com.infinbank.rest.service.JoinTablePurgeJob;
+import com.infinbank.rest.service.OutboxRelay;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is enabled, e.g. by the {@code lazy}
+ * profile. The database is migrated, or its schema version checked, and the persistence unit is built
+ * before the first request, and the beans running background work or answering from memory are started
+ * right away. Beans with {@code @Scheduled} methods are kept eager by Spring Boot already.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class,
+                SpringLiquibase.class,
+                SchemaVersionCheck.class,
+                EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class,
+                EnrollmentIndex.class,
+                CourseSimilarityIndex.class,
+                OutboxRelay.class,
+                JoinTablePurgeJob.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the transactional outbox: the {@code outbox_event} rows written with every change and
+ * {@link com.infinbank.rest.service.OutboxRelay}, which hands them to the outbox sink.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Records changes in the outbox; when disabled no rows are written and nothing is relayed.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Runs the relay in this instance. Several instances may relay the same outbox, rows claimed by one
+     * are skipped by the others.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Delay between the end of a poll that drained the outbox and the next poll.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Rows claimed, published and deleted per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * File the default sink appends the events to as JSON lines; when empty the events are logged.
+     */
+    private String sinkFile;
+}
@@ -0,0 +1,22 @@
+package com.infinbank.rest.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        EnrollmentWriteQueueProperties.class,
+        EnrollmentIndexProperties.class,
+        DatasetGeneratorProperties.class,
+        BulkImportProperties.class,
+        BulkDeleteProperties.class,
+        JoinTablePurgeProperties.class,
+        CourseSimilarityProperties.class,
+        ChangeFeedProperties.class,
+        OutboxProperties.class,
+        DeltaSyncProperties.class,
+        BatchProperties.class,
+        SlowQueryProperties.class
+})
+public class PropertiesConfig {
+}
@@ -0,0 +1,31 @@
+package com.infinbank.rest.config;
+
+import com.infinbank.rest.metrics.CountingStatementInspector;
+import com.infinbank.rest.metrics.QueryCountFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts SQL statements per thread and, when {@code persistence.query-count.header-enabled=true},
+ * reports the count of every HTTP request in the {@code X-Query-Count} header.
+ */
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "persistence.query-count", name = "header-enabled", havingValue = "true")
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter() {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
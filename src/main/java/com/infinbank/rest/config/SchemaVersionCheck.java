@@ -0,0 +1,122 @@
+package com.infinbank.rest.config;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.DatabaseList;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies on start-up that the database schema is at least at the version of the application, when the
+ * changelog is not applied by the application itself ({@code spring.liquibase.enabled=false}). The
+ * changelog is applied beforehand by a run with the {@code migrate} profile, so the serving replicas
+ * neither wait for the changelog lock nor validate checksums:
+ * <pre>
+ * java -jar rest-crud-api-exec.jar --spring.profiles.active=migrate
+ * </pre>
+ * The changesets of the packaged changelog that apply to the database are compared with the ones recorded
+ * in {@code databasechangelog}, read with one query. Changesets the application does not know of, written
+ * by a newer release, are accepted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.liquibase.enabled", havingValue = "false")
+public class SchemaVersionCheck implements InitializingBean {
+
+    private static final String APPLIED_CHANGESETS_SQL = "SELECT id, author FROM databasechangelog";
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String changeLog;
+
+    public SchemaVersionCheck(JdbcTemplate jdbcTemplate,
+                              @Value("${spring.liquibase.change-log:classpath:/db/changelog/db.changelog-master.yaml}")
+                              String changeLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        long start = System.nanoTime();
+        AppliedChangeSets applied = readAppliedChangeSets();
+        List<String> missing = expectedChangeSets(applied.database).stream()
+                .filter(changeSet -> !applied.keys.contains(changeSet))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException(String.format("The database schema is behind the application, "
+                    + "%d changesets are not applied: %s. Apply them with the migrate profile first",
+                    missing.size(), missing));
+        }
+        log.info("Database schema is up to date, {} changesets applied, checked in {} ms",
+                applied.keys.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    List<String> expectedChangeSets(String database) throws LiquibaseException {
+        String path = changeLog.startsWith(CLASSPATH_PREFIX) ? changeLog.substring(CLASSPATH_PREFIX.length()) : changeLog;
+        path = path.startsWith("/") ? path.substring(1) : path;
+        ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(getClass().getClassLoader());
+        ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor);
+        DatabaseChangeLog databaseChangeLog = parser.parse(path, new ChangeLogParameters(), resourceAccessor);
+        return databaseChangeLog.getChangeSets().stream()
+                .filter(changeSet -> DatabaseList.definitionMatches(changeSet.getDbmsSet(), database, true))
+                .map(changeSet -> key(changeSet.getId(), changeSet.getAuthor()))
+                .collect(Collectors.toList());
+    }
+
+    private AppliedChangeSets readAppliedChangeSets() {
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<AppliedChangeSets>) connection -> {
+                String database = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+                Set<String> keys = new HashSet<>();
+                try (PreparedStatement statement = connection.prepareStatement(APPLIED_CHANGESETS_SQL);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        keys.add(key(resultSet.getString(1), resultSet.getString(2)));
+                    }
+                }
+                return new AppliedChangeSets(database, keys);
+            });
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Cannot read the applied changesets, "
+                    + "the database has to be migrated with the migrate profile first", e);
+        }
+    }
+
+    private static String key(String id, String author) {
+        return id + "::" + author;
+    }
+
+    private static final class AppliedChangeSets {
+
+        private final String database;
+
+        private final Set<String> keys;
+
+        private AppliedChangeSets(String database, Set<String> keys) {
+            this.database = database;
+            this.keys = keys;
+        }
+    }
+}
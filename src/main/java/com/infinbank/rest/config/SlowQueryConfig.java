@@ -0,0 +1,40 @@
+package com.infinbank.rest.config;
+
+import com.infinbank.rest.metrics.SlowQueryDataSourceBeanPostProcessor;
+import com.infinbank.rest.metrics.SlowQueryEndpoint;
+import com.infinbank.rest.metrics.SlowQuerySampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records the statements slower than {@code slow-query.threshold} with a sample of their plans, listed by
+ * the {@code slowqueries} actuator endpoint on the management port.
+ * <p>
+ * Off unless {@code slow-query.enabled=true}, the data source is then used as is. Plans are captured only
+ * with a {@code slow-query.explain-sample-rate} above {@code 0}.
+ * </p>
+ *
+ * @see SlowQuerySampler
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "slow-query", name = "enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQuerySampler slowQuerySampler(SlowQueryProperties properties) {
+        return new SlowQuerySampler(properties);
+    }
+
+    @Bean
+    public static SlowQueryDataSourceBeanPostProcessor slowQueryDataSourceBeanPostProcessor(
+            ObjectProvider<SlowQuerySampler> sampler) {
+        return new SlowQueryDataSourceBeanPostProcessor(sampler::getObject);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQuerySampler sampler) {
+        return new SlowQueryEndpoint(sampler);
+    }
+}
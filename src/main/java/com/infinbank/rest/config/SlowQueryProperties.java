@@ -0,0 +1,48 @@
+package com.infinbank.rest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the slow query sampler behind the {@code slowqueries} actuator endpoint.
+ *
+ * @see com.infinbank.rest.metrics.SlowQuerySampler
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "slow-query")
+public class SlowQueryProperties {
+
+    /**
+     * Whether statements are timed at all; the data source is not wrapped when off.
+     */
+    private boolean enabled;
+
+    /**
+     * Execution time from which a statement is recorded.
+     */
+    private Duration threshold = Duration.ofMillis(500);
+
+    /**
+     * Share of the recorded statements whose plan is captured, between {@code 0} and {@code 1}; none by default.
+     */
+    private double explainSampleRate;
+
+    /**
+     * Most recent slow statements kept.
+     */
+    private int bufferSize = 100;
+
+    /**
+     * Sampled statements waiting for their plan; further ones are recorded without it.
+     */
+    private int explainQueueSize = 10;
+
+    /**
+     * Query timeout of an {@code EXPLAIN}, which executes the statement once more.
+     */
+    private Duration explainTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,84 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.config.BinaryFormatConfig;
+import com.infinbank.rest.dto.BatchRequestDto;
+import com.infinbank.rest.dto.BatchResultDto;
+import com.infinbank.rest.dto.ErrorResponseDto;
+import com.infinbank.rest.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * REST controller running many student, teacher and course operations in one request.
+ *
+ * @see BatchService
+ */
+@RestController
+@RequestMapping(value = "/api/batch",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE},
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE})
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchService batchService;
+
+    /**
+     * Runs the operations in request order.
+     *
+     * @return a {@link ResponseEntity} with the result of every operation; a failed operation does not fail
+     * the request, {@code committed} tells whether an atomic batch was committed.
+     */
+    @PostMapping
+    @Operation(
+            summary = "Run a batch of operations",
+            description = "POST endpoint running student, teacher and course operations in one round trip, "
+                    + "in one transaction (ATOMIC) or each in its own (INDEPENDENT). ${ref} in a path, or the "
+                    + "string value \"${ref}\" in a body, is replaced by the id returned by the earlier "
+                    + "operation with that ref",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch run, see the status of every operation",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = BatchResultDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid batch or more operations than allowed",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<BatchResultDto> handleBatch(@Valid @RequestBody BatchRequestDto batch) {
+        return ResponseEntity.ok().body(batchService.execute(batch));
+    }
+}
@@ -0,0 +1,72 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.service.ChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming the committed changes of students, teachers and courses.
+ *
+ * @see ChangeFeed
+ */
+@RestController
+@RequestMapping(value = "/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final ChangeFeed changeFeed;
+
+    /**
+     * Opens a Server-Sent Events stream of {@link ChangeEventDto}s. The event name is the lowercase change
+     * type, the event id can be sent back in {@code Last-Event-ID} to resume after a disconnect.
+     *
+     * @param lastEventId the id of the last event received before reconnecting, if any. An id not issued by
+     *                    this instance is treated like an id whose events are gone.
+     * @return a {@link ResponseEntity} with the stream, or status 503 if too many streams are open.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream committed changes",
+            description = "Server-Sent Events of created, updated, deleted, assigned and unassigned entities. "
+                    + "A reset event tells a resuming client that the events it missed are no longer available.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Stream opened",
+                            content = {
+                                    @Content(
+                                            mediaType = "text/event-stream",
+                                            schema = @Schema(implementation = ChangeEventDto.class))}),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Too many open streams, retry later"
+                    )
+            }
+    )
+
+    public ResponseEntity<SseEmitter> handleStream(
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId == null || lastEventId.isBlank() ? null : lastEventId.trim())
+                .map(emitter -> ResponseEntity.ok().body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .build());
+    }
+}
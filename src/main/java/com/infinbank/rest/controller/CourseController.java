@@ -1,9 +1,17 @@
 package com.infinbank.rest.controller;
 
+import com.infinbank.rest.config.BinaryFormatConfig;
+import com.infinbank.rest.converter.ProtobufJacksonHttpMessageConverter;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangesDto;
+import com.infinbank.rest.dto.CourseDetailsDto;
 import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.EnrollmentQueryResultDto;
 import com.infinbank.rest.dto.ErrorResponseDto;
+import com.infinbank.rest.dto.RelatedCourseDto;
 import com.infinbank.rest.dto.StudentDto;
 import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.service.MergePatchValidator;
 import com.infinbank.rest.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,19 +20,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * REST controller for managing courses.
@@ -34,7 +46,11 @@ import java.util.Map;
  * @author WILL SALAS
  */
 @RestController
-@RequestMapping(value = "/api/courses", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/api/courses",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE,
+                ProtobufJacksonHttpMessageConverter.MEDIA_TYPE_VALUE},
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE,
+                ProtobufJacksonHttpMessageConverter.MEDIA_TYPE_VALUE})
 @RequiredArgsConstructor
 public class CourseController {
     private final CourseService courseService;
@@ -72,6 +88,110 @@ public class CourseController {
         return ResponseEntity.ok().body(courseService.findAll());
     }
 
+    /**
+     * Retrieves a page of the courses changed or deleted after a sync token, for delta sync.
+     *
+     * <p>A client starts without {@code since} and passes the returned token with the next request until
+     * {@code hasMore} is {@code false}.</p>
+     *
+     * @param since the token returned by the previous request, absent to start a full sync.
+     * @param limit the maximum number of changes to return.
+     * @return a {@link ResponseEntity} containing the {@link ChangesDto} with the changed courses, the IDs of the
+     * deleted ones and the next token.
+     */
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Get the courses changed since a sync token",
+            description = "GET endpoint for delta sync of courses: returns the changed courses, the ids of the "
+                    + "deleted ones and the token to pass as since with the next request",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Found the changes",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ChangesDto.class))}),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The sync token is not valid",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<ChangesDto<CourseDto>> handleGetChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok().body(courseService.findChangesSince(since, limit));
+    }
+
+    /**
+     * Finds the students enrolled in all of the {@code and} courses and in none of the {@code not} courses,
+     * e.g. {@code ?and=1,2&not=3}. The query is answered from memory.
+     *
+     * @return a {@link ResponseEntity} containing the {@link EnrollmentQueryResultDto}.
+     */
+    @GetMapping("/query")
+    @Operation(
+            summary = "Query students across courses",
+            description = "Students enrolled in every course of 'and' and in none of 'not'; "
+                    + "'count=true' returns the count only, 'after' and 'limit' page through the ids",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Number and ids of the matching students",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = EnrollmentQueryResultDto.class))}),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Missing or invalid course ids",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<EnrollmentQueryResultDto> handleQuery(
+            @RequestParam("and") List<Integer> and,
+            @RequestParam(value = "not", required = false) List<Integer> not,
+            @RequestParam(value = "count", defaultValue = "false") boolean count,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit)
+            throws MissingServletRequestParameterException {
+        // "?and=" binds to an empty list
+        if (and.stream().allMatch(Objects::isNull)) {
+            throw new MissingServletRequestParameterException("and", "List");
+        }
+        return ResponseEntity.ok().body(courseService.queryStudents(and, not == null ? List.of() : not,
+                count, after, limit));
+    }
+
     /**
      * Retrieves a course by its ID.
      *
@@ -85,7 +205,8 @@ public class CourseController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Get a course by id",
-            description = "GET endpoint for getting course by id",
+            description = "GET endpoint for getting course by id. include=students,teachers adds the related "
+                    + "entities to the response, each included collection costs one more query at most",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -93,10 +214,10 @@ public class CourseController {
                             content = {
                                     @Content(
                                             mediaType = "application/json",
-                                            schema = @Schema(implementation = CourseDto.class))}),
+                                            schema = @Schema(implementation = CourseDetailsDto.class))}),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Invalid id supplied",
+                            description = "Invalid id or include supplied",
                             content = @Content),
                     @ApiResponse(
                             responseCode = "5XX",
@@ -109,8 +230,10 @@ public class CourseController {
                     )
             }
     )
-    public ResponseEntity<CourseDto> handleGetById(@PathVariable Integer id) {
-        CourseDto courseDto = courseService.findById(id);
+    public ResponseEntity<CourseDetailsDto> handleGetById(
+            @PathVariable Integer id,
+            @RequestParam(value = "include", required = false) List<String> include) {
+        CourseDetailsDto courseDto = courseService.findDetailsById(id, include);
         return ResponseEntity.ok().body(courseDto);
     }
 
@@ -200,6 +323,52 @@ public class CourseController {
         return ResponseEntity.ok().body(teachersByCourseId);
     }
 
+    /**
+     * Retrieves the courses most similar to a specific course, i.e. the courses its students also took.
+     *
+     * @param id the ID of the course.
+     * @param limit the maximum number of courses to return.
+     * @return a {@link ResponseEntity} containing a list of {@link RelatedCourseDto}.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the course is not found.
+     */
+    @GetMapping("/{id}/related")
+    @Operation(
+            summary = "Get Courses related to a particular Course",
+            description = "Courses sharing the most students with the course, most similar first",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Found the related courses",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = RelatedCourseDto.class))}),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Course not found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<List<RelatedCourseDto>> handleGettingRelatedCourses(
+            @PathVariable Integer id,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok().body(courseService.findRelatedCourses(id, limit));
+    }
+
     /**
      * Creates a new course.
      *
@@ -310,6 +479,112 @@ public class CourseController {
         return ResponseEntity.ok().body(updatedCourseDto);
     }
 
+    /**
+     * Updates only the supplied fields of an existing course (JSON merge patch).
+     *
+     * <p>Fields that are absent from the patch keep their value; the supplied ones are written with a single
+     * {@code UPDATE}.</p>
+     *
+     * @param id    the ID of the course to patch.
+     * @param patch the fields to change, by {@link CourseDto} property name.
+     * @return an empty {@link ResponseEntity} with status 204.
+     * @throws com.infinbank.rest.exception.InvalidPatchException if a field is unknown or invalid.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the course is not found.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchValidator.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            summary = "Patch Course",
+            description = "Updating only the supplied fields of a course (JSON merge patch)",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Course patched",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unknown field or invalid data supplied",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Course not found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<Void> handlePatch(@PathVariable Integer id, @RequestBody Map<String, Object> patch) {
+        courseService.patch(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Deletes many courses in database by their IDs, together with their enrollments.
+     *
+     * <p>Ids of missing courses are reported in the result instead of failing the request.</p>
+     *
+     * @param ids the IDs of the courses to delete.
+     * @return a {@link ResponseEntity} containing the {@link BulkDeleteResultDto}.
+     * @throws com.infinbank.rest.exception.BulkDeleteLimitExceededException if more ids than allowed are passed.
+     */
+    @DeleteMapping
+    @Operation(
+            summary = "Delete Courses",
+            description = "Deleting many courses at once, e.g. ?ids=1,2,3",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Result for every requested id",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = BulkDeleteResultDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid ids or more ids than allowed",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<BulkDeleteResultDto> handleDeleteAll(@RequestParam("ids") List<Integer> ids) {
+        return ResponseEntity.ok().body(courseService.deleteAllById(ids));
+    }
+
     /**
      * Deletes a course in database by ID.
      *
@@ -1,9 +1,16 @@
 package com.infinbank.rest.controller;
 
+import com.infinbank.rest.config.BinaryFormatConfig;
+import com.infinbank.rest.converter.ProtobufJacksonHttpMessageConverter;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangesDto;
 import com.infinbank.rest.dto.CourseDto;
 import com.infinbank.rest.dto.ErrorResponseDto;
+import com.infinbank.rest.dto.StudentDetailsDto;
 import com.infinbank.rest.dto.StudentDto;
 import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.service.EnrollmentWriteQueue;
+import com.infinbank.rest.service.MergePatchValidator;
 import com.infinbank.rest.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,25 +23,34 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
-@RequestMapping(value = "/api/students", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/api/students",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE,
+                ProtobufJacksonHttpMessageConverter.MEDIA_TYPE_VALUE},
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE,
+                ProtobufJacksonHttpMessageConverter.MEDIA_TYPE_VALUE})
 @RequiredArgsConstructor
 @Tag(name = "Student")
 public class StudentController {
     private final StudentService studentService;
 
+    private final EnrollmentWriteQueue enrollmentWriteQueue;
+
     @GetMapping
     @Operation(
             summary = "Get the list of all students",
@@ -62,10 +78,61 @@ public class StudentController {
         return ResponseEntity.ok().body(studentService.findAll());
     }
 
+    /**
+     * Retrieves a page of the students changed or deleted after a sync token, for delta sync.
+     *
+     * <p>A client starts without {@code since} and passes the returned token with the next request until
+     * {@code hasMore} is {@code false}.</p>
+     *
+     * @param since the token returned by the previous request, absent to start a full sync.
+     * @param limit the maximum number of changes to return.
+     * @return a {@link ResponseEntity} containing the {@link ChangesDto} with the changed students, the IDs of the
+     * deleted ones and the next token.
+     */
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Get the students changed since a sync token",
+            description = "GET endpoint for delta sync of students: returns the changed students, the ids of the "
+                    + "deleted ones and the token to pass as since with the next request",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Found the changes",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ChangesDto.class))}),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The sync token is not valid",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<ChangesDto<StudentDto>> handleGetChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok().body(studentService.findChangesSince(since, limit));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get a student by id",
-            description = "GET endpoint for getting student by id",
+            description = "GET endpoint for getting student by id. include=courses,teachers adds the related "
+                    + "entities to the response, each included collection costs one more query at most",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -73,10 +140,10 @@ public class StudentController {
                             content = {
                                     @Content(
                                             mediaType = "application/json",
-                                            schema = @Schema(implementation = StudentDto.class))}),
+                                            schema = @Schema(implementation = StudentDetailsDto.class))}),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Invalid id supplied",
+                            description = "Invalid id or include supplied",
                             content = @Content),
                     @ApiResponse(
                             responseCode = "5XX",
@@ -89,8 +156,10 @@ public class StudentController {
                     )
             }
     )
-    public ResponseEntity<StudentDto> handleGetById(@PathVariable Integer id) {
-        return ResponseEntity.ok().body(studentService.findById(id));
+    public ResponseEntity<StudentDetailsDto> handleGetById(
+            @PathVariable Integer id,
+            @RequestParam(value = "include", required = false) List<String> include) {
+        return ResponseEntity.ok().body(studentService.findDetailsById(id, include));
     }
 
     @GetMapping("/{id}/courses")
@@ -333,15 +402,14 @@ public class StudentController {
                     )
             }
     )
-    public ResponseEntity<?> handleAssigningCourseToStudent(@PathVariable("studentId") Integer studentId,
-                                                            @PathVariable("courseId") Integer courseId) {
-        boolean isAssigned = studentService.assignCourseToStudent(courseId, studentId);
-        if (!isAssigned) {
-            return ResponseEntity
-                    .status(HttpStatus.CONFLICT)
-                    .body("Course already assigned to this student");
+    public CompletableFuture<ResponseEntity<?>> handleAssigningCourseToStudent(@PathVariable("studentId") Integer studentId,
+                                                                               @PathVariable("courseId") Integer courseId) {
+        if (enrollmentWriteQueue.isEnabled()) {
+            return enrollmentWriteQueue.assignCourseToStudent(courseId, studentId)
+                    .thenApply(StudentController::toCourseAssignedResponse);
         }
-        return ResponseEntity.ok().body("Course assigned to student");
+        boolean isAssigned = studentService.assignCourseToStudent(courseId, studentId);
+        return CompletableFuture.completedFuture(toCourseAssignedResponse(isAssigned));
     }
 
     @PutMapping("/{id}")
@@ -395,6 +463,103 @@ public class StudentController {
         return ResponseEntity.ok().body(updatedStudentDto);
     }
 
+    /**
+     * Updates only the supplied fields of an existing student (JSON merge patch).
+     *
+     * <p>Fields that are absent from the patch keep their value; the supplied ones are written with a single
+     * {@code UPDATE}.</p>
+     *
+     * @param id    the ID of the student to patch.
+     * @param patch the fields to change, by {@link StudentDto} property name.
+     * @return an empty {@link ResponseEntity} with status 204.
+     * @throws com.infinbank.rest.exception.InvalidPatchException if a field is unknown or invalid.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the student is not found.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchValidator.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            summary = "Patch student",
+            description = "Updating only the supplied fields of a student (JSON merge patch)",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Student patched",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unknown field or invalid data supplied",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Student not found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<Void> handlePatch(@PathVariable Integer id, @RequestBody Map<String, Object> patch) {
+        studentService.patch(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    @Operation(
+            summary = "Delete Students",
+            description = "Deleting many students at once, e.g. ?ids=1,2,3",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Result for every requested id",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = BulkDeleteResultDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid ids or more ids than allowed",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<BulkDeleteResultDto> handleDeleteAll(@RequestParam("ids") List<Integer> ids) {
+        return ResponseEntity.ok().body(studentService.deleteAllById(ids));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete Student",
@@ -566,9 +731,26 @@ public class StudentController {
                     )
             }
     )
-    public ResponseEntity<?> handleRemovingCourseFromStudent(@PathVariable("studentId") Integer studentId,
-                                                             @PathVariable("courseId") Integer courseId) {
+    public CompletableFuture<ResponseEntity<?>> handleRemovingCourseFromStudent(@PathVariable("studentId") Integer studentId,
+                                                                                @PathVariable("courseId") Integer courseId) {
+        if (enrollmentWriteQueue.isEnabled()) {
+            return enrollmentWriteQueue.removeCourseFromStudent(courseId, studentId)
+                    .thenApply(StudentController::toCourseRemovedResponse);
+        }
         boolean isRemoved = studentService.removeCourseFromStudent(courseId, studentId);
+        return CompletableFuture.completedFuture(toCourseRemovedResponse(isRemoved));
+    }
+
+    private static ResponseEntity<?> toCourseAssignedResponse(boolean isAssigned) {
+        if (!isAssigned) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body("Course already assigned to this student");
+        }
+        return ResponseEntity.ok().body("Course assigned to student");
+    }
+
+    private static ResponseEntity<?> toCourseRemovedResponse(boolean isRemoved) {
         if (!isRemoved) {
             return ResponseEntity
                     .status(HttpStatus.NOT_FOUND)
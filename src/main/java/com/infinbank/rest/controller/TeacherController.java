@@ -1,9 +1,15 @@
 package com.infinbank.rest.controller;
 
+import com.infinbank.rest.config.BinaryFormatConfig;
+import com.infinbank.rest.converter.ProtobufJacksonHttpMessageConverter;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangesDto;
 import com.infinbank.rest.dto.CourseDto;
 import com.infinbank.rest.dto.ErrorResponseDto;
 import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDetailsDto;
 import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.service.MergePatchValidator;
 import com.infinbank.rest.service.TeacherService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,11 +21,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -29,7 +37,11 @@ import java.util.Map;
 import java.util.Optional;
 
 @RestController
-@RequestMapping(value = "/api/teachers", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/api/teachers",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE,
+                ProtobufJacksonHttpMessageConverter.MEDIA_TYPE_VALUE},
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatConfig.SMILE_VALUE,
+                ProtobufJacksonHttpMessageConverter.MEDIA_TYPE_VALUE})
 @RequiredArgsConstructor
 public class TeacherController {
     private final TeacherService teacherService;
@@ -62,10 +74,61 @@ public class TeacherController {
                 .body(teacherService.findAll());
     }
 
+    /**
+     * Retrieves a page of the teachers changed or deleted after a sync token, for delta sync.
+     *
+     * <p>A client starts without {@code since} and passes the returned token with the next request until
+     * {@code hasMore} is {@code false}.</p>
+     *
+     * @param since the token returned by the previous request, absent to start a full sync.
+     * @param limit the maximum number of changes to return.
+     * @return a {@link ResponseEntity} containing the {@link ChangesDto} with the changed teachers, the IDs of the
+     * deleted ones and the next token.
+     */
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Get the teachers changed since a sync token",
+            description = "GET endpoint for delta sync of teachers: returns the changed teachers, the ids of the "
+                    + "deleted ones and the token to pass as since with the next request",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Found the changes",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ChangesDto.class))}),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The sync token is not valid",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<ChangesDto<TeacherDto>> handleGetChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok().body(teacherService.findChangesSince(since, limit));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get a teacher by id",
-            description = "GET endpoint for getting teacher by id",
+            description = "GET endpoint for getting teacher by id. include=students adds the related "
+                    + "entities to the response, each included collection costs one more query at most",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -73,10 +136,10 @@ public class TeacherController {
                             content = {
                                     @Content(
                                             mediaType = "application/json",
-                                            schema = @Schema(implementation = TeacherDto.class))}),
+                                            schema = @Schema(implementation = TeacherDetailsDto.class))}),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Invalid id supplied",
+                            description = "Invalid id or include supplied",
                             content = @Content),
                     @ApiResponse(
                             responseCode = "5XX",
@@ -89,8 +152,10 @@ public class TeacherController {
                     )
             }
     )
-    public ResponseEntity<TeacherDto> handleGetById(@PathVariable Integer id) {
-        TeacherDto teacherDto = teacherService.findById(id);
+    public ResponseEntity<TeacherDetailsDto> handleGetById(
+            @PathVariable Integer id,
+            @RequestParam(value = "include", required = false) List<String> include) {
+        TeacherDetailsDto teacherDto = teacherService.findDetailsById(id, include);
         return ResponseEntity.ok().body(teacherDto);
     }
 
@@ -328,6 +393,103 @@ public class TeacherController {
         return ResponseEntity.ok().body(updatedTeacherDto);
     }
 
+    /**
+     * Updates only the supplied fields of an existing teacher (JSON merge patch).
+     *
+     * <p>Fields that are absent from the patch keep their value; the supplied ones are written with a single
+     * {@code UPDATE}.</p>
+     *
+     * @param id    the ID of the teacher to patch.
+     * @param patch the fields to change, by {@link TeacherDto} property name.
+     * @return an empty {@link ResponseEntity} with status 204.
+     * @throws com.infinbank.rest.exception.InvalidPatchException if a field is unknown or invalid.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the teacher is not found.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchValidator.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            summary = "Patch Teacher",
+            description = "Updating only the supplied fields of a teacher (JSON merge patch)",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Teacher patched",
+                            content = @Content),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unknown field or invalid data supplied",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Teacher not found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<Void> handlePatch(@PathVariable Integer id, @RequestBody Map<String, Object> patch) {
+        teacherService.patch(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    @Operation(
+            summary = "Delete Teachers",
+            description = "Deleting many teachers at once, e.g. ?ids=1,2,3",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Result for every requested id",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = BulkDeleteResultDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid ids or more ids than allowed",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class)
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "5XX",
+                            description = "Something went wrong in server",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(implementation = ErrorResponseDto.class))
+                            }
+                    )
+            }
+    )
+    public ResponseEntity<BulkDeleteResultDto> handleDeleteAll(@RequestParam("ids") List<Integer> ids) {
+        return ResponseEntity.ok().body(teacherService.deleteAllById(ids));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete Teacher",
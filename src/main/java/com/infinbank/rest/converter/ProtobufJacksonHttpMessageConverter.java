@@ -0,0 +1,290 @@
+package com.infinbank.rest.converter;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.StdConverter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schemagen.ProtobufSchemaGenerator;
+import com.infinbank.rest.dto.ErrorResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the DTOs as Protocol Buffers messages with the Jackson protobuf module.
+ *
+ * <p>No {@code .proto} files are compiled: the message schema of a type is generated from its Jackson
+ * properties on first use and cached. Fields are numbered in property declaration order, so clients can
+ * obtain the schema with {@link #schemaFor(Type)} and fields must only be appended to the DTOs.</p>
+ *
+ * <p>Protocol Buffers has no top level repeated type, a collection is therefore written as a stream of
+ * length-delimited messages, the format of {@code writeDelimitedTo} and {@code parseDelimitedFrom} of the
+ * protobuf runtime. The error map of {@link ErrorResponseDto} is written as repeated key/value entries,
+ * the wire format of a {@code map<string, string>} field. Types without a message schema, such as a list
+ * of ids, are left to the other converters.</p>
+ */
+public class ProtobufJacksonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-protobuf";
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<JavaType, Optional<ProtobufSchema>> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * @param builder configured like the JSON object mapper; its factory is replaced.
+     */
+    public ProtobufJacksonHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(MEDIA_TYPE);
+        this.objectMapper = builder
+                .factory(new ProtobufFactory())
+                .mixIn(ErrorResponseDto.class, ErrorResponseMixIn.class)
+                .build();
+        Assert.isInstanceOf(ProtobufFactory.class, objectMapper.getFactory(), "ProtobufFactory required");
+    }
+
+    /**
+     * @return the message schema of {@code type}, or of its elements if it is a collection.
+     */
+    public Optional<ProtobufSchema> schemaFor(Type type) {
+        return messageSchema(messageType(objectMapper.constructType(type)));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // the generic canRead and canWrite decide by the schema
+        return true;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return canRead(mediaType) && schemaFor(resolve(type, contextClass)).isPresent();
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return canRead(clazz, null, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(mediaType) && schemaFor(type != null ? type : clazz).isPresent();
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(null, clazz, mediaType);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        JavaType javaType = objectMapper.constructType(resolve(type, contextClass));
+        JavaType messageType = messageType(javaType);
+        ProtobufSchema schema = messageSchema(messageType).orElseThrow(() ->
+                new HttpMessageNotReadableException("No protobuf schema for " + javaType, inputMessage));
+        try {
+            if (!javaType.isCollectionLikeType()) {
+                return objectMapper.readerFor(javaType).with(schema).readValue(inputMessage.getBody());
+            }
+            Collection<Object> messages = Set.class.isAssignableFrom(javaType.getRawClass())
+                    ? new LinkedHashSet<>() : new ArrayList<>();
+            InputStream body = inputMessage.getBody();
+            for (byte[] message = readDelimited(body, inputMessage); message != null;
+                 message = readDelimited(body, inputMessage)) {
+                messages.add(objectMapper.readerFor(messageType).with(schema).readValue(message));
+            }
+            return messages;
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("Protobuf parse error: " + ex.getOriginalMessage(), ex,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        JavaType javaType = objectMapper.constructType(type != null ? type : object.getClass());
+        JavaType messageType = messageType(javaType);
+        ProtobufSchema schema = messageSchema(messageType).orElseThrow(() ->
+                new HttpMessageNotWritableException("No protobuf schema for " + javaType));
+        try {
+            OutputStream body = outputMessage.getBody();
+            if (!javaType.isCollectionLikeType()) {
+                body.write(objectMapper.writerFor(messageType).with(schema).writeValueAsBytes(object));
+                return;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            for (Object message : (Collection<?>) object) {
+                byte[] bytes = objectMapper.writerFor(messageType).with(schema).writeValueAsBytes(message);
+                writeVarint(buffer, bytes.length);
+                buffer.write(bytes);
+            }
+            buffer.writeTo(body);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write protobuf: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private static Type resolve(Type type, @Nullable Class<?> contextClass) {
+        return GenericTypeResolver.resolveType(type, contextClass);
+    }
+
+    private static JavaType messageType(JavaType type) {
+        return type.isCollectionLikeType() ? type.getContentType() : type;
+    }
+
+    private Optional<ProtobufSchema> messageSchema(JavaType type) {
+        if (type.isPrimitive() || type.isContainerType() || type.isEnumType()
+                || type.getRawClass().getName().startsWith("java.")) {
+            return Optional.empty();
+        }
+        return schemas.computeIfAbsent(type, this::generateSchema);
+    }
+
+    private Optional<ProtobufSchema> generateSchema(JavaType type) {
+        try {
+            ProtobufSchemaGenerator generator = new ProtobufSchemaGenerator();
+            objectMapper.acceptJsonFormatVisitor(type, generator);
+            return Optional.of(generator.getGeneratedSchema());
+        } catch (JsonProcessingException | RuntimeException ex) {
+            logger.debug("No protobuf schema for " + type, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the next length-delimited message, {@code null} at the end of the stream.
+     */
+    @Nullable
+    private static byte[] readDelimited(InputStream in, HttpInputMessage inputMessage) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return null;
+                }
+                throw new HttpMessageNotReadableException("Truncated message length", inputMessage);
+            }
+            if (shift > 28) {
+                throw new HttpMessageNotReadableException("Malformed message length", inputMessage);
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        byte[] message = in.readNBytes(length);
+        if (message.length < length) {
+            throw new HttpMessageNotReadableException("Truncated message", inputMessage);
+        }
+        return message;
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Converts {@link ErrorResponseDto} to and from {@link ErrorResponseMessage}; the schema generator does not
+     * support maps.
+     */
+    @JsonSerialize(converter = ToErrorResponseMessage.class)
+    @JsonDeserialize(converter = FromErrorResponseMessage.class)
+    abstract static class ErrorResponseMixIn {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonPropertyOrder({"statusCode", "message", "errors"})
+    static class ErrorResponseMessage {
+
+        private HttpStatus statusCode;
+
+        private String message;
+
+        private List<Entry> errors;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonPropertyOrder({"key", "value"})
+    static class Entry {
+
+        private String key;
+
+        private String value;
+    }
+
+    static class ToErrorResponseMessage extends StdConverter<ErrorResponseDto, ErrorResponseMessage> {
+
+        @Override
+        public ErrorResponseMessage convert(ErrorResponseDto error) {
+            List<Entry> entries = error.getErrors() == null ? null : error.getErrors().entrySet().stream()
+                    .map(entry -> new Entry(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+            return new ErrorResponseMessage(error.getStatusCode(), error.getMessage(), entries);
+        }
+    }
+
+    static class FromErrorResponseMessage extends StdConverter<ErrorResponseMessage, ErrorResponseDto> {
+
+        @Override
+        public ErrorResponseDto convert(ErrorResponseMessage message) {
+            Map<String, String> errors = null;
+            if (message.getErrors() != null) {
+                errors = new LinkedHashMap<>();
+                for (Entry entry : message.getErrors()) {
+                    errors.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return new ErrorResponseDto(message.getStatusCode(), message.getMessage(), errors);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.infinbank.rest.dataset;
+
+import com.infinbank.rest.config.BulkImportProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Portable import path for databases without {@code COPY}, e.g. the embedded H2 database.
+ *
+ * <p>The CSV is parsed and validated in Java with the same rules as {@link PostgresCopyImporter}.
+ * People are written with two JDBC batches: an {@code UPDATE} of the rows whose attributes changed,
+ * then an {@code INSERT ... WHERE NOT EXISTS} of the remaining ones. Natural keys of the join files are
+ * resolved to ids with one query per batch.</p>
+ */
+@Component
+@RequiredArgsConstructor
+class BatchInsertImporter {
+
+    private static final String UPDATE_STUDENT = "UPDATE student SET age = ?"
+            + " WHERE first_name = ? AND last_name = ? AND middle_name = ? AND age <> ?";
+
+    private static final String INSERT_STUDENT = "INSERT INTO student (first_name, last_name, middle_name, age)"
+            + " SELECT ?, ?, ?, ? WHERE NOT EXISTS"
+            + " (SELECT 1 FROM student WHERE first_name = ? AND last_name = ? AND middle_name = ?)";
+
+    private static final String UPDATE_TEACHER = "UPDATE teacher SET age = ?, course_id = ?"
+            + " WHERE first_name = ? AND last_name = ? AND middle_name = ?"
+            + " AND (age <> ? OR course_id IS DISTINCT FROM ?)";
+
+    private static final String INSERT_TEACHER = "INSERT INTO teacher"
+            + " (first_name, last_name, middle_name, age, course_id)"
+            + " SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS"
+            + " (SELECT 1 FROM teacher WHERE first_name = ? AND last_name = ? AND middle_name = ?)";
+
+    private static final String INSERT_STUDENT_COURSE = "INSERT INTO student_course (student_id, course_id)"
+            + " SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM student_course WHERE student_id = ? AND course_id = ?)";
+
+    private static final String INSERT_TEACHER_STUDENT = "INSERT INTO teacher_student (student_id, teacher_id)"
+            + " SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM teacher_student WHERE student_id = ? AND teacher_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BulkImportProperties properties;
+
+    /**
+     * Validates and merges one CSV file in a single transaction.
+     */
+    @Transactional
+    public ImportResult load(ImportDataset dataset, Reader csv) {
+        List<List<String>> records = readRecords(dataset, csv);
+        switch (dataset) {
+            case STUDENTS:
+                return loadStudents(records);
+            case TEACHERS:
+                return loadTeachers(records);
+            case ENROLLMENTS:
+                return loadLinks(dataset, records, courseIds(), INSERT_STUDENT_COURSE);
+            case TUTORING:
+                return loadLinks(dataset, records, null, INSERT_TEACHER_STUDENT);
+            default:
+                throw new IllegalArgumentException("Unexpected dataset " + dataset);
+        }
+    }
+
+    private ImportResult loadStudents(List<List<String>> records) {
+        // keyed by natural key, the last line of a person wins like on PostgreSQL
+        Map<List<String>, Object[]> valid = new LinkedHashMap<>();
+        long rejected = 0;
+        for (List<String> record : records) {
+            Integer age = age(record.get(3));
+            if (validNames(record.subList(0, 3)) && age != null && age > 5) {
+                valid.put(record.subList(0, 3), new Object[]{age});
+            } else {
+                rejected++;
+            }
+        }
+        long[] counts = upsert(valid, UPDATE_STUDENT, INSERT_STUDENT);
+        return new ImportResult(ImportDataset.STUDENTS, records.size(), counts[0], counts[1], rejected);
+    }
+
+    private ImportResult loadTeachers(List<List<String>> records) {
+        Map<String, Integer> courses = courseIds();
+        Map<List<String>, Object[]> valid = new LinkedHashMap<>();
+        long rejected = 0;
+        for (List<String> record : records) {
+            Integer age = age(record.get(3));
+            String courseName = record.get(4);
+            Integer courseId = courseName.isBlank() ? null : courses.get(courseName);
+            if (validNames(record.subList(0, 3)) && age != null && age > 15
+                    && (courseName.isBlank() || courseId != null)) {
+                valid.put(record.subList(0, 3), new Object[]{age, courseId});
+            } else {
+                rejected++;
+            }
+        }
+        long[] counts = upsert(valid, UPDATE_TEACHER, INSERT_TEACHER);
+        return new ImportResult(ImportDataset.TEACHERS, records.size(), counts[0], counts[1], rejected);
+    }
+
+    /**
+     * Updates the changed people, then inserts the ones that do not exist yet.
+     *
+     * @param people natural key to the remaining column values.
+     * @return inserted and updated counts.
+     */
+    private long[] upsert(Map<List<String>, Object[]> people, String updateSql, String insertSql) {
+        long inserted = 0;
+        long updated = 0;
+        List<Map.Entry<List<String>, Object[]>> entries = new ArrayList<>(people.entrySet());
+        for (int from = 0; from < entries.size(); from += properties.getBatchSize()) {
+            List<Map.Entry<List<String>, Object[]>> batch =
+                    entries.subList(from, Math.min(entries.size(), from + properties.getBatchSize()));
+
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            for (Map.Entry<List<String>, Object[]> entry : batch) {
+                // SET values, key, then the values again for the change check
+                updates.add(concat(entry.getValue(), entry.getKey().toArray(), entry.getValue()));
+            }
+            int[] updateCounts = jdbcTemplate.batchUpdate(updateSql, updates);
+
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (updateCounts[i] > 0) {
+                    updated++;
+                } else {
+                    Object[] key = batch.get(i).getKey().toArray();
+                    inserts.add(concat(key, batch.get(i).getValue(), key));
+                }
+            }
+            if (!inserts.isEmpty()) {
+                for (int count : jdbcTemplate.batchUpdate(insertSql, inserts)) {
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        inserted++;
+                    }
+                }
+            }
+        }
+        return new long[]{inserted, updated};
+    }
+
+    /**
+     * @param courses course ids by name for enrollments, {@code null} for tutoring.
+     */
+    private ImportResult loadLinks(ImportDataset dataset, List<List<String>> records, Map<String, Integer> courses,
+                                   String insertSql) {
+        long inserted = 0;
+        long rejected = 0;
+        for (int from = 0; from < records.size(); from += properties.getBatchSize()) {
+            List<List<String>> batch = records.subList(from, Math.min(records.size(), from + properties.getBatchSize()));
+            Map<List<String>, Integer> students = personIds("student",
+                    batch.stream().map(record -> record.subList(0, 3)).collect(Collectors.toSet()));
+            Map<List<String>, Integer> teachers = courses != null ? Collections.emptyMap() : personIds("teacher",
+                    batch.stream().map(record -> record.subList(3, 6)).collect(Collectors.toSet()));
+
+            Set<List<Integer>> links = new LinkedHashSet<>();
+            for (List<String> record : batch) {
+                Integer studentId = students.get(record.subList(0, 3));
+                Integer otherId = courses != null ? courses.get(record.get(3)) : teachers.get(record.subList(3, 6));
+                if (studentId == null || otherId == null) {
+                    rejected++;
+                } else {
+                    links.add(List.of(studentId, otherId));
+                }
+            }
+            List<Object[]> rows = new ArrayList<>(links.size());
+            for (List<Integer> link : links) {
+                rows.add(new Object[]{link.get(0), link.get(1), link.get(0), link.get(1)});
+            }
+            if (!rows.isEmpty()) {
+                for (int count : jdbcTemplate.batchUpdate(insertSql, rows)) {
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        inserted++;
+                    }
+                }
+            }
+        }
+        return new ImportResult(dataset, records.size(), inserted, 0, rejected);
+    }
+
+    private Map<List<String>, Integer> personIds(String table, Set<List<String>> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        StringBuilder sql = new StringBuilder("SELECT id, first_name, last_name, middle_name FROM ")
+                .append(table).append(" WHERE (first_name, last_name, middle_name) IN (");
+        List<Object> args = new ArrayList<>(keys.size() * 3);
+        for (List<String> key : keys) {
+            sql.append(args.isEmpty() ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args.addAll(key);
+        }
+        sql.append(')');
+        Map<List<String>, Integer> ids = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            ids.put(List.of(rs.getString(2), rs.getString(3), rs.getString(4)), rs.getInt(1));
+        }, args.toArray());
+        return ids;
+    }
+
+    private Map<String, Integer> courseIds() {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, course_name FROM course", rs -> {
+            ids.put(rs.getString(2), rs.getInt(1));
+        });
+        return ids;
+    }
+
+    private static List<List<String>> readRecords(ImportDataset dataset, Reader csv) {
+        int columns = dataset.getColumns().size();
+        List<List<String>> records = new ArrayList<>();
+        try {
+            CsvReader reader = new CsvReader(csv);
+            // header
+            reader.read();
+            List<String> record;
+            while ((record = reader.read()) != null) {
+                if (record.size() != columns) {
+                    // COPY rejects the whole file in that case as well
+                    throw new IllegalArgumentException(String.format("Line %d of %s has %d columns, expected %d",
+                            records.size() + 2, dataset, record.size(), columns));
+                }
+                records.add(record);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read " + dataset, ex);
+        }
+        return records;
+    }
+
+    private static boolean validNames(List<String> names) {
+        return names.stream().allMatch(name -> !name.isBlank() && name.length() <= 100);
+    }
+
+    private static Integer age(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 9 || !trimmed.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return Integer.parseInt(trimmed);
+    }
+
+    private static Object[] concat(Object[]... parts) {
+        List<Object> values = new ArrayList<>();
+        for (Object[] part : parts) {
+            Collections.addAll(values, part);
+        }
+        return values.toArray();
+    }
+}
@@ -0,0 +1,47 @@
+package com.infinbank.rest.dataset;
+
+import com.infinbank.rest.config.BulkImportProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports the configured CSV files on start-up when the {@code bulk-import} profile is active, then exits:
+ * <pre>
+ * java -jar rest-crud-api-exec.jar --spring.profiles.active=bulk-import \
+ *      --bulk-import.students=students.csv --bulk-import.enrollments=enrollments.csv
+ * </pre>
+ */
+@Component
+@Profile("bulk-import")
+@RequiredArgsConstructor
+public class BulkImportRunner implements ApplicationRunner {
+
+    private final BulkImportService importService;
+
+    private final BulkImportProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        importFile(ImportDataset.STUDENTS, properties.getStudents());
+        importFile(ImportDataset.TEACHERS, properties.getTeachers());
+        importFile(ImportDataset.ENROLLMENTS, properties.getEnrollments());
+        importFile(ImportDataset.TUTORING, properties.getTutoring());
+    }
+
+    private void importFile(ImportDataset dataset, Path file) throws IOException {
+        if (file == null) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            importService.importCsv(dataset, reader);
+        }
+    }
+}
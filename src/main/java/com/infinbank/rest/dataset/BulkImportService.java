@@ -0,0 +1,44 @@
+package com.infinbank.rest.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.Reader;
+
+/**
+ * Bulk import of CSV files into the existing tables, e.g. the yearly re-import of a district.
+ *
+ * <p>On PostgreSQL the file is streamed with {@code COPY} into a staging table and merged with set-based
+ * statements ({@link PostgresCopyImporter}); other databases fall back to batched statements
+ * ({@link BatchInsertImporter}). Both paths apply the same validation and report the same counts. Every
+ * file is imported in its own transaction; import students and teachers before the files linking them.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PostgresCopyImporter copyImporter;
+
+    private final BatchInsertImporter batchImporter;
+
+    /**
+     * Imports one CSV file.
+     *
+     * @param dataset what the file contains.
+     * @param csv the file content, starting with a header line.
+     * @return the number of inserted, updated and rejected rows.
+     */
+    public ImportResult importCsv(ImportDataset dataset, Reader csv) {
+        long start = System.nanoTime();
+        ImportResult result = DatabaseProduct.POSTGRESQL.equals(DatabaseProduct.of(jdbcTemplate))
+                ? copyImporter.load(dataset, csv)
+                : batchImporter.load(dataset, csv);
+        log.info("Imported {} in {} ms", result, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
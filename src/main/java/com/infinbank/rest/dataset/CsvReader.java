@@ -0,0 +1,64 @@
+package com.infinbank.rest.dataset;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, fields optionally enclosed in double quotes, quotes inside
+ * quoted fields doubled, records separated by LF or CRLF. Accepts what PostgreSQL's {@code COPY ... CSV}
+ * accepts for the import files, so both import paths read the same input; note that {@code COPY} rejects
+ * files that mix LF and CRLF line endings.
+ */
+final class CsvReader {
+
+    private final Reader reader;
+
+    private int next;
+
+    CsvReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.next = reader.read();
+    }
+
+    /**
+     * @return the fields of the next record, or {@code null} at the end of the input.
+     */
+    List<String> read() throws IOException {
+        if (next == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = next;
+            next = reader.read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                } else if (c == '"' && next == '"') {
+                    field.append('"');
+                    next = reader.read();
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && next == '\n') {
+                // the LF ends the record
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+}
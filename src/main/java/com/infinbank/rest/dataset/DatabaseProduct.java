@@ -0,0 +1,23 @@
+package com.infinbank.rest.dataset;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Detects the database behind a {@link JdbcTemplate}, for the few statements that differ between
+ * PostgreSQL and the embedded H2 database.
+ */
+public final class DatabaseProduct {
+
+    public static final String POSTGRESQL = "PostgreSQL";
+
+    public static final String H2 = "H2";
+
+    private DatabaseProduct() {
+    }
+
+    public static String of(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+    }
+}
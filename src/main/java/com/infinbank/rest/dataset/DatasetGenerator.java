@@ -0,0 +1,220 @@
+package com.infinbank.rest.dataset;
+
+import com.infinbank.rest.config.DatasetGeneratorProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Appends a synthetic data set to the {@code course}, {@code teacher}, {@code student},
+ * {@code student_course} and {@code teacher_student} tables.
+ *
+ * <p>Ids are assigned by the generator, starting after the current maximum of every table, so that
+ * students can be linked to courses and teachers without reading generated keys back. Students are
+ * written in chunks of {@code batch-size} rows by {@code threads} parallel workers; every chunk inserts
+ * its students and then their links with JDBC batches. Each chunk draws from its own random stream split
+ * off the configured seed, so the data set does not depend on thread scheduling. The identity sequences
+ * are moved past the generated ids at the end.</p>
+ *
+ * <p>The tables must not be written by anybody else while the generator runs.</p>
+ *
+ * @see DatasetGeneratorProperties
+ * @see DatasetGeneratorRunner
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    private static final String INSERT_COURSE = "INSERT INTO course (id, course_name) VALUES (?, ?)";
+
+    private static final String INSERT_TEACHER = "INSERT INTO teacher "
+            + "(id, first_name, last_name, middle_name, age, course_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_STUDENT = "INSERT INTO student "
+            + "(id, first_name, last_name, middle_name, age) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_STUDENT_COURSE = "INSERT INTO student_course (student_id, course_id) VALUES (?, ?)";
+
+    private static final String INSERT_TEACHER_STUDENT = "INSERT INTO teacher_student (student_id, teacher_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatasetGeneratorProperties properties;
+
+    /**
+     * Generates the configured data set.
+     *
+     * @return the number of rows written per table.
+     */
+    public Result generate() {
+        long start = System.nanoTime();
+        SplittableRandom seed = new SplittableRandom(properties.getSeed());
+        NameGenerator names = new NameGenerator(properties.getNameSkew());
+        long firstCourseId = maxId("course") + 1;
+        long firstTeacherId = maxId("teacher") + 1;
+        long firstStudentId = maxId("student") + 1;
+        int courses = properties.getCourses();
+        int teachers = properties.getTeachers();
+        int students = properties.getStudents();
+        if (courses <= 0 || teachers <= 0) {
+            throw new IllegalArgumentException("At least one course and one teacher have to be generated");
+        }
+        ZipfSampler coursePopularity = new ZipfSampler(courses, properties.getCourseSkew());
+        AtomicLong enrollments = new AtomicLong();
+        AtomicLong tutoring = new AtomicLong();
+
+        List<Object[]> courseRows = new ArrayList<>(courses);
+        for (long id = firstCourseId; id < firstCourseId + courses; id++) {
+            courseRows.add(new Object[]{id, NameGenerator.courseName(id)});
+        }
+        insert(INSERT_COURSE, courseRows);
+
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            List<Runnable> teacherChunks = new ArrayList<>();
+            for (long from = firstTeacherId; from < firstTeacherId + teachers; from += properties.getBatchSize()) {
+                long chunkStart = from;
+                long chunkEnd = Math.min(firstTeacherId + teachers, from + properties.getBatchSize());
+                SplittableRandom random = seed.split();
+                teacherChunks.add(() -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (long id = chunkStart; id < chunkEnd; id++) {
+                        rows.add(new Object[]{id, names.firstName(random), names.lastName(random),
+                                names.middleName(random, id), 25 + random.nextInt(40),
+                                firstCourseId + random.nextInt(courses)});
+                    }
+                    insert(INSERT_TEACHER, rows);
+                });
+            }
+            runAll(workers, teacherChunks);
+
+            int coursesPerStudent = Math.min(properties.getCoursesPerStudent(), courses);
+            int teachersPerStudent = Math.min(properties.getTeachersPerStudent(), teachers);
+            List<Runnable> studentChunks = new ArrayList<>();
+            for (long from = firstStudentId; from < firstStudentId + students; from += properties.getBatchSize()) {
+                long chunkStart = from;
+                long chunkEnd = Math.min(firstStudentId + students, from + properties.getBatchSize());
+                SplittableRandom random = seed.split();
+                studentChunks.add(() -> {
+                    List<Object[]> studentRows = new ArrayList<>();
+                    List<Object[]> courseLinks = new ArrayList<>();
+                    List<Object[]> teacherLinks = new ArrayList<>();
+                    for (long id = chunkStart; id < chunkEnd; id++) {
+                        studentRows.add(new Object[]{id, names.firstName(random), names.lastName(random),
+                                names.middleName(random, id), 6 + random.nextInt(20)});
+                        for (int rank : distinct(coursesPerStudent, () -> coursePopularity.sample(random))) {
+                            courseLinks.add(new Object[]{id, firstCourseId + rank});
+                        }
+                        for (int offset : distinct(teachersPerStudent, () -> random.nextInt(teachers))) {
+                            teacherLinks.add(new Object[]{id, firstTeacherId + offset});
+                        }
+                    }
+                    insert(INSERT_STUDENT, studentRows);
+                    insert(INSERT_STUDENT_COURSE, courseLinks);
+                    insert(INSERT_TEACHER_STUDENT, teacherLinks);
+                    enrollments.addAndGet(courseLinks.size());
+                    tutoring.addAndGet(teacherLinks.size());
+                });
+            }
+            runAll(workers, studentChunks);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        restartIdentity("course", firstCourseId + courses);
+        restartIdentity("teacher", firstTeacherId + teachers);
+        restartIdentity("student", firstStudentId + students);
+
+        Result result = new Result(students, teachers, courses, enrollments.get(), tutoring.get(),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Generated {}", result);
+        return result;
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private static void runAll(ExecutorService workers, List<Runnable> tasks) {
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> futures.add(workers.submit(task)));
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating the data set", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to generate the data set", ex.getCause());
+        }
+    }
+
+    /**
+     * Draws up to {@code count} distinct values. Gives up after a bounded number of draws, so a steep
+     * skew yields fewer links instead of spinning.
+     */
+    private static int[] distinct(int count, IntSupplier draw) {
+        int[] values = new int[count];
+        int size = 0;
+        for (int attempt = 0; size < count && attempt < count * 20; attempt++) {
+            int value = draw.getAsInt();
+            boolean seen = false;
+            for (int i = 0; i < size && !seen; i++) {
+                seen = values[i] == value;
+            }
+            if (!seen) {
+                values[size++] = value;
+            }
+        }
+        return size == count ? values : Arrays.copyOf(values, size);
+    }
+
+    private void restartIdentity(String table, long next) {
+        String product = DatabaseProduct.of(jdbcTemplate);
+        if (DatabaseProduct.POSTGRESQL.equals(product)) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)",
+                    Long.class, table, next);
+        } else if (DatabaseProduct.H2.equals(product)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        } else {
+            log.warn("Cannot move the id sequence of {} on {}, the next insert may collide", table, product);
+        }
+    }
+
+    /**
+     * Number of rows written per table.
+     */
+    @Value
+    public static class Result {
+        long students;
+        long teachers;
+        long courses;
+        long enrollments;
+        long tutoring;
+        Duration elapsed;
+    }
+}
@@ -0,0 +1,30 @@
+package com.infinbank.rest.dataset;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link DatasetGenerator} on start-up when the {@code generate-dataset} profile is active.
+ * The profile also disables the web server, so the application exits once the data set is written:
+ * <pre>
+ * java -jar rest-crud-api-exec.jar --spring.profiles.active=generate-dataset \
+ *      --dataset.generator.students=10000000 --dataset.generator.threads=8
+ * </pre>
+ * On PostgreSQL, adding {@code reWriteBatchedInserts=true} to the JDBC url lets the driver send every
+ * batch as multi-row inserts, which is several times faster.
+ */
+@Component
+@Profile("generate-dataset")
+@RequiredArgsConstructor
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final DatasetGenerator generator;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.generate();
+    }
+}
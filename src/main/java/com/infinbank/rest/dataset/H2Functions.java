@@ -0,0 +1,21 @@
+package com.infinbank.rest.dataset;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Java functions registered on the embedded H2 database with {@code CREATE ALIAS}, for the PostgreSQL
+ * functions H2 lacks.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /**
+     * The time the statement runs, like PostgreSQL's {@code clock_timestamp()}. H2's {@code CURRENT_TIMESTAMP}
+     * is the start of the transaction.
+     */
+    public static OffsetDateTime clockTimestamp() {
+        return OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,35 @@
+package com.infinbank.rest.dataset;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Writes the {@code entity_tombstone} row of a deleted student, teacher or course on the embedded H2
+ * database, which cannot run the PL/pgSQL trigger used on PostgreSQL. The entity is the table name and
+ * the id is the first column of the table.
+ */
+public class H2TombstoneTrigger implements Trigger {
+
+    private static final String INSERT_SQL = "INSERT INTO entity_tombstone (entity, entity_id) VALUES (?, ?)";
+
+    private String entity;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+                     int type) {
+        entity = tableName.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        try (PreparedStatement statement = conn.prepareStatement(INSERT_SQL)) {
+            statement.setString(1, entity);
+            statement.setObject(2, oldRow[0]);
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.infinbank.rest.dataset;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The CSV files of a bulk import, in the order they have to be loaded. Every file starts with a header
+ * line; columns are identified by position. People are matched by their natural key
+ * (first, last and middle name), courses by name.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImportDataset {
+
+    STUDENTS("import_student", List.of("first_name", "last_name", "middle_name", "age")),
+
+    /**
+     * An empty {@code course_name} leaves the teacher without a course.
+     */
+    TEACHERS("import_teacher", List.of("first_name", "last_name", "middle_name", "age", "course_name")),
+
+    ENROLLMENTS("import_enrollment", List.of("first_name", "last_name", "middle_name", "course_name")),
+
+    TUTORING("import_tutoring", List.of("student_first_name", "student_last_name", "student_middle_name",
+            "teacher_first_name", "teacher_last_name", "teacher_middle_name"));
+
+    /**
+     * Staging table of the PostgreSQL import path.
+     */
+    private final String stagingTable;
+
+    private final List<String> columns;
+}
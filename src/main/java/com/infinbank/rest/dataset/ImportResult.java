@@ -0,0 +1,16 @@
+package com.infinbank.rest.dataset;
+
+import lombok.Value;
+
+/**
+ * Outcome of importing one {@link ImportDataset}. Rows that were neither inserted, updated nor rejected
+ * matched the stored data already, or repeated an earlier row of the same file.
+ */
+@Value
+public class ImportResult {
+    ImportDataset dataset;
+    long rows;
+    long inserted;
+    long updated;
+    long rejected;
+}
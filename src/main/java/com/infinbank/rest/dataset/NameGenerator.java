@@ -0,0 +1,79 @@
+package com.infinbank.rest.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Person and course names for generated rows.
+ *
+ * <p>First and last names are drawn from frequency-ordered lists with a Zipf distribution, so common
+ * names repeat the way they do in real data. The middle name carries the row id in base 36, which keeps
+ * the (first, last, middle) triple unique as required by {@code UC_Student} and {@code UC_Teacher}
+ * without having to remember the names already generated.</p>
+ */
+final class NameGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William",
+            "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+            "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony",
+            "Margaret", "Mark", "Sandra", "Donald", "Ashley", "Steven", "Kimberly", "Paul", "Emily",
+            "Andrew", "Donna", "Joshua", "Michelle", "Kenneth", "Dorothy", "Kevin", "Carol", "Brian",
+            "Amanda", "George", "Melissa", "Edward", "Deborah", "Ronald", "Stephanie", "Timothy",
+            "Rebecca", "Jason", "Sharon", "Jeffrey", "Laura", "Ryan", "Cynthia", "Jacob", "Kathleen",
+            "Gary", "Amy", "Nicholas", "Shirley", "Eric", "Angela", "Jonathan", "Helen", "Stephen",
+            "Anna", "Larry", "Brenda", "Justin", "Pamela", "Scott", "Nicole", "Brandon", "Emma"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor",
+            "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+            "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright",
+            "Scott", "Torres", "Nguyen", "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall",
+            "Rivera", "Campbell", "Mitchell", "Carter", "Roberts", "Gomez", "Phillips", "Evans",
+            "Turner", "Diaz", "Parker", "Cruz", "Edwards", "Collins", "Reyes", "Stewart", "Morris",
+            "Morales", "Murphy", "Cook", "Rogers", "Gutierrez", "Ortiz", "Morgan", "Cooper", "Peterson"
+    };
+
+    private static final String[] MIDDLE_NAMES = {
+            "Lee", "Ann", "Marie", "Lynn", "James", "Michael", "Grace", "Rose", "Jean", "Alexander",
+            "Louise", "Edward", "Jane", "Elizabeth", "Joseph", "Ray", "Mae", "Paul", "Kay", "Allen"
+    };
+
+    private static final String[] SUBJECTS = {
+            "Mathematics", "Physics", "Chemistry", "Biology", "Literature", "History", "Geography",
+            "Computer Science", "Economics", "Philosophy", "Art", "Music", "Spanish", "French", "German",
+            "Statistics", "Astronomy", "Psychology", "Sociology", "Law"
+    };
+
+    private final ZipfSampler firstNames;
+
+    private final ZipfSampler lastNames;
+
+    NameGenerator(double skew) {
+        this.firstNames = new ZipfSampler(FIRST_NAMES.length, skew);
+        this.lastNames = new ZipfSampler(LAST_NAMES.length, skew);
+    }
+
+    String firstName(SplittableRandom random) {
+        return FIRST_NAMES[firstNames.sample(random)];
+    }
+
+    String lastName(SplittableRandom random) {
+        return LAST_NAMES[lastNames.sample(random)];
+    }
+
+    /**
+     * @param id the id of the row; distinct ids give distinct middle names.
+     */
+    String middleName(SplittableRandom random, long id) {
+        return MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)] + " " + Long.toString(id, 36).toUpperCase();
+    }
+
+    /**
+     * Course names are unique per id: "Mathematics 101", "Physics 101", ..., "Mathematics 102", ...
+     */
+    static String courseName(long id) {
+        return SUBJECTS[(int) (id % SUBJECTS.length)] + " " + (100 + id / SUBJECTS.length);
+    }
+}
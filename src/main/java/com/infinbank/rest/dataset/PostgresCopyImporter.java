@@ -0,0 +1,166 @@
+package com.infinbank.rest.dataset;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * PostgreSQL import path: the CSV is streamed with {@code COPY} into an unlogged staging table and
+ * merged with one set-based statement per dataset.
+ *
+ * <p>Students and teachers are upserted on their unique natural key with {@code INSERT ... ON CONFLICT};
+ * when a file contains the same person twice the last line wins. The join tables have no unique key, so
+ * links are inserted with {@code WHERE NOT EXISTS}. Validation (blank or too long names, ages that are
+ * not numbers or violate the check constraints, unknown references) happens in SQL; failing lines are
+ * counted as rejected and skipped.</p>
+ *
+ * @see BatchInsertImporter
+ */
+@Component
+@RequiredArgsConstructor
+class PostgresCopyImporter {
+
+    private static final String VALID_STUDENT = "(" + validName("i.first_name") + " AND " + validName("i.last_name")
+            + " AND " + validName("i.middle_name") + " AND " + age("i.age") + " > 5)";
+
+    private static final String MERGE_STUDENTS = "WITH merged AS ("
+            + " INSERT INTO student (first_name, last_name, middle_name, age)"
+            + " SELECT DISTINCT ON (i.first_name, i.last_name, i.middle_name)"
+            + " i.first_name, i.last_name, i.middle_name, " + age("i.age")
+            + " FROM import_student i WHERE " + VALID_STUDENT
+            + " ORDER BY i.first_name, i.last_name, i.middle_name, i.line DESC"
+            + " ON CONFLICT (first_name, last_name, middle_name) DO UPDATE SET age = EXCLUDED.age"
+            + " WHERE student.age <> EXCLUDED.age"
+            + " RETURNING (xmax = 0) AS inserted)"
+            + " SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted) FROM merged";
+
+    private static final String REJECTED_STUDENTS = "SELECT COUNT(*) FROM import_student i"
+            + " WHERE " + VALID_STUDENT + " IS NOT TRUE";
+
+    private static final String VALID_TEACHER = "(" + validName("i.first_name") + " AND " + validName("i.last_name")
+            + " AND " + validName("i.middle_name") + " AND " + age("i.age") + " > 15"
+            + " AND (NULLIF(btrim(i.course_name), '') IS NULL OR c.id IS NOT NULL))";
+
+    private static final String MERGE_TEACHERS = "WITH merged AS ("
+            + " INSERT INTO teacher (first_name, last_name, middle_name, age, course_id)"
+            + " SELECT DISTINCT ON (i.first_name, i.last_name, i.middle_name)"
+            + " i.first_name, i.last_name, i.middle_name, " + age("i.age") + ", c.id"
+            + " FROM import_teacher i LEFT JOIN course c ON c.course_name = i.course_name"
+            + " WHERE " + VALID_TEACHER
+            + " ORDER BY i.first_name, i.last_name, i.middle_name, i.line DESC"
+            + " ON CONFLICT (first_name, last_name, middle_name)"
+            + " DO UPDATE SET age = EXCLUDED.age, course_id = EXCLUDED.course_id"
+            + " WHERE (teacher.age, teacher.course_id) IS DISTINCT FROM (EXCLUDED.age, EXCLUDED.course_id)"
+            + " RETURNING (xmax = 0) AS inserted)"
+            + " SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted) FROM merged";
+
+    private static final String REJECTED_TEACHERS = "SELECT COUNT(*) FROM import_teacher i"
+            + " LEFT JOIN course c ON c.course_name = i.course_name"
+            + " WHERE " + VALID_TEACHER + " IS NOT TRUE";
+
+    private static final String RESOLVED_ENROLLMENTS = " FROM import_enrollment i"
+            + " JOIN student s ON s.first_name = i.first_name AND s.last_name = i.last_name"
+            + " AND s.middle_name = i.middle_name"
+            + " JOIN course c ON c.course_name = i.course_name";
+
+    private static final String MERGE_ENROLLMENTS = "WITH resolved AS ("
+            + " SELECT DISTINCT s.id AS student_id, c.id AS course_id" + RESOLVED_ENROLLMENTS + "),"
+            + " merged AS (INSERT INTO student_course (student_id, course_id)"
+            + " SELECT r.student_id, r.course_id FROM resolved r WHERE NOT EXISTS (SELECT 1 FROM student_course sc"
+            + " WHERE sc.student_id = r.student_id AND sc.course_id = r.course_id) RETURNING 1)"
+            + " SELECT COUNT(*), 0 FROM merged";
+
+    private static final String REJECTED_ENROLLMENTS = "SELECT (SELECT COUNT(*) FROM import_enrollment)"
+            + " - (SELECT COUNT(*)" + RESOLVED_ENROLLMENTS + ")";
+
+    private static final String RESOLVED_TUTORING = " FROM import_tutoring i"
+            + " JOIN student s ON s.first_name = i.student_first_name AND s.last_name = i.student_last_name"
+            + " AND s.middle_name = i.student_middle_name"
+            + " JOIN teacher t ON t.first_name = i.teacher_first_name AND t.last_name = i.teacher_last_name"
+            + " AND t.middle_name = i.teacher_middle_name";
+
+    private static final String MERGE_TUTORING = "WITH resolved AS ("
+            + " SELECT DISTINCT s.id AS student_id, t.id AS teacher_id" + RESOLVED_TUTORING + "),"
+            + " merged AS (INSERT INTO teacher_student (student_id, teacher_id)"
+            + " SELECT r.student_id, r.teacher_id FROM resolved r WHERE NOT EXISTS (SELECT 1 FROM teacher_student ts"
+            + " WHERE ts.student_id = r.student_id AND ts.teacher_id = r.teacher_id) RETURNING 1)"
+            + " SELECT COUNT(*), 0 FROM merged";
+
+    private static final String REJECTED_TUTORING = "SELECT (SELECT COUNT(*) FROM import_tutoring)"
+            + " - (SELECT COUNT(*)" + RESOLVED_TUTORING + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stages and merges one CSV file in a single transaction.
+     */
+    @Transactional
+    public ImportResult load(ImportDataset dataset, Reader csv) {
+        jdbcTemplate.execute("TRUNCATE " + dataset.getStagingTable() + " RESTART IDENTITY");
+        String copy = "COPY " + dataset.getStagingTable() + " (" + String.join(", ", dataset.getColumns())
+                + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+        long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy, csv);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to stream " + dataset + " into the staging table", ex);
+            }
+        });
+
+        long[] merged = jdbcTemplate.queryForObject(mergeSql(dataset),
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        Long rejected = jdbcTemplate.queryForObject(rejectedSql(dataset), Long.class);
+        // the staged rows are no longer needed, do not keep them around until the next import
+        jdbcTemplate.execute("TRUNCATE " + dataset.getStagingTable());
+        return new ImportResult(dataset, rows, merged[0], merged[1], rejected == null ? 0 : rejected);
+    }
+
+    private static String mergeSql(ImportDataset dataset) {
+        switch (dataset) {
+            case STUDENTS:
+                return MERGE_STUDENTS;
+            case TEACHERS:
+                return MERGE_TEACHERS;
+            case ENROLLMENTS:
+                return MERGE_ENROLLMENTS;
+            case TUTORING:
+                return MERGE_TUTORING;
+            default:
+                throw new IllegalArgumentException("Unexpected dataset " + dataset);
+        }
+    }
+
+    private static String rejectedSql(ImportDataset dataset) {
+        switch (dataset) {
+            case STUDENTS:
+                return REJECTED_STUDENTS;
+            case TEACHERS:
+                return REJECTED_TEACHERS;
+            case ENROLLMENTS:
+                return REJECTED_ENROLLMENTS;
+            case TUTORING:
+                return REJECTED_TUTORING;
+            default:
+                throw new IllegalArgumentException("Unexpected dataset " + dataset);
+        }
+    }
+
+    private static String validName(String column) {
+        return "(NULLIF(btrim(" + column + "), '') IS NOT NULL AND length(" + column + ") <= 100)";
+    }
+
+    /**
+     * The age as integer, or {@code NULL} if the column does not hold a number. The CASE makes sure the
+     * cast is only evaluated for numeric text.
+     */
+    private static String age(String column) {
+        return "(CASE WHEN " + column + " ~ '^\\s*[0-9]{1,9}\\s*$' THEN btrim(" + column + ")::int END)";
+    }
+}
@@ -0,0 +1,63 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpMethod;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a batch of operations.
+ * <p>
+ * It contains the operations to run in order and whether they run in one transaction. An operation names
+ * a student, teacher or course endpoint by method and path. Its {@code ref} makes the id of the entity it
+ * returns available to the later operations: {@code ${ref}} in their paths, and a string value
+ * {@code "${ref}"} in their bodies, is replaced by that id.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+
+    @NotNull(message = "mode field is mandatory")
+    private Mode mode = Mode.ATOMIC;
+
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid @NotNull(message = "Operation should not be null") Operation> operations;
+
+    public enum Mode {
+        /**
+         * All operations run in one transaction; the first failure rolls back the batch and stops it.
+         */
+        ATOMIC,
+        /**
+         * Every operation runs in its own transaction; a failure does not stop the batch.
+         */
+        INDEPENDENT
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        private String ref;
+
+        @NotNull(message = "method field is mandatory")
+        private HttpMethod method;
+
+        @NotBlank(message = "path field is mandatory")
+        private String path;
+
+        private JsonNode body;
+    }
+}
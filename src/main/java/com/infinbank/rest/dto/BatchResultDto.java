@@ -0,0 +1,39 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of a batch.
+ * <p>
+ * It contains whether the changes of the batch were committed and the result of every operation, in
+ * request order: the status code and body the operation's endpoint would have returned. Operations not
+ * run because an earlier one failed in an atomic batch have status 424.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+
+    private boolean committed;
+
+    private List<OperationResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class OperationResult {
+
+        private String ref;
+
+        private int status;
+
+        private Object body;
+    }
+}
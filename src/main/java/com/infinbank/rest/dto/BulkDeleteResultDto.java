@@ -0,0 +1,52 @@
+package com.infinbank.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of a bulk delete.
+ * <p>
+ * It contains the number of deleted and missing entities and the result for every requested id,
+ * in request order.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResultDto {
+
+    private int deleted;
+
+    private int notFound;
+
+    private List<IdResult> results;
+
+    public static BulkDeleteResultDto of(Collection<Integer> requestedIds, Set<Integer> deletedIds) {
+        List<IdResult> results = new ArrayList<>(requestedIds.size());
+        for (Integer id : requestedIds) {
+            results.add(new IdResult(id, deletedIds.contains(id) ? Status.DELETED : Status.NOT_FOUND));
+        }
+        return new BulkDeleteResultDto(deletedIds.size(), requestedIds.size() - deletedIds.size(), results);
+    }
+
+    public enum Status {
+        DELETED,
+        NOT_FOUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IdResult {
+
+        private Integer id;
+
+        private Status status;
+    }
+}
@@ -0,0 +1,51 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for a committed change of a student, teacher or course.
+ * <p>
+ * Events identify the changed entity only, readers fetch its current state when they need it. Assignments
+ * carry the other side of the association in {@code relatedEntity} and {@code relatedId}. The {@code id}
+ * increases with every event of an instance and is sent as part of the SSE event id.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDto {
+
+    private long id;
+
+    private Type type;
+
+    private Entity entity;
+
+    private Integer entityId;
+
+    private Entity relatedEntity;
+
+    private Integer relatedId;
+
+    private Instant committedAt;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        ASSIGNED,
+        UNASSIGNED
+    }
+
+    public enum Entity {
+        STUDENT,
+        TEACHER,
+        COURSE
+    }
+}
@@ -0,0 +1,28 @@
+package com.infinbank.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a page of changes since a sync token.
+ * <p>
+ * It contains the entities created or updated since the token, the IDs of the deleted ones and the token
+ * to send with the next request. {@code hasMore} is {@code true} if the next page can be fetched right away.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesDto<T> {
+
+    private List<T> changed;
+
+    private List<Integer> deleted;
+
+    private String token;
+
+    private boolean hasMore;
+}
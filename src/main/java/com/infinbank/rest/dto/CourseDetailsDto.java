@@ -0,0 +1,37 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a course together with the related entities asked for by {@code include}.
+ * <p>
+ * It contains the fields of {@link CourseDto}, in the same order, followed by the students and the teachers
+ * of the course. A list that was not included is left out of the response.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseDetailsDto {
+
+    private Integer id;
+
+    private String courseName;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<StudentDto> students;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TeacherDto> teachers;
+
+    public enum Include {
+        STUDENTS, TEACHERS
+    }
+}
@@ -14,6 +14,8 @@ import javax.validation.constraints.Size;
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CourseDto {
 
     private Integer id;
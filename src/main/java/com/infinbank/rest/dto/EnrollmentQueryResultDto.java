@@ -0,0 +1,26 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the students matching a set query across courses.
+ * <p>
+ * It contains the total number of matching students and, unless only the count was requested, one page
+ * of their ids in ascending order.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnrollmentQueryResultDto {
+
+    private long count;
+
+    private List<Integer> studentIds;
+}
@@ -0,0 +1,26 @@
+package com.infinbank.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for a course similar to another one.
+ * <p>
+ * It contains the course's ID and name, its similarity score between 0 and 1 and the number of
+ * students both courses have in common.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedCourseDto {
+
+    private Integer id;
+
+    private String courseName;
+
+    private double score;
+
+    private int commonStudents;
+}
@@ -0,0 +1,55 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a statement that ran longer than the slow query threshold.
+ * <p>
+ * {@code parameters} are the bind parameters in the order they were set, of the first statement of a batch.
+ * {@code repository} is the repository method that ran the statement, or {@code none}, and is only known
+ * while {@code persistence.metrics.enabled} is on. {@code plan} is set once {@code explain} is
+ * {@link Explain#CAPTURED}, and holds the error message if it is {@link Explain#FAILED}.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SlowQueryDto {
+
+    private Instant executedAt;
+
+    private long durationMillis;
+
+    private String repository;
+
+    private String sql;
+
+    private List<String> parameters;
+
+    private int batchSize;
+
+    private Explain explain;
+
+    private String plan;
+
+    public enum Explain {
+        /**
+         * Not in the sample, or a statement without a plan such as DDL.
+         */
+        NOT_SAMPLED,
+        PENDING,
+        CAPTURED,
+        FAILED,
+        /**
+         * Sampled while {@code explain-queue-size} plans were waiting already.
+         */
+        DROPPED
+    }
+}
@@ -0,0 +1,43 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a student together with the related entities asked for by {@code include}.
+ * <p>
+ * It contains the fields of {@link StudentDto}, in the same order, followed by the courses and the teachers
+ * of the student. A list that was not included is left out of the response.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDetailsDto {
+
+    private Integer id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String middleName;
+
+    private Integer age;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CourseDto> courses;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TeacherDto> teachers;
+
+    public enum Include {
+        COURSES, TEACHERS
+    }
+}
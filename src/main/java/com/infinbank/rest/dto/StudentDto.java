@@ -1,7 +1,9 @@
 package com.infinbank.rest.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.Size;
 import javax.validation.constraints.Min;
@@ -16,6 +18,8 @@ import javax.validation.constraints.NotNull;
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class StudentDto {
 
     private Integer id;
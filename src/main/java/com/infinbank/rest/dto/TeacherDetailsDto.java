@@ -0,0 +1,42 @@
+package com.infinbank.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a teacher together with the related entities asked for by {@code include}.
+ * <p>
+ * It contains the fields of {@link TeacherDto}, in the same order, followed by the students of the teacher.
+ * The list is left out of the response if it was not included.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherDetailsDto {
+
+    private Integer id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String middleName;
+
+    private Integer age;
+
+    private CourseDto course;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<StudentDto> students;
+
+    public enum Include {
+        STUDENTS
+    }
+}
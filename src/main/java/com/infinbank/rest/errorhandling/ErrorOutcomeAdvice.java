@@ -0,0 +1,49 @@
+package com.infinbank.rest.errorhandling;
+
+import com.infinbank.rest.metrics.ErrorOutcomeTagsContributor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which {@link GlobalExceptionHandler} method wrote the error response, for the {@code error} tag of
+ * the HTTP server metrics, see {@link ErrorOutcomeTagsContributor}.
+ */
+@ControllerAdvice
+public class ErrorOutcomeAdvice implements ResponseBodyAdvice<Object> {
+
+    private final Map<Method, String> outcomes = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getContainingClass() == GlobalExceptionHandler.class;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Method method = returnType.getMethod();
+        if (method != null && request instanceof ServletServerHttpRequest) {
+            String outcome = outcomes.computeIfAbsent(method, ErrorOutcomeAdvice::outcome);
+            ((ServletServerHttpRequest) request).getServletRequest()
+                    .setAttribute(ErrorOutcomeTagsContributor.ATTRIBUTE, outcome);
+        }
+        return body;
+    }
+
+    private static String outcome(Method method) {
+        ExceptionHandler handler = method.getAnnotation(ExceptionHandler.class);
+        return handler != null && handler.value().length > 0 ? handler.value()[0].getSimpleName() : method.getName();
+    }
+}
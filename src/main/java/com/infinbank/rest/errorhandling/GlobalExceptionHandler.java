@@ -1,12 +1,18 @@
 package com.infinbank.rest.errorhandling;
 
 import com.infinbank.rest.dto.ErrorResponseDto;
+import com.infinbank.rest.exception.BulkDeleteLimitExceededException;
+import com.infinbank.rest.exception.EnrollmentQueueFullException;
 import com.infinbank.rest.exception.EntityNotFoundException;
+import com.infinbank.rest.exception.InvalidBatchOperationException;
+import com.infinbank.rest.exception.InvalidIncludeException;
+import com.infinbank.rest.exception.InvalidPatchException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
@@ -24,6 +30,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(EnrollmentQueueFullException.class)
+    public ResponseEntity<ErrorResponseDto> handleEnrollmentQueueFullException(final EnrollmentQueueFullException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), null);
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDto> handleMethodArgumentNotValidException(final MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -40,6 +52,41 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidPatchException(final InvalidPatchException ex) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.BAD_REQUEST,
+                "Validation failed",
+                ex.getErrors()
+        );
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(BulkDeleteLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleBulkDeleteLimitExceededException(final BulkDeleteLimitExceededException ex) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidBatchOperationException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidBatchOperationException(final InvalidBatchOperationException ex) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getErrors());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidIncludeException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidIncludeException(final InvalidIncludeException ex) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(HttpStatus.BAD_REQUEST, ex.getMessage(), null);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponseDto> handleMissingServletRequestParameterException(MissingServletRequestParameterException ex) {
+        String message = String.format("Parameter '%s' is required", ex.getParameterName());
+        ErrorResponseDto errorResponse = new ErrorResponseDto(HttpStatus.BAD_REQUEST, message, null);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponseDto> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
         String message = String.format("Parameter '%s' should be of type '%s'", ex.getName(), ex.getRequiredType().getSimpleName());
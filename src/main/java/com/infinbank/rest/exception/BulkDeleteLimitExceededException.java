@@ -0,0 +1,8 @@
+package com.infinbank.rest.exception;
+
+public class BulkDeleteLimitExceededException extends RuntimeException {
+
+    public BulkDeleteLimitExceededException(int requested, int maxBatchSize) {
+        super("Cannot delete " + requested + " ids at once, the limit is " + maxBatchSize);
+    }
+}
@@ -0,0 +1,8 @@
+package com.infinbank.rest.exception;
+
+public class EnrollmentQueueFullException extends RuntimeException {
+
+    public EnrollmentQueueFullException(int capacity) {
+        super("Enrollment write queue is full (" + capacity + " pending changes)");
+    }
+}
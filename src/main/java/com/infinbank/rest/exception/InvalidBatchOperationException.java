@@ -0,0 +1,20 @@
+package com.infinbank.rest.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class InvalidBatchOperationException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public InvalidBatchOperationException(String message) {
+        this(message, null);
+    }
+
+    public InvalidBatchOperationException(String message, Map<String, String> errors) {
+        super(message);
+        this.errors = errors;
+    }
+}
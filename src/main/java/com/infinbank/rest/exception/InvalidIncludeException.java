@@ -0,0 +1,10 @@
+package com.infinbank.rest.exception;
+
+import java.util.Collection;
+
+public class InvalidIncludeException extends RuntimeException {
+
+    public InvalidIncludeException(String include, Collection<String> supported) {
+        super(String.format("Cannot include '%s', supported values are %s", include, supported));
+    }
+}
@@ -0,0 +1,16 @@
+package com.infinbank.rest.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class InvalidPatchException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public InvalidPatchException(Map<String, String> errors) {
+        super("Invalid patch for fields " + errors.keySet());
+        this.errors = errors;
+    }
+}
@@ -1,13 +1,27 @@
 package com.infinbank.rest.mapper;
 
+import com.infinbank.rest.dto.CourseDetailsDto;
 import com.infinbank.rest.dto.CourseDto;
 import com.infinbank.rest.model.Course;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring", disableSubMappingMethodsGeneration = true)
 public interface CourseMapper {
 
     CourseDto toDto(Course course);
 
+    /**
+     * Maps the fields of the course only, the included collections are mapped by the caller.
+     */
+    @Mapping(target = "students", ignore = true)
+    @Mapping(target = "teachers", ignore = true)
+    CourseDetailsDto toDetailsDto(Course course);
+
+    /**
+     * The change sequence and time are maintained by the database.
+     */
+    @Mapping(target = "updatedSeq", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Course toEntity(CourseDto courseDto);
 }
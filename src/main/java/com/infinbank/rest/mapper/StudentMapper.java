@@ -1,13 +1,27 @@
 package com.infinbank.rest.mapper;
 
+import com.infinbank.rest.dto.StudentDetailsDto;
 import com.infinbank.rest.dto.StudentDto;
 import com.infinbank.rest.model.Student;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface StudentMapper {
 
     StudentDto toDto(Student student);
 
+    /**
+     * Maps the fields of the student only, the included collections are mapped by the caller.
+     */
+    @Mapping(target = "courses", ignore = true)
+    @Mapping(target = "teachers", ignore = true)
+    StudentDetailsDto toDetailsDto(Student student);
+
+    /**
+     * The change sequence and time are maintained by the database.
+     */
+    @Mapping(target = "updatedSeq", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Student toEntity(StudentDto studentDto);
 }
@@ -1,13 +1,26 @@
 package com.infinbank.rest.mapper;
 
+import com.infinbank.rest.dto.TeacherDetailsDto;
 import com.infinbank.rest.dto.TeacherDto;
 import com.infinbank.rest.model.Teacher;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring", uses = CourseMapper.class)
 public interface TeacherMapper {
 
     TeacherDto toDto(Teacher teacher);
 
+    /**
+     * Maps the fields and the course of the teacher, the included students are mapped by the caller.
+     */
+    @Mapping(target = "students", ignore = true)
+    TeacherDetailsDto toDetailsDto(Teacher teacher);
+
+    /**
+     * The change sequence and time are maintained by the database.
+     */
+    @Mapping(target = "updatedSeq", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Teacher toEntity(TeacherDto teacherDto);
 }
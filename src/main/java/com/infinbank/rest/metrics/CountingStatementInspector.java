@@ -0,0 +1,16 @@
+package com.infinbank.rest.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares into {@link QueryCounter}. Statements issued directly
+ * through {@code JdbcTemplate} do not pass through Hibernate and are not counted.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,38 @@
+package com.infinbank.rest.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Adds the {@value #TAG} tag to {@code http.server.requests}: the exception type of the
+ * {@code GlobalExceptionHandler} method that wrote the error response, e.g. {@code EntityNotFoundException}
+ * for every missing student, teacher or course, or {@value #NONE} if the request did not fail.
+ * <p>
+ * The value is put into the {@value #ATTRIBUTE} request attribute when the error response is written, so
+ * the number of values is bounded by the number of exception handlers.
+ * </p>
+ */
+public class ErrorOutcomeTagsContributor implements WebMvcTagsContributor {
+
+    public static final String ATTRIBUTE = ErrorOutcomeTagsContributor.class.getName() + ".ERROR";
+
+    public static final String TAG = "error";
+
+    public static final String NONE = "none";
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        Object error = request.getAttribute(ATTRIBUTE);
+        return Tags.of(TAG, error != null ? error.toString() : NONE);
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+    }
+}
@@ -0,0 +1,110 @@
+package com.infinbank.rest.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.model.domain.NavigableRole;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate statistics that, in addition to the usual session-factory wide counters, record
+ * every event into Micrometer tagged with the repository method that caused it.
+ *
+ * <p>The session-factory wide numbers are still bridged by Spring Boot's {@code HibernateMetrics}
+ * ({@code hibernate.*} meters); the meters recorded here carry a {@code repository} tag taken from
+ * {@link RepositoryMethodContext}:</p>
+ * <ul>
+ *     <li>{@code hibernate.query.execution} timer per JPQL statement (count, mean, max)</li>
+ *     <li>{@code hibernate.query.rows} rows returned per JPQL statement</li>
+ *     <li>{@code hibernate.repository.entity.loads} / {@code .fetches} per entity</li>
+ *     <li>{@code hibernate.repository.collection.loads} / {@code .fetches} per collection role</li>
+ *     <li>{@code hibernate.repository.second.level.cache.requests} per region and result</li>
+ *     <li>{@code hibernate.repository.flushes}</li>
+ * </ul>
+ */
+public class MicrometerStatistics extends StatisticsImpl {
+
+    private static final String REPOSITORY_TAG = "repository";
+
+    private final MeterRegistry meterRegistry;
+
+    public MicrometerStatistics(SessionFactoryImplementor sessionFactory, MeterRegistry meterRegistry) {
+        super(sessionFactory);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        Tags tags = Tags.of("query", hql, REPOSITORY_TAG, RepositoryMethodContext.current());
+        meterRegistry.timer("hibernate.query.execution", tags).record(time, TimeUnit.MILLISECONDS);
+        meterRegistry.summary("hibernate.query.rows", tags).record(rows);
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        increment("hibernate.repository.entity.loads", "entity", entityName);
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        increment("hibernate.repository.entity.fetches", "entity", entityName);
+    }
+
+    @Override
+    public void loadCollection(String role) {
+        super.loadCollection(role);
+        increment("hibernate.repository.collection.loads", "role", role);
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        super.fetchCollection(role);
+        increment("hibernate.repository.collection.fetches", "role", role);
+    }
+
+    @Override
+    public void flush() {
+        super.flush();
+        meterRegistry.counter("hibernate.repository.flushes", REPOSITORY_TAG, RepositoryMethodContext.current())
+                .increment();
+    }
+
+    @Override
+    public void entityCacheHit(NavigableRole entityName, String regionName) {
+        super.entityCacheHit(entityName, regionName);
+        cacheRequest(regionName, "hit");
+    }
+
+    @Override
+    public void entityCacheMiss(NavigableRole entityName, String regionName) {
+        super.entityCacheMiss(entityName, regionName);
+        cacheRequest(regionName, "miss");
+    }
+
+    @Override
+    public void collectionCacheHit(NavigableRole collectionRole, String regionName) {
+        super.collectionCacheHit(collectionRole, regionName);
+        cacheRequest(regionName, "hit");
+    }
+
+    @Override
+    public void collectionCacheMiss(NavigableRole collectionRole, String regionName) {
+        super.collectionCacheMiss(collectionRole, regionName);
+        cacheRequest(regionName, "miss");
+    }
+
+    private void increment(String name, String key, String value) {
+        meterRegistry.counter(name, key, value, REPOSITORY_TAG, RepositoryMethodContext.current()).increment();
+    }
+
+    private void cacheRequest(String regionName, String result) {
+        meterRegistry.counter("hibernate.repository.second.level.cache.requests",
+                "region", regionName, "result", result, REPOSITORY_TAG, RepositoryMethodContext.current())
+                .increment();
+    }
+}
@@ -0,0 +1,18 @@
+package com.infinbank.rest.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+@RequiredArgsConstructor
+public class MicrometerStatisticsFactory implements StatisticsFactory {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new MicrometerStatistics(sessionFactory, meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.infinbank.rest.metrics;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Debug filter that reports the number of SQL statements issued while handling a request
+ * in the {@value #HEADER} response header.
+ * <p>
+ * The header is added right before the response is committed, i.e. when the body starts being
+ * written, so statements executed while serialising the body are not included.
+ * </p>
+ * <p>
+ * Requests handled asynchronously, e.g. {@code GET /api/changes/stream}, get no header: their work runs
+ * on other threads after the first dispatch has ended, so the statements of this thread say nothing
+ * about them.
+ * </p>
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCountResponseWrapper wrapper = new QueryCountResponseWrapper(request, response, QueryCounter.current());
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            wrapper.writeHeader();
+        }
+    }
+
+    private static final class QueryCountResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private final long startCount;
+
+        private boolean headerWritten;
+
+        private QueryCountResponseWrapper(HttpServletRequest request, HttpServletResponse response,
+                                          long startCount) {
+            super(response);
+            this.request = request;
+            this.startCount = startCount;
+        }
+
+        private void writeHeader() {
+            if (!headerWritten && !isCommitted() && !request.isAsyncStarted()) {
+                setHeader(HEADER, String.valueOf(QueryCounter.current() - startCount));
+            }
+            headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.infinbank.rest.metrics;
+
+/**
+ * Per-thread, monotonically increasing count of SQL statements prepared by Hibernate.
+ * <p>
+ * The counter is never reset; callers take a snapshot with {@link #current()} before a unit of work
+ * and subtract it afterwards, so nested measurements (an HTTP request inside a test) do not
+ * interfere with each other.
+ * </p>
+ *
+ * @see CountingStatementInspector
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private QueryCounter() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
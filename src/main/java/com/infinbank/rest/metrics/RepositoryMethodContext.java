@@ -0,0 +1,46 @@
+package com.infinbank.rest.metrics;
+
+/**
+ * Holds the Spring Data repository method that is currently executing on this thread.
+ * <p>
+ * Hibernate callbacks (statistics, statement inspection) run deep inside the persistence layer and
+ * have no notion of which repository call triggered them; this context lets them tag their
+ * measurements with it. Work done outside of a repository call, e.g. lazy loading from a service,
+ * is reported as {@link #NONE}.
+ * </p>
+ */
+public final class RepositoryMethodContext {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodContext() {
+    }
+
+    public static String current() {
+        String method = CURRENT.get();
+        return method != null ? method : NONE;
+    }
+
+    /**
+     * Marks {@code method} as current, unless an outer repository call is already in progress.
+     *
+     * @return the previous value, to be passed to {@link #restore(String)}.
+     */
+    static String enter(String method) {
+        String previous = CURRENT.get();
+        if (previous == null) {
+            CURRENT.set(method);
+        }
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.infinbank.rest.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds {@link RepositoryMethodContextInterceptor} to every Spring Data repository proxy.
+ */
+public class RepositoryMethodContextBeanPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryMethodContextInterceptor(
+                                    repositoryInformation.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
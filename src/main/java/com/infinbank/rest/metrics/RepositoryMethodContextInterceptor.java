@@ -0,0 +1,26 @@
+package com.infinbank.rest.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Publishes the invoked repository method to {@link RepositoryMethodContext} for the duration of the call.
+ */
+class RepositoryMethodContextInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+
+    RepositoryMethodContextInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = RepositoryMethodContext.enter(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            RepositoryMethodContext.restore(previous);
+        }
+    }
+}
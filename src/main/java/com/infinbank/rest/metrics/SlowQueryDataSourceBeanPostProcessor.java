@@ -0,0 +1,51 @@
+package com.infinbank.rest.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wraps every {@link DataSource} bean in a proxy that reports the executed statements to
+ * {@link SlowQuerySampler}. The sampler explains them on the wrapped data source, so its own statements are
+ * not reported.
+ */
+public class SlowQueryDataSourceBeanPostProcessor implements BeanPostProcessor {
+
+    private final Supplier<SlowQuerySampler> sampler;
+
+    /**
+     * @param sampler looked up on the first statement, as data sources are created before most other beans.
+     */
+    public SlowQueryDataSourceBeanPostProcessor(Supplier<SlowQuerySampler> sampler) {
+        this.sampler = SingletonSupplier.of(sampler);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+            DataSource dataSource = (DataSource) bean;
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(new QueryExecutionListener() {
+
+                        @Override
+                        public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+                        }
+
+                        @Override
+                        public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+                            sampler.get().afterQuery(dataSource, execution, queries);
+                        }
+                    })
+                    .build();
+        }
+        return bean;
+    }
+}
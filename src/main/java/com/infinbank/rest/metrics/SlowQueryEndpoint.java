@@ -0,0 +1,32 @@
+package com.infinbank.rest.metrics;
+
+import com.infinbank.rest.dto.SlowQueryDto;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/slowqueries} lists the recent slow statements with their plans, newest first;
+ * {@code DELETE /actuator/slowqueries} empties the list.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQuerySampler sampler;
+
+    public SlowQueryEndpoint(SlowQuerySampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @ReadOperation
+    public List<SlowQueryDto> slowQueries() {
+        return sampler.recent();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        sampler.clear();
+    }
+}
@@ -0,0 +1,234 @@
+package com.infinbank.rest.metrics;
+
+import com.infinbank.rest.config.SlowQueryProperties;
+import com.infinbank.rest.dto.SlowQueryDto;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Records the statements that ran longer than {@code slow-query.threshold}, with their bind parameters, and
+ * captures the plan of a sample of them.
+ *
+ * <p>Every statement of the wrapped data sources is reported here once it has executed, see
+ * {@link SlowQueryDataSourceBeanPostProcessor}; the time is that of the execute call and does not include
+ * reading the result set. The last {@code buffer-size} slow statements are kept in memory, newest first.</p>
+ *
+ * <p>For {@code explain-sample-rate} of them the plan is captured on a connection of its own by a single
+ * background thread, so at most one connection is taken from the pool for it. Queries are explained with
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} on PostgreSQL and {@code EXPLAIN ANALYZE} on H2, which executes them
+ * again; inserts, updates and deletes only get the estimated plan of {@code EXPLAIN}. Either way the
+ * statement runs in a read-only transaction that is rolled back.</p>
+ *
+ * <p>The parameters are kept as sent, so the buffer may hold personal data and is only exposed on the
+ * management port.</p>
+ *
+ * @see SlowQueryProperties
+ */
+@Slf4j
+public class SlowQuerySampler {
+
+    static final int MAX_PARAMETER_LENGTH = 100;
+
+    private static final Pattern EXPLAINABLE = Pattern.compile("\\s*(select|with|insert|update|delete|merge)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern QUERY = Pattern.compile("\\s*(select|with)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final SlowQueryProperties properties;
+
+    private final long thresholdMillis;
+
+    private final ExecutorService explainer;
+
+    private final Object lock = new Object();
+
+    private final ArrayDeque<SlowQueryDto> recent = new ArrayDeque<>();
+
+    public SlowQuerySampler(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.thresholdMillis = properties.getThreshold().toMillis();
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getExplainQueueSize())), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        explainer.shutdownNow();
+    }
+
+    /**
+     * @return the slow statements kept, newest first.
+     */
+    public List<SlowQueryDto> recent() {
+        synchronized (lock) {
+            return recent.stream()
+                    .map(query -> new SlowQueryDto(query.getExecutedAt(), query.getDurationMillis(),
+                            query.getRepository(), query.getSql(), query.getParameters(), query.getBatchSize(),
+                            query.getExplain(), query.getPlan()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            recent.clear();
+        }
+    }
+
+    /**
+     * Records the statement if it was slow.
+     *
+     * @param dataSource the data source behind the proxy, for the plan.
+     */
+    void afterQuery(DataSource dataSource, ExecutionInfo execution, List<QueryInfo> queries) {
+        if (execution.getElapsedTime() < thresholdMillis || queries.isEmpty()) {
+            return;
+        }
+        String sql = queries.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining(";\n"));
+        List<List<ParameterSetOperation>> parameterSets = queries.get(0).getParametersList();
+        List<ParameterSetOperation> parameters = parameterSets.isEmpty() ? List.of() : parameterSets.get(0);
+        SlowQueryDto query = new SlowQueryDto(Instant.now(), execution.getElapsedTime(),
+                RepositoryMethodContext.current(), sql, describe(parameters),
+                execution.isBatch() ? execution.getBatchSize() : 1, SlowQueryDto.Explain.NOT_SAMPLED, null);
+
+        boolean sampled = queries.size() == 1 && EXPLAINABLE.matcher(sql).lookingAt()
+                && ThreadLocalRandom.current().nextDouble() < properties.getExplainSampleRate();
+        if (sampled) {
+            query.setExplain(SlowQueryDto.Explain.PENDING);
+        }
+        synchronized (lock) {
+            recent.addFirst(query);
+            while (recent.size() > properties.getBufferSize()) {
+                recent.removeLast();
+            }
+        }
+        if (sampled) {
+            List<ParameterSetOperation> bound = List.copyOf(parameters);
+            try {
+                explainer.execute(() -> explain(dataSource, query, bound));
+            } catch (RejectedExecutionException ex) {
+                // queue full or shutting down
+                complete(query, SlowQueryDto.Explain.DROPPED, null);
+            }
+        }
+    }
+
+    private void explain(DataSource dataSource, SlowQueryDto query, List<ParameterSetOperation> parameters) {
+        try (Connection connection = dataSource.getConnection()) {
+            String prefix = explainPrefix(connection.getMetaData().getDatabaseProductName(),
+                    QUERY.matcher(query.getSql()).lookingAt());
+            boolean autoCommit = connection.getAutoCommit();
+            boolean readOnly = connection.isReadOnly();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(prefix + query.getSql())) {
+                statement.setQueryTimeout((int) Math.max(1, properties.getExplainTimeout().toSeconds()));
+                bind(statement, parameters);
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                }
+                complete(query, SlowQueryDto.Explain.CAPTURED, String.join("\n", lines));
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(readOnly);
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Could not explain {}", query.getSql(), ex);
+            complete(query, SlowQueryDto.Explain.FAILED, ex.getMessage());
+        }
+    }
+
+    private static String explainPrefix(String databaseProduct, boolean analyze) throws SQLException {
+        switch (databaseProduct) {
+            case "PostgreSQL":
+                return analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ";
+            case "H2":
+                return analyze ? "EXPLAIN ANALYZE " : "EXPLAIN ";
+            default:
+                throw new SQLException("Plans of " + databaseProduct + " are not supported");
+        }
+    }
+
+    /**
+     * Sets the parameters again the way the original statement was given them.
+     */
+    private static void bind(PreparedStatement statement, List<ParameterSetOperation> parameters)
+            throws SQLException {
+        for (ParameterSetOperation parameter : parameters) {
+            Method method = parameter.getMethod();
+            if (!method.getDeclaringClass().isInstance(statement) || !(parameter.getArgs()[0] instanceof Integer)) {
+                throw new SQLException("Cannot bind the parameter of " + method.getName());
+            }
+            try {
+                method.invoke(statement, parameter.getArgs());
+            } catch (IllegalAccessException ex) {
+                throw new SQLException(ex);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause() instanceof SQLException ? (SQLException) ex.getCause() : new SQLException(ex);
+            }
+        }
+    }
+
+    private void complete(SlowQueryDto query, SlowQueryDto.Explain explain, String plan) {
+        synchronized (lock) {
+            query.setExplain(explain);
+            query.setPlan(plan);
+        }
+    }
+
+    private static List<String> describe(List<ParameterSetOperation> parameters) {
+        return parameters.stream()
+                .map(SlowQuerySampler::describe)
+                .collect(Collectors.toList());
+    }
+
+    private static String describe(ParameterSetOperation parameter) {
+        if (ParameterSetOperation.isSetNullParameterOperation(parameter) || parameter.getArgs().length < 2) {
+            return null;
+        }
+        Object value = parameter.getArgs()[1];
+        if (value instanceof InputStream || value instanceof Reader || value instanceof Blob
+                || value instanceof Clob || value instanceof byte[]) {
+            return "<" + value.getClass().getSimpleName() + ">";
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text;
+    }
+}
@@ -0,0 +1,16 @@
+package com.infinbank.rest.model;
+
+import java.time.Instant;
+
+/**
+ * Entity whose table carries the {@code updated_seq} and {@code updated_at} columns of delta sync.
+ */
+public interface ChangeTracked {
+
+    /**
+     * @return the value of {@code change_seq} taken by the last insert or update of the row.
+     */
+    Long getUpdatedSeq();
+
+    Instant getUpdatedAt();
+}
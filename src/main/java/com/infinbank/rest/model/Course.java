@@ -3,6 +3,7 @@ package com.infinbank.rest.model;
 import lombok.*;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -12,7 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @Table(name = "course", schema = "public")
 @Entity
-public class Course {
+public class Course implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +23,13 @@ public class Course {
     @Column(name = "course_name")
     private String courseName;
 
+    // maintained by the database, see db/script/add-change-sequence.sql
+    @Column(name = "updated_seq", insertable = false, updatable = false)
+    private Long updatedSeq;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private Instant updatedAt;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "course")
     private List<Teacher> teachers;
 
@@ -2,6 +2,7 @@ package com.infinbank.rest.model;
 
 import lombok.*;
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -11,7 +12,7 @@ import java.util.List;
 @NoArgsConstructor
 @Table(name = "student", schema = "public")
 @Entity
-public class Student {
+public class Student implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +31,13 @@ public class Student {
     @Column(name = "age")
     private Integer age;
 
+    // maintained by the database, see db/script/add-change-sequence.sql
+    @Column(name = "updated_seq", insertable = false, updatable = false)
+    private Long updatedSeq;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private Instant updatedAt;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "student_course",
@@ -3,6 +3,7 @@ package com.infinbank.rest.model;
 import lombok.*;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -12,7 +13,13 @@ import java.util.List;
 @NoArgsConstructor
 @Table(name = "teacher", schema = "public")
 @Entity
-public class Teacher {
+@NamedEntityGraph(name = Teacher.WITH_COURSE, attributeNodes = @NamedAttributeNode("course"))
+public class Teacher implements ChangeTracked {
+
+    /**
+     * Fetch plan for use cases that render the course of a teacher.
+     */
+    public static final String WITH_COURSE = "Teacher.course";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,7 +38,14 @@ public class Teacher {
     @Column(name = "age")
     private Integer age;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // maintained by the database, see db/script/add-change-sequence.sql
+    @Column(name = "updated_seq", insertable = false, updatable = false)
+    private Long updatedSeq;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     private Course course;
 
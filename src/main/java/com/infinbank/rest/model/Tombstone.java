@@ -0,0 +1,34 @@
+package com.infinbank.rest.model;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Record of a deleted student, teacher or course, written by a database trigger.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Immutable
+@Table(name = "entity_tombstone", schema = "public")
+@Entity
+public class Tombstone {
+
+    @Id
+    @Column(name = "deleted_seq")
+    private Long deletedSeq;
+
+    @Column(name = "entity")
+    private String entity;
+
+    @Column(name = "entity_id")
+    private Integer entityId;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+}
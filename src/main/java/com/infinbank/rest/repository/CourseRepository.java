@@ -1,16 +1,56 @@
 package com.infinbank.rest.repository;
 
 import com.infinbank.rest.model.Course;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Integer> {
 
     @Query("SELECT c FROM Course c JOIN c.teachers t WHERE t.id = :teacherId")
     Optional<Course> findByTeacherId(@Param("teacherId") Integer teacherId);
+
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    List<Course> findByUpdatedSeqGreaterThanOrderByUpdatedSeq(long since, Pageable pageable);
+
+    /**
+     * Loads a course together with its teachers in one statement. The course of every teacher is the
+     * loaded course itself, so rendering it needs no further query.
+     */
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.teachers WHERE c.id = :id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    Optional<Course> findWithTeachersById(@Param("id") Integer id);
+
+    /**
+     * Loads a course together with its students in one statement. Run after {@link #findWithTeachersById},
+     * it fills the students of the course already loaded in the persistence context.
+     */
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.students WHERE c.id = :id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    Optional<Course> findWithStudentsById(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = "DELETE FROM student_course WHERE course_id IN :ids", nativeQuery = true)
+    int deleteStudentLinksByCourseIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Deletes the rows without loading them; the join table rows have to be removed first. The
+     * {@code course_id} of their teachers is cleared by the foreign key ({@code ON DELETE SET NULL}).
+     */
+    @Modifying
+    @Query(value = "DELETE FROM course WHERE id IN :ids", nativeQuery = true)
+    int deleteRowsByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,34 @@
+package com.infinbank.rest.repository;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.util.Map;
+
+/**
+ * Updates single attributes of an entity with one {@code UPDATE ... WHERE id = ?} statement,
+ * without loading the entity into the persistence context.
+ */
+@Repository
+public class EntityPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param attributes new values by entity attribute name, must not be empty.
+     * @return the number of updated rows, {@code 0} if there is no entity with that id.
+     */
+    public <T> int updateById(Class<T> entityType, Integer id, Map<String, Object> attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = builder.createCriteriaUpdate(entityType);
+        Root<T> root = update.from(entityType);
+        attributes.forEach(update::set);
+        update.where(builder.equal(root.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,94 @@
+package com.infinbank.rest.repository;
+
+import com.infinbank.rest.dto.ChangeEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the {@code outbox_event} table with plain JDBC statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_event "
+            + "(event_type, entity, entity_id, related_entity, related_id) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_SQL = "SELECT id, event_type, entity, entity_id, related_entity, related_id, "
+            + "created_at FROM outbox_event ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String OLDEST_SQL = "SELECT created_at FROM outbox_event ORDER BY id LIMIT 1";
+
+    private static final RowMapper<ChangeEventDto> EVENT_MAPPER = (rs, rowNum) -> new ChangeEventDto(
+            rs.getLong("id"),
+            ChangeEventDto.Type.valueOf(rs.getString("event_type")),
+            ChangeEventDto.Entity.valueOf(rs.getString("entity")),
+            rs.getInt("entity_id"),
+            Optional.ofNullable(rs.getString("related_entity")).map(ChangeEventDto.Entity::valueOf).orElse(null),
+            rs.getObject("related_id", Integer.class),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the events in the caller's transaction, so they are committed or rolled back with the change
+     * they describe. The ids and timestamps of the events are ignored, the table assigns them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<ChangeEventDto> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getType().name());
+            ps.setString(2, event.getEntity().name());
+            ps.setInt(3, event.getEntityId());
+            if (event.getRelatedEntity() == null) {
+                ps.setNull(4, Types.VARCHAR);
+                ps.setNull(5, Types.INTEGER);
+            } else {
+                ps.setString(4, event.getRelatedEntity().name());
+                ps.setInt(5, event.getRelatedId());
+            }
+        });
+    }
+
+    /**
+     * Locks the oldest events not locked by another transaction yet.
+     *
+     * @return at most {@code limit} events, by ascending id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ChangeEventDto> claim(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, EVENT_MAPPER, limit);
+    }
+
+    /**
+     * @return the number of deleted rows.
+     */
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM outbox_event WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+    /**
+     * @return when the oldest event still in the outbox was recorded, empty if the outbox is empty.
+     */
+    public Optional<Instant> findOldestCreatedAt() {
+        return jdbcTemplate.query(OLDEST_SQL, (rs, rowNum) -> rs.getObject("created_at", OffsetDateTime.class))
+                .stream()
+                .findFirst()
+                .map(OffsetDateTime::toInstant);
+    }
+}
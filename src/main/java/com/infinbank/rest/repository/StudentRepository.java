@@ -1,9 +1,55 @@
 package com.infinbank.rest.repository;
 
 import com.infinbank.rest.model.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Integer> {
+
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    List<Student> findByUpdatedSeqGreaterThanOrderByUpdatedSeq(long since, Pageable pageable);
+
+    /**
+     * Loads a student together with its teachers and their courses in one statement.
+     */
+    @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.teachers t LEFT JOIN FETCH t.course WHERE s.id = :id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    Optional<Student> findWithTeachersById(@Param("id") Integer id);
+
+    /**
+     * Loads a student together with its courses in one statement. Run after {@link #findWithTeachersById},
+     * it fills the courses of the student already loaded in the persistence context.
+     */
+    @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.courses WHERE s.id = :id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    Optional<Student> findWithCoursesById(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = "DELETE FROM student_course WHERE student_id IN :ids", nativeQuery = true)
+    int deleteCourseLinksByStudentIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM teacher_student WHERE student_id IN :ids", nativeQuery = true)
+    int deleteTeacherLinksByStudentIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Deletes the rows without loading them; the join table rows have to be removed first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM student WHERE id IN :ids", nativeQuery = true)
+    int deleteRowsByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -1,9 +1,45 @@
 package com.infinbank.rest.repository;
 
 import com.infinbank.rest.model.Teacher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface TeacherRepository extends JpaRepository<Teacher, Integer> {
+
+    @EntityGraph(Teacher.WITH_COURSE)
+    List<Teacher> findAllWithCourseBy();
+
+    @EntityGraph(Teacher.WITH_COURSE)
+    Optional<Teacher> findWithCourseById(Integer id);
+
+    @EntityGraph(attributePaths = {"course", "students"})
+    Optional<Teacher> findWithCourseAndStudentsById(Integer id);
+
+    @Query("SELECT t.id FROM Teacher t WHERE t.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @EntityGraph(Teacher.WITH_COURSE)
+    List<Teacher> findByUpdatedSeqGreaterThanOrderByUpdatedSeq(long since, Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM teacher_student WHERE teacher_id IN :ids", nativeQuery = true)
+    int deleteStudentLinksByTeacherIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Deletes the rows without loading them; the join table rows have to be removed first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM teacher WHERE id IN :ids", nativeQuery = true)
+    int deleteRowsByIds(@Param("ids") Collection<Integer> ids);
 }
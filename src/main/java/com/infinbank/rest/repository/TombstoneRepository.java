@@ -0,0 +1,18 @@
+package com.infinbank.rest.repository;
+
+import com.infinbank.rest.model.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    /**
+     * @param entity the entity name, {@code STUDENT}, {@code TEACHER} or {@code COURSE}.
+     */
+    List<Tombstone> findByEntityAndDeletedSeqGreaterThanOrderByDeletedSeq(String entity, long since,
+                                                                          Pageable pageable);
+}
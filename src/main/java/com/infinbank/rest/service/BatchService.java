@@ -0,0 +1,357 @@
+package com.infinbank.rest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.infinbank.rest.config.BatchProperties;
+import com.infinbank.rest.dto.BatchRequestDto;
+import com.infinbank.rest.dto.BatchResultDto;
+import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.errorhandling.GlobalExceptionHandler;
+import com.infinbank.rest.exception.InvalidBatchOperationException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the operations of {@code POST /api/batch} against the services, without a HTTP round trip per
+ * operation.
+ *
+ * <p>Every supported operation calls the service method its endpoint calls and answers with the status and
+ * body that endpoint would return; exceptions are turned into error bodies by {@link GlobalExceptionHandler}.
+ * Enrollments are written directly, not through the {@link EnrollmentWriteQueue}: a batch already saves the
+ * per-request round trips the queue saves, and the atomic mode needs them in its transaction.</p>
+ *
+ * <p>In the {@link BatchRequestDto.Mode#ATOMIC atomic} mode the operations share one transaction; the first
+ * operation answering with a status other than 2xx rolls it back and the remaining operations are not run.
+ * The persistence context is flushed and cleared after every operation, so each one sees the rows as a
+ * separate request would. In the {@link BatchRequestDto.Mode#INDEPENDENT independent} mode every operation
+ * commits on its own.</p>
+ */
+@Service
+public class BatchService {
+
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{([^}]+)}");
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final BatchProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GlobalExceptionHandler exceptionHandler;
+
+    private final ExceptionHandlerMethodResolver exceptionHandlerMethods =
+            new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<Route> routes = new ArrayList<>();
+
+    public BatchService(StudentService studentService, TeacherService teacherService, CourseService courseService,
+                        ObjectMapper objectMapper, Validator validator, BatchProperties properties,
+                        PlatformTransactionManager transactionManager, GlobalExceptionHandler exceptionHandler) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.exceptionHandler = exceptionHandler;
+
+        route(HttpMethod.GET, "/api/students/{id}", (path, body) ->
+                ResponseEntity.ok(studentService.findById(path.get("id"))));
+        route(HttpMethod.POST, "/api/students", (path, body) ->
+                ResponseEntity.status(HttpStatus.CREATED).body(studentService.save(valid(body, StudentDto.class))));
+        route(HttpMethod.PUT, "/api/students/{id}", (path, body) ->
+                ResponseEntity.ok(studentService.update(path.get("id"), read(body, StudentDto.class))));
+        route(HttpMethod.PATCH, "/api/students/{id}", (path, body) -> {
+            studentService.patch(path.get("id"), readPatch(body));
+            return ResponseEntity.noContent().build();
+        });
+        route(HttpMethod.DELETE, "/api/students/{id}", (path, body) -> {
+            studentService.deleteById(path.get("id"));
+            return ResponseEntity.noContent().build();
+        });
+        route(HttpMethod.POST, "/api/students/{studentId}/courses/{courseId}", (path, body) ->
+                studentService.assignCourseToStudent(path.get("courseId"), path.get("studentId"))
+                        ? ResponseEntity.ok("Course assigned to student")
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body("Course already assigned to this student"));
+        route(HttpMethod.DELETE, "/api/students/{studentId}/courses/{courseId}", (path, body) ->
+                studentService.removeCourseFromStudent(path.get("courseId"), path.get("studentId"))
+                        ? ResponseEntity.ok("Course removed from student")
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body("Course not found in the list of student's courses"));
+        route(HttpMethod.POST, "/api/students/{studentId}/teachers/{teacherId}", (path, body) ->
+                studentService.assignTeacherToStudent(path.get("teacherId"), path.get("studentId"))
+                        ? ResponseEntity.ok("Teacher assigned to student")
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body("Teacher already assigned to this student"));
+        route(HttpMethod.DELETE, "/api/students/{studentId}/teachers/{teacherId}", (path, body) ->
+                studentService.removeTeacherFromStudent(path.get("teacherId"), path.get("studentId"))
+                        ? ResponseEntity.ok("Teacher removed from student")
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body("Teacher not found in the list of student's teachers"));
+
+        route(HttpMethod.GET, "/api/teachers/{id}", (path, body) ->
+                ResponseEntity.ok(teacherService.findById(path.get("id"))));
+        route(HttpMethod.POST, "/api/teachers", (path, body) ->
+                ResponseEntity.status(HttpStatus.CREATED).body(teacherService.save(valid(body, TeacherDto.class))));
+        route(HttpMethod.PUT, "/api/teachers/{id}", (path, body) ->
+                ResponseEntity.ok(teacherService.update(path.get("id"), read(body, TeacherDto.class))));
+        route(HttpMethod.PATCH, "/api/teachers/{id}", (path, body) -> {
+            teacherService.patch(path.get("id"), readPatch(body));
+            return ResponseEntity.noContent().build();
+        });
+        route(HttpMethod.DELETE, "/api/teachers/{id}", (path, body) -> {
+            teacherService.deleteById(path.get("id"));
+            return ResponseEntity.noContent().build();
+        });
+        route(HttpMethod.POST, "/api/teachers/{teacherId}/courses/{courseId}", (path, body) ->
+                teacherService.assignCourseToTeacher(path.get("courseId"), path.get("teacherId"))
+                        ? ResponseEntity.ok("Teacher is assigned to the course")
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body("Teacher cannot be assigned to two subjects"));
+        route(HttpMethod.DELETE, "/api/teachers/{teacherId}/courses/{courseId}", (path, body) ->
+                teacherService.removeCourseFromTeacher(path.get("courseId"), path.get("teacherId"))
+                        ? ResponseEntity.ok("Course is removed from the teacher")
+                        : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Teacher doesn't teach this subject"));
+
+        route(HttpMethod.GET, "/api/courses/{id}", (path, body) ->
+                ResponseEntity.ok(courseService.findById(path.get("id"))));
+        route(HttpMethod.POST, "/api/courses", (path, body) ->
+                ResponseEntity.status(HttpStatus.CREATED).body(courseService.save(valid(body, CourseDto.class))));
+        route(HttpMethod.PUT, "/api/courses/{id}", (path, body) ->
+                ResponseEntity.ok(courseService.update(path.get("id"), read(body, CourseDto.class))));
+        route(HttpMethod.PATCH, "/api/courses/{id}", (path, body) -> {
+            courseService.patch(path.get("id"), readPatch(body));
+            return ResponseEntity.noContent().build();
+        });
+        route(HttpMethod.DELETE, "/api/courses/{id}", (path, body) -> {
+            courseService.deleteById(path.get("id"));
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    /**
+     * @throws InvalidBatchOperationException if the batch has more operations than allowed or repeats a ref.
+     */
+    public BatchResultDto execute(BatchRequestDto batch) {
+        List<BatchRequestDto.Operation> operations = batch.getOperations();
+        if (operations.size() > properties.getMaxOperations()) {
+            throw new InvalidBatchOperationException("Cannot run " + operations.size()
+                    + " operations at once, the limit is " + properties.getMaxOperations());
+        }
+        Set<String> refs = new HashSet<>();
+        for (BatchRequestDto.Operation operation : operations) {
+            if (operation.getRef() != null && !refs.add(operation.getRef())) {
+                throw new InvalidBatchOperationException("Duplicate ref '" + operation.getRef() + "'");
+            }
+        }
+        if (batch.getMode() == BatchRequestDto.Mode.INDEPENDENT) {
+            Map<String, Integer> ids = new HashMap<>();
+            List<BatchResultDto.OperationResult> results = new ArrayList<>(operations.size());
+            for (BatchRequestDto.Operation operation : operations) {
+                results.add(run(operation, ids));
+            }
+            return new BatchResultDto(true, results);
+        }
+        return transactionTemplate.execute(status -> {
+            Map<String, Integer> ids = new HashMap<>();
+            List<BatchResultDto.OperationResult> results = new ArrayList<>(operations.size());
+            boolean failed = false;
+            for (BatchRequestDto.Operation operation : operations) {
+                if (failed) {
+                    results.add(new BatchResultDto.OperationResult(operation.getRef(),
+                            HttpStatus.FAILED_DEPENDENCY.value(), "Not run, an earlier operation failed"));
+                    continue;
+                }
+                BatchResultDto.OperationResult result = run(operation, ids);
+                results.add(result);
+                failed = !HttpStatus.valueOf(result.getStatus()).is2xxSuccessful();
+                if (!failed) {
+                    // the next operation reads the rows like a request of its own, not the entities cached here
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            if (failed) {
+                status.setRollbackOnly();
+            }
+            return new BatchResultDto(!failed, results);
+        });
+    }
+
+    private BatchResultDto.OperationResult run(BatchRequestDto.Operation operation, Map<String, Integer> ids) {
+        ResponseEntity<?> response;
+        try {
+            response = dispatch(operation, ids);
+        } catch (RuntimeException ex) {
+            response = handle(ex);
+        }
+        if (operation.getRef() != null && response.getStatusCode().is2xxSuccessful()) {
+            JsonNode id = objectMapper.valueToTree(response.getBody()).path("id");
+            if (id.isInt()) {
+                ids.put(operation.getRef(), id.intValue());
+            }
+        }
+        return new BatchResultDto.OperationResult(operation.getRef(), response.getStatusCodeValue(),
+                response.getBody());
+    }
+
+    private ResponseEntity<?> dispatch(BatchRequestDto.Operation operation, Map<String, Integer> ids) {
+        String path = resolve(operation.getPath(), ids);
+        for (Route route : routes) {
+            if (route.method == operation.getMethod() && pathMatcher.match(route.pattern, path)) {
+                Map<String, Integer> variables = new HashMap<>();
+                pathMatcher.extractUriTemplateVariables(route.pattern, path).forEach((name, value) -> {
+                    try {
+                        variables.put(name, Integer.valueOf(value));
+                    } catch (NumberFormatException ex) {
+                        throw new InvalidBatchOperationException(
+                                String.format("Parameter '%s' should be of type 'Integer'", name));
+                    }
+                });
+                JsonNode body = operation.getBody() == null ? null : resolve(operation.getBody().deepCopy(), ids);
+                return route.handler.handle(variables, body);
+            }
+        }
+        throw new InvalidBatchOperationException("Unsupported operation " + operation.getMethod() + " " + path);
+    }
+
+    private static String resolve(String path, Map<String, Integer> ids) {
+        Matcher matcher = REFERENCE.matcher(path);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(resolved, String.valueOf(idOf(matcher.group(1), ids)));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * Replaces the string values of the form {@code ${ref}} in place.
+     */
+    private static JsonNode resolve(JsonNode node, Map<String, Integer> ids) {
+        if (node.isTextual()) {
+            Matcher matcher = REFERENCE.matcher(node.textValue());
+            return matcher.matches() ? IntNode.valueOf(idOf(matcher.group(1), ids)) : node;
+        }
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                ((ObjectNode) node).set(field.getKey(), resolve(field.getValue(), ids));
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                ((ArrayNode) node).set(i, resolve(node.get(i), ids));
+            }
+        }
+        return node;
+    }
+
+    private static int idOf(String ref, Map<String, Integer> ids) {
+        Integer id = ids.get(ref);
+        if (id == null) {
+            throw new InvalidBatchOperationException("Unknown ref '" + ref
+                    + "', it has to name an earlier successful operation");
+        }
+        return id;
+    }
+
+    private <T> T read(JsonNode body, Class<T> type) {
+        if (body == null || !body.isObject()) {
+            throw new InvalidBatchOperationException("Body should be an object");
+        }
+        try {
+            return objectMapper.treeToValue(body, type);
+        } catch (JsonProcessingException ex) {
+            throw new InvalidBatchOperationException("Malformed JSON request");
+        }
+    }
+
+    private <T> T valid(JsonNode body, Class<T> type) {
+        T value = read(body, type);
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new TreeMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            throw new InvalidBatchOperationException("Validation failed", errors);
+        }
+        return value;
+    }
+
+    private Map<String, Object> readPatch(JsonNode body) {
+        if (body == null || !body.isObject()) {
+            throw new InvalidBatchOperationException("Body should be an object");
+        }
+        return objectMapper.convertValue(body, new TypeReference<Map<String, Object>>() { });
+    }
+
+    private ResponseEntity<?> handle(RuntimeException ex) {
+        Method method = exceptionHandlerMethods.resolveMethodByThrowable(ex);
+        if (method == null) {
+            throw ex;
+        }
+        try {
+            return (ResponseEntity<?>) method.invoke(exceptionHandler, ex);
+        } catch (InvocationTargetException | IllegalAccessException invocationFailure) {
+            throw new IllegalStateException("Handling " + ex + " failed", invocationFailure);
+        }
+    }
+
+    private void route(HttpMethod method, String pattern, Handler handler) {
+        routes.add(new Route(method, pattern, handler));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        ResponseEntity<?> handle(Map<String, Integer> path, JsonNode body);
+    }
+
+    private static final class Route {
+
+        private final HttpMethod method;
+
+        private final String pattern;
+
+        private final Handler handler;
+
+        private Route(HttpMethod method, String pattern, Handler handler) {
+            this.method = method;
+            this.pattern = pattern;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.exception.BulkDeleteLimitExceededException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shared argument handling of the bulk delete operations.
+ */
+final class BulkDeletes {
+
+    private BulkDeletes() {
+    }
+
+    /**
+     * @return the distinct non-null ids in request order.
+     * @throws BulkDeleteLimitExceededException if there are more than {@code maxBatchSize} of them.
+     */
+    static Set<Integer> distinctIds(Collection<Integer> ids, int maxBatchSize) {
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        distinct.removeIf(Objects::isNull);
+        if (distinct.size() > maxBatchSize) {
+            throw new BulkDeleteLimitExceededException(distinct.size(), maxBatchSize);
+        }
+        return distinct;
+    }
+}
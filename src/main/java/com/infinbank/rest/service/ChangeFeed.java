@@ -0,0 +1,384 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.ChangeFeedProperties;
+import com.infinbank.rest.dto.ChangeEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the committed changes of students, teachers and courses to Server-Sent Events subscribers.
+ *
+ * <p>The changes are reported by the {@link ChangeRecorder}. A change made inside a transaction is
+ * published to the subscribers once the transaction commits, so they never see a change that was rolled
+ * back. The SSE id of an event is {@code <epoch>-<id>}: the startup time of this instance in microseconds
+ * and the sequence number of the event within this instance.</p>
+ *
+ * <p>The last {@code history-size} events are kept in memory. A subscriber that reconnects with
+ * {@code Last-Event-ID} first receives the events it missed. If they are no longer all retained, or the id
+ * was not issued by this instance, i.e. its epoch differs after a restart or on another replica, it receives
+ * a {@value #RESET_EVENT} event instead and has to reload the data it mirrors.</p>
+ *
+ * <p>Every subscriber has its own buffer of {@code buffer-size} events, drained by a sender thread of its
+ * own while it has pending events. A subscriber whose buffer is full is disconnected instead of slowing
+ * down the publishers or buffering without bound; it can resume from the last event id it received.</p>
+ *
+ * @see ChangeFeedProperties
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    /**
+     * Name of the event telling a resuming subscriber that the events it missed are gone.
+     */
+    public static final String RESET_EVENT = "reset";
+
+    private final ChangeFeedProperties properties;
+
+    private final Counter publishedCounter;
+
+    private final Counter slowConsumerCounter;
+
+    private final ExecutorService senders;
+
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+
+    private final ArrayDeque<ChangeEventDto> history = new ArrayDeque<>();
+
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+
+    private final long epoch = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+    private long lastId;
+
+    @Autowired
+    public ChangeFeed(ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, senderPool());
+    }
+
+    ChangeFeed(ChangeFeedProperties properties, MeterRegistry meterRegistry, ExecutorService senders) {
+        this.properties = properties;
+        this.senders = senders;
+        this.publishedCounter = Counter.builder("change.feed.events.published")
+                .description("Change events published to the subscribers")
+                .register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("change.feed.subscribers.disconnected")
+                .description("Subscribers disconnected because their buffer was full")
+                .tag("reason", "slow")
+                .register(meterRegistry);
+        Gauge.builder("change.feed.subscribers", this, ChangeFeed::subscriberCount)
+                .description("Connected change feed subscribers")
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService senderPool() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        long intervalMillis = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeat.shutdownNow();
+        List<Subscriber> connected;
+        synchronized (lock) {
+            connected = new ArrayList<>(subscribers);
+            subscribers.clear();
+        }
+        connected.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    public int subscriberCount() {
+        synchronized (lock) {
+            return subscribers.size();
+        }
+    }
+
+    public void created(ChangeEventDto.Entity entity, Integer id) {
+        publish(ChangeEventDto.Type.CREATED, entity, List.of(id), null, null);
+    }
+
+    public void updated(ChangeEventDto.Entity entity, Integer id) {
+        publish(ChangeEventDto.Type.UPDATED, entity, List.of(id), null, null);
+    }
+
+    public void deleted(ChangeEventDto.Entity entity, Collection<Integer> ids) {
+        publish(ChangeEventDto.Type.DELETED, entity, ids, null, null);
+    }
+
+    public void assigned(ChangeEventDto.Entity entity, Integer id, ChangeEventDto.Entity relatedEntity,
+                         Integer relatedId) {
+        publish(ChangeEventDto.Type.ASSIGNED, entity, List.of(id), relatedEntity, relatedId);
+    }
+
+    public void unassigned(ChangeEventDto.Entity entity, Integer id, ChangeEventDto.Entity relatedEntity,
+                           Integer relatedId) {
+        publish(ChangeEventDto.Type.UNASSIGNED, entity, List.of(id), relatedEntity, relatedId);
+    }
+
+    /**
+     * Opens a stream of the events published from now on.
+     *
+     * @param lastEventId the SSE id of the last event the client received, {@code null} for a new subscription.
+     * @return the stream, empty if {@code max-subscribers} streams are open already.
+     */
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        long timeoutMillis = properties.getTimeout().toMillis();
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (lock) {
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                return Optional.empty();
+            }
+            if (lastEventId != null) {
+                long resumeAfter = sequenceOf(lastEventId);
+                long firstRetained = history.isEmpty() ? lastId + 1 : history.getFirst().getId();
+                if (resumeAfter < firstRetained - 1 || resumeAfter > lastId) {
+                    subscriber.reset(lastId);
+                } else {
+                    history.stream()
+                            .filter(event -> event.getId() > resumeAfter)
+                            .forEach(subscriber::replay);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        return Optional.of(emitter);
+    }
+
+    /**
+     * @return the sequence number of an SSE id issued by this instance, {@code -1} for any other id.
+     */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator < 0) {
+            return -1;
+        }
+        try {
+            long eventEpoch = Long.parseLong(eventId.substring(0, separator));
+            long sequence = Long.parseLong(eventId.substring(separator + 1));
+            return eventEpoch == epoch && sequence >= 0 ? sequence : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private String sseId(long id) {
+        return epoch + "-" + id;
+    }
+
+    private void publish(ChangeEventDto.Type type, ChangeEventDto.Entity entity, Collection<Integer> ids,
+                         ChangeEventDto.Entity relatedEntity, Integer relatedId) {
+        List<Integer> entityIds = List.copyOf(ids);
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, entity, entityIds, relatedEntity, relatedId);
+                }
+            });
+        } else {
+            append(type, entity, entityIds, relatedEntity, relatedId);
+        }
+    }
+
+    private void append(ChangeEventDto.Type type, ChangeEventDto.Entity entity, List<Integer> entityIds,
+                        ChangeEventDto.Entity relatedEntity, Integer relatedId) {
+        Instant committedAt = Instant.now();
+        List<Subscriber> slow = new ArrayList<>();
+        synchronized (lock) {
+            for (Integer entityId : entityIds) {
+                ChangeEventDto event = new ChangeEventDto(++lastId, type, entity, entityId, relatedEntity, relatedId,
+                        committedAt);
+                history.addLast(event);
+                if (history.size() > properties.getHistorySize()) {
+                    history.removeFirst();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.offer(event)) {
+                        slow.add(subscriber);
+                    }
+                }
+                slow.forEach(subscribers::remove);
+            }
+        }
+        publishedCounter.increment(entityIds.size());
+        for (Subscriber subscriber : slow) {
+            slowConsumerCounter.increment();
+            log.info("Disconnected a change feed subscriber that fell {} events behind", properties.getBufferSize());
+            subscriber.close();
+        }
+    }
+
+    private void sendHeartbeats() {
+        List<Subscriber> connected;
+        synchronized (lock) {
+            connected = new ArrayList<>(subscribers);
+        }
+        connected.forEach(Subscriber::heartbeat);
+    }
+
+    private void remove(Subscriber subscriber) {
+        synchronized (lock) {
+            subscribers.remove(subscriber);
+        }
+        subscriber.close();
+    }
+
+    /**
+     * One stream with its buffer of events not sent yet. At most one sender drains the buffer at a time,
+     * so events are written in order; the sender does not hold the lock while writing.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+
+        private boolean sending;
+
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return {@code false} if the buffer is full.
+         */
+        private synchronized boolean offer(ChangeEventDto event) {
+            if (closed) {
+                return true;
+            }
+            if (pending.size() >= properties.getBufferSize()) {
+                return false;
+            }
+            pending.addLast(toSse(event));
+            scheduleSend();
+            return true;
+        }
+
+        /**
+         * Queues a missed event; replayed events do not count against the buffer size.
+         */
+        private synchronized void replay(ChangeEventDto event) {
+            pending.addLast(toSse(event));
+            scheduleSend();
+        }
+
+        private synchronized void reset(long currentId) {
+            pending.addLast(SseEmitter.event()
+                    .id(sseId(currentId))
+                    .name(RESET_EVENT)
+                    .data(Map.of("lastEventId", sseId(currentId)), MediaType.APPLICATION_JSON));
+            scheduleSend();
+        }
+
+        private synchronized void heartbeat() {
+            if (!closed && pending.isEmpty()) {
+                pending.addLast(SseEmitter.event().comment("heartbeat"));
+                scheduleSend();
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            emitter.complete();
+        }
+
+        private void scheduleSend() {
+            if (!sending) {
+                sending = true;
+                try {
+                    senders.execute(this::send);
+                } catch (RejectedExecutionException ex) {
+                    // shutting down
+                    sending = false;
+                }
+            }
+        }
+
+        private void send() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    next = closed ? null : pending.pollFirst();
+                    if (next == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException ex) {
+                    // the client went away
+                    remove(this);
+                    return;
+                }
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toSse(ChangeEventDto event) {
+            return SseEmitter.event()
+                    .id(sseId(event.getId()))
+                    .name(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.OutboxProperties;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records the changes of students, teachers and courses, called by the services in the transaction that
+ * makes the change.
+ *
+ * <p>Unless {@code outbox.enabled} is off, every change is written to the transactional outbox first, so
+ * its event is committed or rolled back with it, see {@link OutboxRelay}. The change is then handed to the
+ * {@link ChangeFeed}, which streams it to the subscribers of this instance once the transaction commits.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ChangeRecorder {
+
+    private final OutboxProperties outboxProperties;
+
+    private final OutboxRepository outboxRepository;
+
+    private final ChangeFeed changeFeed;
+
+    public void created(ChangeEventDto.Entity entity, Integer id) {
+        record(ChangeEventDto.Type.CREATED, entity, List.of(id), null, null);
+        changeFeed.created(entity, id);
+    }
+
+    public void updated(ChangeEventDto.Entity entity, Integer id) {
+        record(ChangeEventDto.Type.UPDATED, entity, List.of(id), null, null);
+        changeFeed.updated(entity, id);
+    }
+
+    public void deleted(ChangeEventDto.Entity entity, Collection<Integer> ids) {
+        record(ChangeEventDto.Type.DELETED, entity, ids, null, null);
+        changeFeed.deleted(entity, ids);
+    }
+
+    public void assigned(ChangeEventDto.Entity entity, Integer id, ChangeEventDto.Entity relatedEntity,
+                         Integer relatedId) {
+        record(ChangeEventDto.Type.ASSIGNED, entity, List.of(id), relatedEntity, relatedId);
+        changeFeed.assigned(entity, id, relatedEntity, relatedId);
+    }
+
+    public void unassigned(ChangeEventDto.Entity entity, Integer id, ChangeEventDto.Entity relatedEntity,
+                           Integer relatedId) {
+        record(ChangeEventDto.Type.UNASSIGNED, entity, List.of(id), relatedEntity, relatedId);
+        changeFeed.unassigned(entity, id, relatedEntity, relatedId);
+    }
+
+    private void record(ChangeEventDto.Type type, ChangeEventDto.Entity entity, Collection<Integer> ids,
+                        ChangeEventDto.Entity relatedEntity, Integer relatedId) {
+        if (outboxProperties.isEnabled() && !ids.isEmpty()) {
+            outboxRepository.append(ids.stream()
+                    .map(entityId -> new ChangeEventDto(0, type, entity, entityId, relatedEntity, relatedId, null))
+                    .collect(Collectors.toList()));
+        }
+    }
+}
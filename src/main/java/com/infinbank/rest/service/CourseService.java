@@ -1,6 +1,14 @@
 package com.infinbank.rest.service;
 
+import com.infinbank.rest.config.BulkDeleteProperties;
+import com.infinbank.rest.config.DeltaSyncProperties;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.dto.ChangesDto;
+import com.infinbank.rest.dto.CourseDetailsDto;
 import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.EnrollmentQueryResultDto;
+import com.infinbank.rest.dto.RelatedCourseDto;
 import com.infinbank.rest.dto.StudentDto;
 import com.infinbank.rest.dto.TeacherDto;
 import com.infinbank.rest.exception.CourseEntityNotFoundException;
@@ -8,12 +16,24 @@ import com.infinbank.rest.mapper.CourseMapper;
 import com.infinbank.rest.mapper.StudentMapper;
 import com.infinbank.rest.mapper.TeacherMapper;
 import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Tombstone;
 import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.EntityPatchRepository;
+import com.infinbank.rest.repository.TombstoneRepository;
 import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +62,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CourseService implements CrudService<CourseDto, Integer> {
 
+    private static final Set<String> PATCHABLE = Set.of("courseName");
+
+    /**
+     * Upper bound of the IDs returned by one {@link #queryStudents} call.
+     */
+    public static final int MAX_QUERY_PAGE_SIZE = 10_000;
+
     private final CourseMapper courseMapper;
 
     private final StudentMapper studentMapper;
@@ -50,6 +77,22 @@ public class CourseService implements CrudService<CourseDto, Integer> {
 
     private final CourseRepository courseRepository;
 
+    private final EntityPatchRepository entityPatchRepository;
+
+    private final MergePatchValidator mergePatchValidator;
+
+    private final BulkDeleteProperties bulkDeleteProperties;
+
+    private final EnrollmentIndex enrollmentIndex;
+
+    private final CourseSimilarityIndex courseSimilarityIndex;
+
+    private final ChangeRecorder changeRecorder;
+
+    private final TombstoneRepository tombstoneRepository;
+
+    private final DeltaSyncProperties deltaSyncProperties;
+
     /**
      * Finds a course by its ID.
      *
@@ -66,6 +109,51 @@ public class CourseService implements CrudService<CourseDto, Integer> {
         return courseMapper.toDto(course);
     }
 
+    /**
+     * Finds a course by its ID together with the related entities named by {@code include}.
+     *
+     * <p>The teachers and the students are fetched by one query each, so the statement count does not grow
+     * with the number of related rows.</p>
+     *
+     * @param id the ID of the course to retrieve.
+     * @param include the related entities to include, {@code students} and/or {@code teachers}.
+     * @return the {@link CourseDetailsDto} representing the course and the included entities.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the course is not found.
+     * @throws com.infinbank.rest.exception.InvalidIncludeException if an include is not supported.
+     */
+    @Transactional(readOnly = true)
+    public CourseDetailsDto findDetailsById(Integer id, Collection<String> include) {
+        Set<CourseDetailsDto.Include> includes = Includes.parse(CourseDetailsDto.Include.class, include);
+        boolean withStudents = includes.contains(CourseDetailsDto.Include.STUDENTS);
+        boolean withTeachers = includes.contains(CourseDetailsDto.Include.TEACHERS);
+
+        Optional<Course> found;
+        if (withTeachers) {
+            found = courseRepository.findWithTeachersById(id);
+        } else if (withStudents) {
+            found = courseRepository.findWithStudentsById(id);
+        } else {
+            found = courseRepository.findById(id);
+        }
+        Course course = found.orElseThrow(() -> new CourseEntityNotFoundException(id));
+        if (withTeachers && withStudents) {
+            courseRepository.findWithStudentsById(id);
+        }
+
+        CourseDetailsDto details = courseMapper.toDetailsDto(course);
+        if (withStudents) {
+            details.setStudents(course.getStudents().stream()
+                    .map(studentMapper::toDto)
+                    .collect(Collectors.toList()));
+        }
+        if (withTeachers) {
+            details.setTeachers(course.getTeachers().stream()
+                    .map(teacherMapper::toDto)
+                    .collect(Collectors.toList()));
+        }
+        return details;
+    }
+
     /**
      * Retrieves all courses.
      *
@@ -79,6 +167,28 @@ public class CourseService implements CrudService<CourseDto, Integer> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of the courses changed or deleted after a sync token.
+     *
+     * <p>Served from the indexes on the change sequence with one query for the changed courses and one for
+     * the tombstones, see {@link DeltaSync}.</p>
+     *
+     * @param since the token returned by the previous request, {@code null} to start a full sync.
+     * @param limit the maximum number of changes to return, capped at {@value DeltaSync#MAX_PAGE_SIZE}.
+     * @return the {@link ChangesDto} with the changed courses, the IDs of the deleted ones and the next token.
+     */
+    @Transactional(readOnly = true)
+    public ChangesDto<CourseDto> findChangesSince(Long since, int limit) {
+        long sinceSeq = DeltaSync.sequenceOf(since);
+        int pageSize = DeltaSync.pageSize(limit);
+        List<Course> changed = courseRepository.findByUpdatedSeqGreaterThanOrderByUpdatedSeq(sinceSeq,
+                DeltaSync.rowsToRead(pageSize));
+        List<Tombstone> tombstones = tombstoneRepository.findByEntityAndDeletedSeqGreaterThanOrderByDeletedSeq(
+                ChangeEventDto.Entity.COURSE.name(), sinceSeq, DeltaSync.rowsToRead(pageSize));
+        Instant settledBefore = Instant.now().minus(deltaSyncProperties.getSettleWindow());
+        return DeltaSync.page(sinceSeq, pageSize, settledBefore, changed, tombstones, courseMapper::toDto);
+    }
+
     /**
      * Saves a new course.
      *
@@ -89,6 +199,7 @@ public class CourseService implements CrudService<CourseDto, Integer> {
     public CourseDto save(CourseDto courseDto) {
         Course course = courseMapper.toEntity(courseDto);
         Course savedCourse = courseRepository.save(course);
+        changeRecorder.created(ChangeEventDto.Entity.COURSE, savedCourse.getId());
         return courseMapper.toDto(savedCourse);
     }
 
@@ -108,9 +219,57 @@ public class CourseService implements CrudService<CourseDto, Integer> {
                 .orElseThrow(() -> new CourseEntityNotFoundException(id));
         updateCourse(updatedCourseDto, course);
         Course savedCourse = courseRepository.save(course);
+        changeRecorder.updated(ChangeEventDto.Entity.COURSE, id);
         return courseMapper.toDto(savedCourse);
     }
 
+    /**
+     * Applies a JSON merge patch to a course with a single {@code UPDATE} of the supplied columns.
+     *
+     * @param id the ID of the course to patch.
+     * @param patch the patch members by {@link CourseDto} property name.
+     * @throws com.infinbank.rest.exception.InvalidPatchException if a member is unknown or invalid.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the course is not found.
+     */
+    @Transactional
+    public void patch(Integer id, Map<String, Object> patch) {
+        Map<String, Object> attributes = mergePatchValidator.validate(CourseDto.class, PATCHABLE, patch);
+        boolean found = attributes.isEmpty()
+                ? courseRepository.existsById(id)
+                : entityPatchRepository.updateById(Course.class, id, attributes) > 0;
+        if (!found) {
+            throw new CourseEntityNotFoundException(id);
+        }
+        if (!attributes.isEmpty()) {
+            changeRecorder.updated(ChangeEventDto.Entity.COURSE, id);
+        }
+    }
+
+    /**
+     * Deletes the existing courses among the given IDs with two set-based statements: the enrollments
+     * of the courses, then the courses themselves. Teachers of a deleted course are kept, their course
+     * is cleared by the foreign key.
+     *
+     * @param ids the IDs of the courses to delete, duplicates are ignored.
+     * @return the outcome for every distinct ID; IDs that do not exist are reported as not found.
+     * @throws com.infinbank.rest.exception.BulkDeleteLimitExceededException if there are more distinct IDs
+     *         than the configured {@code bulk-delete.max-batch-size}.
+     */
+    @Transactional
+    public BulkDeleteResultDto deleteAllById(Collection<Integer> ids) {
+        Set<Integer> requested = BulkDeletes.distinctIds(ids, bulkDeleteProperties.getMaxBatchSize());
+        Set<Integer> existing = requested.isEmpty()
+                ? Collections.emptySet()
+                : courseRepository.findExistingIds(requested);
+        if (!existing.isEmpty()) {
+            courseRepository.deleteStudentLinksByCourseIds(existing);
+            courseRepository.deleteRowsByIds(existing);
+            enrollmentIndex.coursesDeleted(existing);
+            changeRecorder.deleted(ChangeEventDto.Entity.COURSE, existing);
+        }
+        return BulkDeleteResultDto.of(requested, existing);
+    }
+
     /**
      * Deletes a course by its ID.
      *
@@ -124,6 +283,43 @@ public class CourseService implements CrudService<CourseDto, Integer> {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new CourseEntityNotFoundException(courseId));
         courseRepository.delete(course);
+        enrollmentIndex.coursesDeleted(List.of(courseId));
+        changeRecorder.deleted(ChangeEventDto.Entity.COURSE, List.of(courseId));
+    }
+
+    /**
+     * Finds the students enrolled in all of the given courses and in none of the excluded ones.
+     *
+     * <p>The query is answered from the {@link EnrollmentIndex} without touching the database. Unknown
+     * course IDs are treated as courses without students.</p>
+     *
+     * @param allOf the IDs of the courses every matching student is enrolled in, at least one.
+     * @param noneOf the IDs of the courses no matching student is enrolled in.
+     * @param countOnly {@code true} to return the number of matching students only.
+     * @param afterId only IDs greater than this one are returned, {@code null} to start with the first one.
+     * @param limit the maximum number of IDs to return, capped at {@value #MAX_QUERY_PAGE_SIZE}.
+     * @return the {@link EnrollmentQueryResultDto} with the total count and the requested page of IDs.
+     */
+    public EnrollmentQueryResultDto queryStudents(Collection<Integer> allOf, Collection<Integer> noneOf,
+                                                  boolean countOnly, Integer afterId, int limit) {
+        RoaringBitmap students = enrollmentIndex.query(allOf, noneOf);
+        long count = students.getLongCardinality();
+        if (countOnly) {
+            return new EnrollmentQueryResultDto(count, null);
+        }
+        int pageSize = Math.max(0, Math.min(limit, MAX_QUERY_PAGE_SIZE));
+        List<Integer> page = new ArrayList<>((int) Math.min(count, pageSize));
+        PeekableIntIterator iterator = students.getIntIterator();
+        if (afterId != null && afterId >= 0) {
+            if (afterId == Integer.MAX_VALUE) {
+                return new EnrollmentQueryResultDto(count, page);
+            }
+            iterator.advanceIfNeeded(afterId + 1);
+        }
+        while (iterator.hasNext() && page.size() < pageSize) {
+            page.add(iterator.next());
+        }
+        return new EnrollmentQueryResultDto(count, page);
     }
 
     /**
@@ -151,13 +347,45 @@ public class CourseService implements CrudService<CourseDto, Integer> {
      */
     @Transactional(readOnly = true)
     public List<TeacherDto> findTeachersByCourse(Integer courseId) {
-        Course course = courseRepository.findById(courseId)
+        Course course = courseRepository.findWithTeachersById(courseId)
                 .orElseThrow(() -> new CourseEntityNotFoundException(courseId));
         return course.getTeachers().stream()
                 .map(teacherMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves the courses most similar to a specific course by the students they have in common.
+     *
+     * <p>The similarities come from the {@link CourseSimilarityIndex} and are refreshed periodically; the
+     * course and the names of the similar courses are read with one query.</p>
+     *
+     * @param courseId the ID of the course.
+     * @param limit the maximum number of courses to return.
+     * @return a list of {@link RelatedCourseDto}, the most similar course first.
+     * @throws com.infinbank.rest.exception.EntityNotFoundException if the course is not found.
+     */
+    @Transactional(readOnly = true)
+    public List<RelatedCourseDto> findRelatedCourses(Integer courseId, int limit) {
+        List<CourseSimilarityIndex.RelatedCourse> related = courseSimilarityIndex.findRelated(courseId).stream()
+                .limit(Math.max(0, limit))
+                .collect(Collectors.toList());
+        List<Integer> ids = new ArrayList<>(related.size() + 1);
+        ids.add(courseId);
+        related.forEach(course -> ids.add(course.getCourseId()));
+        Map<Integer, String> names = courseRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Course::getId, Course::getCourseName));
+        if (!names.containsKey(courseId)) {
+            throw new CourseEntityNotFoundException(courseId);
+        }
+        // courses deleted since the last refresh are skipped
+        return related.stream()
+                .filter(course -> names.containsKey(course.getCourseId()))
+                .map(course -> new RelatedCourseDto(course.getCourseId(), names.get(course.getCourseId()),
+                        course.getScore(), course.getCommonStudents()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Updates the details of a course entity with the provided {@link CourseDto}.
      *
@@ -0,0 +1,523 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.CourseSimilarityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Most similar courses of every course by the students they have in common ("students who took X also
+ * took Y").
+ *
+ * <p>The similarity of two courses is the Jaccard index or the cosine similarity of their student sets,
+ * only the {@code top-k} courses of every course are kept. A refresh takes a snapshot of the
+ * {@link EnrollmentIndex} and lays it out as two compact int arrays: the students of every course and
+ * the courses of every student, both as dense indexes. The common students of a course with all other
+ * courses are counted by walking the courses of each of its students, so computing every course costs
+ * the sum of the squared course counts of the students instead of one intersection per course pair.
+ * Courses are spread over a fork-join pool.</p>
+ *
+ * <p>Refreshes are incremental: only the courses whose students changed are recomputed, and their new
+ * scores are merged into the lists of the other courses. Such a list is recomputed as well when a
+ * changed course lost score in it, because a course outside of the top k may have to take its place.
+ * Once more than {@code full-refresh-ratio} of the courses changed, all of them are recomputed.</p>
+ *
+ * @see CourseSimilarityProperties
+ */
+@Slf4j
+@Component
+public class CourseSimilarityIndex {
+
+    /**
+     * Highest score first, ties go to the lower course id.
+     */
+    private static final Comparator<RelatedCourse> RANKING = Comparator.comparingDouble(RelatedCourse::getScore)
+            .reversed()
+            .thenComparingInt(RelatedCourse::getCourseId);
+
+    /**
+     * Courses counted by one fork-join task without splitting it further.
+     */
+    private static final int LEAF_SIZE = 8;
+
+    private final CourseSimilarityProperties properties;
+
+    private final EnrollmentIndex enrollmentIndex;
+
+    private final Timer fullRefreshTimer;
+
+    private final Timer incrementalRefreshTimer;
+
+    private final ForkJoinPool pool;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-similarity");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object refreshLock = new Object();
+
+    private volatile Map<Integer, List<RelatedCourse>> relatedByCourse = Map.of();
+
+    /**
+     * Whether the next refresh has to recompute every course, guarded by {@link #refreshLock}. Stays set
+     * when a refresh fails, the changes it took from the index would be lost otherwise.
+     */
+    private boolean fullRefreshRequired = true;
+
+    public CourseSimilarityIndex(CourseSimilarityProperties properties, EnrollmentIndex enrollmentIndex,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.enrollmentIndex = enrollmentIndex;
+        this.fullRefreshTimer = Timer.builder("course.similarity.refresh")
+                .description("Time to recompute the similar courses")
+                .tag("type", "full")
+                .register(meterRegistry);
+        this.incrementalRefreshTimer = Timer.builder("course.similarity.refresh")
+                .description("Time to recompute the similar courses")
+                .tag("type", "incremental")
+                .register(meterRegistry);
+        this.pool = new ForkJoinPool(properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled()) {
+            scheduler.scheduleWithFixedDelay(this::refreshSafely, properties.getInitialDelay().toMillis(),
+                    properties.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * @return the most similar courses as of the last refresh, best first; empty for an unknown course.
+     */
+    public List<RelatedCourse> findRelated(Integer courseId) {
+        return relatedByCourse.getOrDefault(courseId, List.of());
+    }
+
+    /**
+     * Brings the similar courses up to date with the {@link EnrollmentIndex}.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            long start = System.nanoTime();
+            EnrollmentIndex.Snapshot snapshot = enrollmentIndex.snapshot();
+            RoaringBitmap changed = snapshot.getChangedCourses();
+            boolean full = fullRefreshRequired || changed == null
+                    || changed.getLongCardinality() > properties.getFullRefreshRatio()
+                    * snapshot.getStudentsByCourse().size();
+            if (!full && changed.isEmpty()) {
+                return;
+            }
+            fullRefreshRequired = true;
+
+            Enrollments enrollments = new Enrollments(snapshot.getStudentsByCourse());
+            int recomputed;
+            if (full) {
+                int[] all = new int[enrollments.courseCount()];
+                Arrays.setAll(all, course -> course);
+                RelatedCourse[][] top = new RelatedCourse[all.length][];
+                forEachCourse(enrollments, all,
+                        (counter, i) -> top[i] = topK(enrollments, all[i], counter.count(all[i])));
+                Map<Integer, List<RelatedCourse>> next = new HashMap<>(all.length * 2);
+                for (int i = 0; i < all.length; i++) {
+                    putOrRemove(next, enrollments.courseIds[all[i]], top[i]);
+                }
+                relatedByCourse = next;
+                recomputed = all.length;
+            } else {
+                recomputed = refreshChanged(enrollments, changed);
+            }
+            fullRefreshRequired = false;
+
+            long elapsed = System.nanoTime() - start;
+            (full ? fullRefreshTimer : incrementalRefreshTimer).record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Recomputed the similar courses of {} of {} courses in {} ms", recomputed,
+                    enrollments.courseCount(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Recomputes the changed courses and merges their new scores into the lists of the other courses.
+     *
+     * @return the number of recomputed courses.
+     */
+    private int refreshChanged(Enrollments enrollments, RoaringBitmap changed) {
+        int k = properties.getTopK();
+        Map<Integer, List<RelatedCourse>> previous = relatedByCourse;
+        Map<Integer, List<RelatedCourse>> next = new HashMap<>(previous);
+        changed.forEach((int courseId) -> next.remove(courseId));
+
+        int[] dirty = changed.stream()
+                .map(enrollments::indexOf)
+                .filter(course -> course >= 0)
+                .toArray();
+        CoEnrollments[] rows = new CoEnrollments[dirty.length];
+        forEachCourse(enrollments, dirty, (counter, i) -> rows[i] = counter.count(dirty[i]));
+
+        // the new scores of the changed courses, seen from the unchanged courses they share students with
+        Map<Integer, List<RelatedCourse>> offered = new HashMap<>();
+        for (int i = 0; i < dirty.length; i++) {
+            putOrRemove(next, enrollments.courseIds[dirty[i]], topK(enrollments, dirty[i], rows[i]));
+            for (int j = 0; j < rows[i].others.length; j++) {
+                int other = rows[i].others[j];
+                if (!changed.contains(enrollments.courseIds[other])) {
+                    offered.computeIfAbsent(enrollments.courseIds[other], courseId -> new ArrayList<>())
+                            .add(related(enrollments, other, dirty[i], rows[i].common[j]));
+                }
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>(offered.keySet());
+        previous.forEach((courseId, related) -> {
+            if (!changed.contains(courseId) && !offered.containsKey(courseId)
+                    && related.stream().anyMatch(course -> changed.contains(course.getCourseId()))) {
+                candidates.add(courseId);
+            }
+        });
+        List<Integer> stale = new ArrayList<>();
+        for (Integer courseId : candidates) {
+            List<RelatedCourse> old = previous.getOrDefault(courseId, List.of());
+            List<RelatedCourse> offers = offered.getOrDefault(courseId, List.of());
+            int course = enrollments.indexOf(courseId);
+            if (course < 0) {
+                next.remove(courseId);
+                continue;
+            }
+            if (old.size() >= k && lostScore(old, offers, changed)) {
+                stale.add(course);
+                continue;
+            }
+            // a list shorter than k holds every course with common students, merging into it is exact
+            List<RelatedCourse> merged = new ArrayList<>(old.size() + offers.size());
+            old.stream().filter(related -> !changed.contains(related.getCourseId())).forEach(merged::add);
+            merged.addAll(offers);
+            merged.sort(RANKING);
+            putOrRemove(next, courseId, merged.subList(0, Math.min(k, merged.size())).toArray(new RelatedCourse[0]));
+        }
+
+        int[] recompute = stale.stream().mapToInt(Integer::intValue).toArray();
+        RelatedCourse[][] top = new RelatedCourse[recompute.length][];
+        forEachCourse(enrollments, recompute,
+                (counter, i) -> top[i] = topK(enrollments, recompute[i], counter.count(recompute[i])));
+        for (int i = 0; i < recompute.length; i++) {
+            putOrRemove(next, enrollments.courseIds[recompute[i]], top[i]);
+        }
+        relatedByCourse = next;
+        return dirty.length + recompute.length;
+    }
+
+    /**
+     * Whether a changed course in {@code old} scores lower now or no longer shares students at all.
+     */
+    private static boolean lostScore(List<RelatedCourse> old, List<RelatedCourse> offers, RoaringBitmap changed) {
+        for (RelatedCourse course : old) {
+            if (changed.contains(course.getCourseId())) {
+                RelatedCourse offer = offers.stream()
+                        .filter(candidate -> candidate.getCourseId() == course.getCourseId())
+                        .findFirst()
+                        .orElse(null);
+                if (offer == null || offer.getScore() < course.getScore()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private RelatedCourse[] topK(Enrollments enrollments, int course, CoEnrollments row) {
+        int k = Math.min(properties.getTopK(), row.others.length);
+        // positions in the row and scores of the best k so far, best first; insertion keeps them sorted
+        int[] best = new int[k];
+        double[] bestScores = new double[k];
+        int size = 0;
+        for (int i = 0; i < row.others.length; i++) {
+            double score = score(enrollments, course, row.others[i], row.common[i]);
+            int courseId = enrollments.courseIds[row.others[i]];
+            if (size == k && (k == 0 || !ranksBefore(score, courseId, bestScores[k - 1],
+                    enrollments.courseIds[row.others[best[k - 1]]]))) {
+                continue;
+            }
+            int position = size < k ? size++ : k - 1;
+            while (position > 0 && ranksBefore(score, courseId, bestScores[position - 1],
+                    enrollments.courseIds[row.others[best[position - 1]]])) {
+                best[position] = best[position - 1];
+                bestScores[position] = bestScores[position - 1];
+                position--;
+            }
+            best[position] = i;
+            bestScores[position] = score;
+        }
+        RelatedCourse[] top = new RelatedCourse[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = new RelatedCourse(enrollments.courseIds[row.others[best[i]]], bestScores[i],
+                    row.common[best[i]]);
+        }
+        return top;
+    }
+
+    /**
+     * {@link #RANKING} on unboxed values.
+     */
+    private static boolean ranksBefore(double score, int courseId, double otherScore, int otherCourseId) {
+        return score > otherScore || (score == otherScore && courseId < otherCourseId);
+    }
+
+    /**
+     * @return {@code other} as seen from {@code course}.
+     */
+    private RelatedCourse related(Enrollments enrollments, int course, int other, int common) {
+        return new RelatedCourse(enrollments.courseIds[other], score(enrollments, course, other, common), common);
+    }
+
+    private double score(Enrollments enrollments, int course, int other, int common) {
+        double a = enrollments.size(course);
+        double b = enrollments.size(other);
+        return properties.getMetric() == CourseSimilarityProperties.Metric.COSINE
+                ? common / Math.sqrt(a * b)
+                : common / (a + b - common);
+    }
+
+    private void forEachCourse(Enrollments enrollments, int[] courses, CourseAction action) {
+        if (courses.length > 0) {
+            pool.invoke(new CountTask(enrollments, action, 0, courses.length));
+        }
+    }
+
+    private static void putOrRemove(Map<Integer, List<RelatedCourse>> related, Integer courseId,
+                                    RelatedCourse[] top) {
+        if (top.length == 0) {
+            related.remove(courseId);
+        } else {
+            related.put(courseId, List.of(top));
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            // keep the schedule alive, the next run recomputes everything
+            log.warn("Refreshing the similar courses failed", ex);
+        }
+    }
+
+    /**
+     * A course similar to another one.
+     */
+    @Value
+    public static class RelatedCourse {
+
+        int courseId;
+
+        double score;
+
+        int commonStudents;
+    }
+
+    @FunctionalInterface
+    private interface CourseAction {
+
+        /**
+         * Handles the {@code i}-th course of a {@link #forEachCourse} call.
+         */
+        void apply(CoEnrollmentCounter counter, int i);
+    }
+
+    /**
+     * Splits the courses in halves until {@link #LEAF_SIZE} remain; every leaf gets its own counter.
+     */
+    private static final class CountTask extends RecursiveAction {
+
+        private final transient Enrollments enrollments;
+
+        private final transient CourseAction action;
+
+        private final int from;
+
+        private final int to;
+
+        private CountTask(Enrollments enrollments, CourseAction action, int from, int to) {
+            this.enrollments = enrollments;
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                CoEnrollmentCounter counter = new CoEnrollmentCounter(enrollments);
+                for (int i = from; i < to; i++) {
+                    action.apply(counter, i);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CountTask(enrollments, action, from, middle),
+                        new CountTask(enrollments, action, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Counts the common students of one course with every other course, reusing its scratch arrays.
+     */
+    private static final class CoEnrollmentCounter {
+
+        private final Enrollments enrollments;
+
+        private final int[] counts;
+
+        private final int[] touched;
+
+        private CoEnrollmentCounter(Enrollments enrollments) {
+            this.enrollments = enrollments;
+            this.counts = new int[enrollments.courseCount()];
+            this.touched = new int[enrollments.courseCount()];
+        }
+
+        private CoEnrollments count(int course) {
+            int touchedCount = 0;
+            for (int p = enrollments.courseOffsets[course]; p < enrollments.courseOffsets[course + 1]; p++) {
+                int student = enrollments.courseStudents[p];
+                for (int q = enrollments.studentOffsets[student]; q < enrollments.studentOffsets[student + 1]; q++) {
+                    int other = enrollments.studentCourses[q];
+                    if (other != course && counts[other]++ == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                }
+            }
+            int[] others = Arrays.copyOf(touched, touchedCount);
+            int[] common = new int[touchedCount];
+            for (int i = 0; i < touchedCount; i++) {
+                common[i] = counts[others[i]];
+                counts[others[i]] = 0;
+            }
+            return new CoEnrollments(others, common);
+        }
+    }
+
+    /**
+     * The courses sharing students with one course, as dense indexes, and the number of shared students.
+     */
+    private static final class CoEnrollments {
+
+        private final int[] others;
+
+        private final int[] common;
+
+        private CoEnrollments(int[] others, int[] common) {
+            this.others = others;
+            this.common = common;
+        }
+    }
+
+    /**
+     * Enrollments in compressed sparse row layout. Courses are numbered by ascending id and students by
+     * ascending id across all courses; the students of course {@code c} are
+     * {@code courseStudents[courseOffsets[c]]} up to {@code courseStudents[courseOffsets[c + 1] - 1]}, the
+     * courses of a student likewise.
+     */
+    private static final class Enrollments {
+
+        private final int[] courseIds;
+
+        private final int[] courseOffsets;
+
+        private final int[] courseStudents;
+
+        private final int[] studentOffsets;
+
+        private final int[] studentCourses;
+
+        private Enrollments(Map<Integer, RoaringBitmap> studentsByCourse) {
+            courseIds = studentsByCourse.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            RoaringBitmap[] bitmaps = new RoaringBitmap[courseIds.length];
+            courseOffsets = new int[courseIds.length + 1];
+            long total = 0;
+            for (int c = 0; c < courseIds.length; c++) {
+                bitmaps[c] = studentsByCourse.get(courseIds[c]);
+                total += bitmaps[c].getLongCardinality();
+                if (total > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Too many enrollments to lay out in arrays: " + total);
+                }
+                courseOffsets[c + 1] = (int) total;
+            }
+
+            RoaringBitmap students = FastAggregation.or(bitmaps);
+            // ids from an identity column are dense enough for a lookup table, rank() is the fallback
+            int[] denseIndex = null;
+            if (!students.isEmpty() && Integer.toUnsignedLong(students.last()) < 4L * students.getCardinality() + 1024) {
+                denseIndex = new int[students.last() + 1];
+                int next = 0;
+                for (PeekableIntIterator it = students.getIntIterator(); it.hasNext(); ) {
+                    denseIndex[it.next()] = next++;
+                }
+            }
+            courseStudents = new int[(int) total];
+            studentOffsets = new int[students.getCardinality() + 1];
+            for (int c = 0; c < courseIds.length; c++) {
+                int p = courseOffsets[c];
+                for (PeekableIntIterator it = bitmaps[c].getIntIterator(); it.hasNext(); p++) {
+                    int studentId = it.next();
+                    int student = denseIndex != null ? denseIndex[studentId] : (int) students.rank(studentId) - 1;
+                    courseStudents[p] = student;
+                    studentOffsets[student + 1]++;
+                }
+            }
+            for (int s = 1; s < studentOffsets.length; s++) {
+                studentOffsets[s] += studentOffsets[s - 1];
+            }
+            studentCourses = new int[(int) total];
+            int[] next = Arrays.copyOf(studentOffsets, studentOffsets.length - 1);
+            for (int c = 0; c < courseIds.length; c++) {
+                for (int p = courseOffsets[c]; p < courseOffsets[c + 1]; p++) {
+                    studentCourses[next[courseStudents[p]]++] = c;
+                }
+            }
+        }
+
+        private int courseCount() {
+            return courseIds.length;
+        }
+
+        private int size(int course) {
+            return courseOffsets[course + 1] - courseOffsets[course];
+        }
+
+        /**
+         * @return the dense index of the course, negative if it has no row.
+         */
+        private int indexOf(int courseId) {
+            return Arrays.binarySearch(courseIds, courseId);
+        }
+    }
+}
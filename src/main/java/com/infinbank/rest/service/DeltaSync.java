@@ -0,0 +1,98 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.dto.ChangesDto;
+import com.infinbank.rest.model.ChangeTracked;
+import com.infinbank.rest.model.Tombstone;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Assembles the pages of the delta sync endpoints.
+ *
+ * <p>Inserts and updates of a row take the next value of the database sequence {@code change_seq}, deletes
+ * leave a tombstone with the next value. A sync token is the last sequence value a client has seen. A page
+ * merges the changed rows and the tombstones after the token by sequence value; both are read in that
+ * order, one row more than the page size, from an index on the sequence column.</p>
+ *
+ * <p>A sequence value is taken before the transaction commits, so a change can become visible after a
+ * change with a higher value. The new token therefore stops before the first change younger than the
+ * settle window: younger changes are returned again with the next page, and a change that commits late
+ * within the window still falls after the token.</p>
+ */
+final class DeltaSync {
+
+    static final int MAX_PAGE_SIZE = 10_000;
+
+    private DeltaSync() {
+    }
+
+    /**
+     * @return {@code limit} capped to {@value #MAX_PAGE_SIZE}, at least 1.
+     */
+    static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @return the rows to read from every source: one more than the page size, to tell whether more follow.
+     */
+    static Pageable rowsToRead(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * @param since the token of the request, {@code null} for a full sync.
+     * @return the token as a sequence value.
+     */
+    static long sequenceOf(Long since) {
+        return since == null ? 0 : Math.max(0, since);
+    }
+
+    /**
+     * @param changed rows changed after {@code since}, by ascending sequence value.
+     * @param tombstones tombstones after {@code since}, by ascending sequence value.
+     * @param settledBefore changes recorded at or before this instant are settled.
+     */
+    static <E extends ChangeTracked, D> ChangesDto<D> page(long since, int pageSize, Instant settledBefore,
+                                                           List<E> changed, List<Tombstone> tombstones,
+                                                           Function<E, D> toDto) {
+        List<D> changedDtos = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        long token = since;
+        boolean settled = true;
+        int nextChanged = 0;
+        int nextTombstone = 0;
+        for (int taken = 0; taken < pageSize; taken++) {
+            boolean changedLeft = nextChanged < changed.size();
+            boolean tombstonesLeft = nextTombstone < tombstones.size();
+            if (!changedLeft && !tombstonesLeft) {
+                break;
+            }
+            long seq;
+            Instant at;
+            if (changedLeft && (!tombstonesLeft
+                    || changed.get(nextChanged).getUpdatedSeq() < tombstones.get(nextTombstone).getDeletedSeq())) {
+                E entity = changed.get(nextChanged++);
+                seq = entity.getUpdatedSeq();
+                at = entity.getUpdatedAt();
+                changedDtos.add(toDto.apply(entity));
+            } else {
+                Tombstone tombstone = tombstones.get(nextTombstone++);
+                seq = tombstone.getDeletedSeq();
+                at = tombstone.getDeletedAt();
+                deleted.add(tombstone.getEntityId());
+            }
+            settled = settled && !at.isAfter(settledBefore);
+            if (settled) {
+                token = seq;
+            }
+        }
+        boolean hasMore = settled && (nextChanged < changed.size() || nextTombstone < tombstones.size());
+        return new ChangesDto<>(changedDtos, deleted, String.valueOf(token), hasMore);
+    }
+}
@@ -0,0 +1,130 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a batch of coalesced {@link EnrollmentChange}s in a single transaction.
+ *
+ * <p>Instead of loading every student and rewriting its course bag, the changes are written
+ * to {@code student_course} with two JDBC batches (one for inserts, one for deletes). Existence of
+ * the referenced students and courses is checked with one query per table. Applied changes are passed
+ * on to the {@link EnrollmentIndex} and the {@link ChangeRecorder}.</p>
+ *
+ * @see EnrollmentWriteQueue
+ */
+@Service
+@RequiredArgsConstructor
+public class EnrollmentBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO student_course (student_id, course_id) "
+            + "SELECT ?, ? WHERE NOT EXISTS "
+            + "(SELECT 1 FROM student_course WHERE student_id = ? AND course_id = ?)";
+
+    private static final String DELETE_SQL = "DELETE FROM student_course WHERE student_id = ? AND course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final EnrollmentIndex enrollmentIndex;
+
+    private final ChangeRecorder changeRecorder;
+
+    /**
+     * Writes the given changes.
+     *
+     * @param changes changes to apply, at most one per (student, course) pair.
+     * @return the outcome of every change, in the order of {@code changes}.
+     */
+    @Transactional
+    public List<EnrollmentChange.Outcome> write(List<EnrollmentChange> changes) {
+        Set<Integer> existingCourses = courseRepository.findExistingIds(changes.stream()
+                .map(EnrollmentChange::getCourseId)
+                .collect(Collectors.toSet()));
+        Set<Integer> existingStudents = studentRepository.findExistingIds(changes.stream()
+                .map(EnrollmentChange::getStudentId)
+                .collect(Collectors.toSet()));
+
+        List<EnrollmentChange.Outcome> outcomes = new ArrayList<>(changes.size());
+        List<Integer> assignIndexes = new ArrayList<>();
+        List<Integer> removeIndexes = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            EnrollmentChange change = changes.get(i);
+            if (!existingCourses.contains(change.getCourseId())) {
+                outcomes.add(EnrollmentChange.Outcome.COURSE_NOT_FOUND);
+            } else if (!existingStudents.contains(change.getStudentId())) {
+                outcomes.add(EnrollmentChange.Outcome.STUDENT_NOT_FOUND);
+            } else {
+                outcomes.add(null);
+                if (change.getOperation() == EnrollmentChange.Operation.ASSIGN) {
+                    assignIndexes.add(i);
+                } else {
+                    removeIndexes.add(i);
+                }
+            }
+        }
+
+        applyBatch(INSERT_SQL, changes, assignIndexes, outcomes, true);
+        applyBatch(DELETE_SQL, changes, removeIndexes, outcomes, false);
+        return outcomes;
+    }
+
+    private void applyBatch(String sql, List<EnrollmentChange> changes, List<Integer> indexes,
+                            List<EnrollmentChange.Outcome> outcomes, boolean repeatParameters) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                EnrollmentChange change = changes.get(indexes.get(i));
+                ps.setInt(1, change.getStudentId());
+                ps.setInt(2, change.getCourseId());
+                if (repeatParameters) {
+                    ps.setInt(3, change.getStudentId());
+                    ps.setInt(4, change.getCourseId());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return indexes.size();
+            }
+        });
+        for (int i = 0; i < counts.length; i++) {
+            boolean applied = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            outcomes.set(indexes.get(i), applied
+                    ? EnrollmentChange.Outcome.APPLIED
+                    : EnrollmentChange.Outcome.UNCHANGED);
+            if (applied) {
+                EnrollmentChange change = changes.get(indexes.get(i));
+                if (change.getOperation() == EnrollmentChange.Operation.ASSIGN) {
+                    enrollmentIndex.enrolled(change.getStudentId(), change.getCourseId());
+                    changeRecorder.assigned(ChangeEventDto.Entity.STUDENT, change.getStudentId(),
+                            ChangeEventDto.Entity.COURSE, change.getCourseId());
+                } else {
+                    enrollmentIndex.unenrolled(change.getStudentId(), change.getCourseId());
+                    changeRecorder.unassigned(ChangeEventDto.Entity.STUDENT, change.getStudentId(),
+                            ChangeEventDto.Entity.COURSE, change.getCourseId());
+                }
+            }
+        }
+    }
+}
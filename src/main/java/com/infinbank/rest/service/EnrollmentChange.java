@@ -0,0 +1,28 @@
+package com.infinbank.rest.service;
+
+import lombok.Value;
+
+/**
+ * A single pending change of the {@code student_course} association.
+ */
+@Value
+public class EnrollmentChange {
+
+    Integer studentId;
+
+    Integer courseId;
+
+    Operation operation;
+
+    public enum Operation {
+        ASSIGN,
+        REMOVE
+    }
+
+    public enum Outcome {
+        APPLIED,
+        UNCHANGED,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND
+    }
+}
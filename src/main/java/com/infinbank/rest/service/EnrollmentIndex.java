@@ -0,0 +1,305 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.EnrollmentIndexProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of the {@code student_course} table: one compressed bitmap of student ids per course.
+ *
+ * <p>Set questions across courses ("enrolled in A and B but not C") are answered with bitmap
+ * intersections and differences, without a query. The index is loaded with one scan of
+ * {@code student_course} at startup and kept current by the services that change enrollments. A change
+ * made inside a transaction is applied once the transaction commits, so a rollback leaves the index
+ * untouched.</p>
+ *
+ * <p>The services only keep the index of their own replica current. Enrollments written by other replicas,
+ * or behind the services' back, e.g. by the bulk import or the data set generator, are seen after the next
+ * {@link #rebuild()}, which reloads the table every {@code enrollment-index.rebuild-interval}. Across
+ * replicas the index is therefore only eventually consistent: the queries and the similar courses may miss
+ * such changes for up to one interval. Changes committed while a rebuild scans the table are replayed on top
+ * of the new bitmaps.</p>
+ *
+ * @see EnrollmentIndexProperties
+ * @see StudentService#assignCourseToStudent(Integer, Integer)
+ * @see EnrollmentBatchWriter
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentIndex {
+
+    private static final String LOAD_SQL = "SELECT course_id, student_id FROM student_course"
+            + " WHERE course_id IS NOT NULL AND student_id IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EnrollmentIndexProperties properties;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "enrollment-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Integer, RoaringBitmap> studentsByCourse = new HashMap<>();
+
+    /**
+     * Changes applied while a rebuild is running, {@code null} otherwise.
+     */
+    private List<Consumer<Map<Integer, RoaringBitmap>>> replay;
+
+    /**
+     * Courses whose students changed since the last {@link #snapshot()}, {@code null} if every course has to
+     * be considered changed (before the first snapshot).
+     */
+    private RoaringBitmap changedCourses;
+
+    @PostConstruct
+    void start() {
+        rebuild();
+        long intervalMillis = properties.getRebuildInterval().toMillis();
+        if (intervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::rebuildSafely, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Reloads the whole index from {@code student_course}. The courses whose students differ from the
+     * previous index are reported changed by the next {@link #snapshot()}.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Integer, RoaringBitmap> loaded = null;
+        long[] rows = new long[1];
+        try {
+            Map<Integer, RoaringBitmap> scanned = new HashMap<>();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                scanned.computeIfAbsent(rs.getInt(1), courseId -> new RoaringBitmap()).add(rs.getInt(2));
+                rows[0]++;
+            });
+            scanned.values().forEach(RoaringBitmap::runOptimize);
+            loaded = scanned;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    // every change sets the state of its pairs, replaying one the scan already saw is harmless
+                    for (Consumer<Map<Integer, RoaringBitmap>> change : replay) {
+                        change.accept(loaded);
+                    }
+                    markDifferences(studentsByCourse, loaded);
+                    studentsByCourse = loaded;
+                }
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Indexed {} enrollments of {} courses in {} ms", rows[0], loaded.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void enrolled(int studentId, int courseId) {
+        apply(index -> {
+            if (index.computeIfAbsent(courseId, id -> new RoaringBitmap()).checkedAdd(studentId)) {
+                markChanged(courseId);
+            }
+        });
+    }
+
+    public void unenrolled(int studentId, int courseId) {
+        apply(index -> {
+            RoaringBitmap students = index.get(courseId);
+            if (students != null && students.checkedRemove(studentId)) {
+                markChanged(courseId);
+            }
+        });
+    }
+
+    public void studentsDeleted(Collection<Integer> studentIds) {
+        RoaringBitmap deleted = RoaringBitmap.bitmapOf(studentIds.stream().mapToInt(Integer::intValue).toArray());
+        apply(index -> index.forEach((courseId, students) -> {
+            if (RoaringBitmap.intersects(students, deleted)) {
+                students.andNot(deleted);
+                markChanged(courseId);
+            }
+        }));
+    }
+
+    public void coursesDeleted(Collection<Integer> courseIds) {
+        List<Integer> deleted = List.copyOf(courseIds);
+        apply(index -> deleted.forEach(courseId -> {
+            if (index.remove(courseId) != null) {
+                markChanged(courseId);
+            }
+        }));
+    }
+
+    /**
+     * Copies the index and starts collecting changed courses anew. Meant for a single consumer that keeps
+     * derived data current: the courses reported changed are the ones changed since its previous call.
+     */
+    public Snapshot snapshot() {
+        lock.writeLock().lock();
+        try {
+            Map<Integer, RoaringBitmap> copy = new HashMap<>(studentsByCourse.size() * 2);
+            studentsByCourse.forEach((courseId, students) -> copy.put(courseId, students.clone()));
+            Snapshot snapshot = new Snapshot(copy, changedCourses);
+            changedCourses = new RoaringBitmap();
+            return snapshot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Students enrolled in every course of {@code allOf} and in none of {@code noneOf}.
+     *
+     * @param allOf at least one course id, {@code null} elements are ignored; an unknown course has no students.
+     * @param noneOf course ids to exclude, may be empty.
+     * @return a new bitmap owned by the caller.
+     */
+    public RoaringBitmap query(Collection<Integer> allOf, Collection<Integer> noneOf) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> required = new ArrayList<>(allOf.size());
+            for (Integer courseId : allOf) {
+                if (courseId == null) {
+                    continue;
+                }
+                RoaringBitmap students = studentsByCourse.get(courseId);
+                if (students == null || students.isEmpty()) {
+                    return new RoaringBitmap();
+                }
+                required.add(students);
+            }
+            if (required.isEmpty()) {
+                throw new IllegalArgumentException("At least one course to intersect is required");
+            }
+            // start from the smallest course, every further intersection can only shrink the result
+            required.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            RoaringBitmap result = required.size() == 1
+                    ? required.get(0).clone()
+                    : RoaringBitmap.and(required.get(0), required.get(1));
+            for (int i = 2; i < required.size() && !result.isEmpty(); i++) {
+                result.and(required.get(i));
+            }
+            for (Integer courseId : noneOf) {
+                RoaringBitmap excluded = studentsByCourse.get(courseId);
+                if (excluded != null && !result.isEmpty()) {
+                    result.andNot(excluded);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the change after the current transaction commits, or right away outside of a transaction.
+     */
+    private void apply(Consumer<Map<Integer, RoaringBitmap>> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(change);
+                }
+            });
+        } else {
+            applyNow(change);
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            // keep the schedule alive, the index stays as it was until the next run
+            log.warn("Rebuilding the enrollment index failed", ex);
+        }
+    }
+
+    private void markDifferences(Map<Integer, RoaringBitmap> previous, Map<Integer, RoaringBitmap> current) {
+        if (changedCourses == null) {
+            return;
+        }
+        previous.forEach((courseId, students) -> {
+            if (!students.equals(current.get(courseId))) {
+                markChanged(courseId);
+            }
+        });
+        current.keySet().forEach(courseId -> {
+            if (!previous.containsKey(courseId)) {
+                markChanged(courseId);
+            }
+        });
+    }
+
+    private void markChanged(int courseId) {
+        if (changedCourses != null) {
+            changedCourses.add(courseId);
+        }
+    }
+
+    private void applyNow(Consumer<Map<Integer, RoaringBitmap>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(studentsByCourse);
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Value
+    public static class Snapshot {
+
+        Map<Integer, RoaringBitmap> studentsByCourse;
+
+        /**
+         * Courses changed since the previous snapshot, {@code null} if all of them have to be considered changed.
+         */
+        RoaringBitmap changedCourses;
+    }
+}
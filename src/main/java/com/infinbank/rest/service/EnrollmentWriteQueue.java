@@ -0,0 +1,273 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.EnrollmentWriteQueueProperties;
+import com.infinbank.rest.exception.CourseEntityNotFoundException;
+import com.infinbank.rest.exception.EnrollmentQueueFullException;
+import com.infinbank.rest.exception.StudentEntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory queue that coalesces student/course association changes and flushes them in batches.
+ *
+ * <p>Changes are keyed by the (student, course) pair; a later change to the same pair replaces the
+ * earlier one, so an assign followed by a remove results in a single remove. Every caller receives a
+ * future that completes with the outcome of its own change, as if the changes of the pair had been applied
+ * one after the other: {@code true} when it altered the association, {@code false} when the association
+ * was already in the requested state. The state the pair started in follows from the outcome of the written
+ * change, {@code APPLIED} meaning it was the opposite of the final change and {@code UNCHANGED} that it was
+ * the same, and the changes are replayed from there. A missing student or course completes the future
+ * exceptionally with the corresponding {@link com.infinbank.rest.exception.EntityNotFoundException}, and
+ * so does a change enqueued after the queue was stopped, with an {@link IllegalStateException}.</p>
+ *
+ * <p>The queue is flushed every {@code enrollment.write-queue.flush-interval}, or earlier once
+ * {@code enrollment.write-queue.max-batch-size} distinct pairs are pending.</p>
+ *
+ * @see EnrollmentWriteQueueProperties
+ * @see EnrollmentBatchWriter
+ */
+@Slf4j
+@Component
+public class EnrollmentWriteQueue {
+
+    private final EnrollmentWriteQueueProperties properties;
+
+    private final EnrollmentBatchWriter batchWriter;
+
+    private final Timer latencyTimer;
+
+    private final DistributionSummary batchSizeSummary;
+
+    private final Counter coalescedCounter;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "enrollment-write-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+
+    private Map<PairKey, PendingChange> pending = new LinkedHashMap<>();
+
+    private boolean stopped;
+
+    public EnrollmentWriteQueue(EnrollmentWriteQueueProperties properties,
+                                EnrollmentBatchWriter batchWriter,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.latencyTimer = Timer.builder("enrollment.write.queue.latency")
+                .description("Time from enqueueing an enrollment change until its future completes")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("enrollment.write.queue.batch.size")
+                .description("Number of coalesced changes written per flush")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("enrollment.write.queue.coalesced")
+                .description("Changes merged into an already pending change of the same pair")
+                .register(meterRegistry);
+        Gauge.builder("enrollment.write.queue.depth", this, EnrollmentWriteQueue::depth)
+                .description("Distinct (student, course) pairs waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled()) {
+            long intervalMillis = properties.getFlushInterval().toMillis();
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getFlushInterval().toMillis() * 10, TimeUnit.MILLISECONDS);
+        synchronized (lock) {
+            stopped = true;
+        }
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public CompletableFuture<Boolean> assignCourseToStudent(Integer courseId, Integer studentId) {
+        return enqueue(studentId, courseId, EnrollmentChange.Operation.ASSIGN);
+    }
+
+    public CompletableFuture<Boolean> removeCourseFromStudent(Integer courseId, Integer studentId) {
+        return enqueue(studentId, courseId, EnrollmentChange.Operation.REMOVE);
+    }
+
+    public int depth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private CompletableFuture<Boolean> enqueue(Integer studentId, Integer courseId,
+                                               EnrollmentChange.Operation operation) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Enrollment write queue is disabled");
+        }
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        boolean flushNow;
+        synchronized (lock) {
+            if (stopped) {
+                future.completeExceptionally(new IllegalStateException("Enrollment write queue is stopped"));
+                return future;
+            }
+            PairKey key = new PairKey(studentId, courseId);
+            PendingChange change = pending.get(key);
+            if (change == null) {
+                if (pending.size() >= properties.getCapacity()) {
+                    future.completeExceptionally(new EnrollmentQueueFullException(properties.getCapacity()));
+                    return future;
+                }
+                change = new PendingChange();
+                pending.put(key, change);
+            } else {
+                coalescedCounter.increment();
+            }
+            change.operation = operation;
+            change.waiters.add(new Waiter(operation, future, System.nanoTime()));
+            flushNow = pending.size() >= properties.getMaxBatchSize();
+        }
+        if (flushNow) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                // stop() is waiting for the flusher and writes the pending changes once it has finished
+                log.debug("Enrollment write queue is stopping, the final flush writes the batch");
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Writes everything that is currently pending. Runs on the flusher thread, and once more on shutdown.
+     */
+    void flush() {
+        Map<PairKey, PendingChange> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        List<EnrollmentChange> changes = new ArrayList<>(batch.size());
+        List<PendingChange> pendingChanges = new ArrayList<>(batch.size());
+        batch.forEach((key, change) -> {
+            changes.add(new EnrollmentChange(key.getStudentId(), key.getCourseId(), change.operation));
+            pendingChanges.add(change);
+        });
+        batchSizeSummary.record(changes.size());
+
+        List<EnrollmentChange.Outcome> outcomes;
+        try {
+            outcomes = batchWriter.write(changes);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} enrollment changes", changes.size(), ex);
+            pendingChanges.forEach(change -> change.waiters.forEach(waiter -> complete(waiter, null, ex)));
+            return;
+        }
+
+        for (int i = 0; i < changes.size(); i++) {
+            EnrollmentChange change = changes.get(i);
+            EnrollmentChange.Outcome outcome = outcomes.get(i);
+            boolean applied = false;
+            RuntimeException error = null;
+            switch (outcome) {
+                case APPLIED:
+                    applied = true;
+                    break;
+                case UNCHANGED:
+                    break;
+                case STUDENT_NOT_FOUND:
+                    error = new StudentEntityNotFoundException(change.getStudentId());
+                    break;
+                case COURSE_NOT_FOUND:
+                    error = new CourseEntityNotFoundException(change.getCourseId());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected outcome " + outcome);
+            }
+            List<Waiter> waiters = pendingChanges.get(i).waiters;
+            if (error != null) {
+                for (Waiter waiter : waiters) {
+                    complete(waiter, null, error);
+                }
+            } else {
+                replay(waiters, (change.getOperation() == EnrollmentChange.Operation.ASSIGN) != applied);
+            }
+        }
+    }
+
+    /**
+     * Completes the waiters of a pair in the order they were enqueued, each with the result its own change
+     * would have had on the association left by the ones before it.
+     *
+     * @param assigned whether the student was enrolled in the course before the batch was written.
+     */
+    private void replay(List<Waiter> waiters, boolean assigned) {
+        for (Waiter waiter : waiters) {
+            if (waiter.getOperation() == EnrollmentChange.Operation.ASSIGN) {
+                complete(waiter, !assigned, null);
+                assigned = true;
+            } else {
+                complete(waiter, assigned, null);
+                assigned = false;
+            }
+        }
+    }
+
+    private void complete(Waiter waiter, Boolean result, RuntimeException error) {
+        if (error != null) {
+            waiter.future.completeExceptionally(error);
+        } else {
+            waiter.future.complete(result);
+        }
+        latencyTimer.record(System.nanoTime() - waiter.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Value
+    private static class PairKey {
+        Integer studentId;
+        Integer courseId;
+    }
+
+    private static class PendingChange {
+        private EnrollmentChange.Operation operation;
+        private final List<Waiter> waiters = new ArrayList<>(1);
+    }
+
+    @Value
+    private static class Waiter {
+        EnrollmentChange.Operation operation;
+        CompletableFuture<Boolean> future;
+        long enqueuedAtNanos;
+    }
+}
@@ -0,0 +1,45 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.exception.InvalidIncludeException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses the {@code include} request parameter into the constants of an {@code Include} enum; the values
+ * are the lower case constant names, e.g. {@code include=courses,teachers}.
+ */
+final class Includes {
+
+    private Includes() {
+    }
+
+    static <E extends Enum<E>> Set<E> parse(Class<E> type, Collection<String> include) {
+        Set<E> includes = EnumSet.noneOf(type);
+        if (include == null) {
+            return includes;
+        }
+        for (String value : include) {
+            if (value.isBlank()) {
+                continue;
+            }
+            try {
+                includes.add(Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidIncludeException(value, supported(type));
+            }
+        }
+        return includes;
+    }
+
+    private static List<String> supported(Class<? extends Enum<?>> type) {
+        return Arrays.stream(type.getEnumConstants())
+                .map(constant -> constant.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+}
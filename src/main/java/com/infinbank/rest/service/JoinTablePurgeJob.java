@@ -0,0 +1,151 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.JoinTablePurgeProperties;
+import com.infinbank.rest.dataset.DatabaseProduct;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that deletes the {@code student_course} and {@code teacher_student} rows with a
+ * {@code NULL} key.
+ *
+ * <p>Until the foreign keys were changed to {@code ON DELETE CASCADE}, deleting a student, course or
+ * teacher set its side of every link to {@code NULL} and the row stayed in the join table. New orphans
+ * can no longer appear; the job drains the existing ones. Rows are deleted in batches of
+ * {@code batch-size}, each batch in its own transaction, with a pause after every full batch, so locks
+ * are held only briefly. On PostgreSQL a partial index holds exactly the orphaned rows, so a run that
+ * finds nothing is cheap. The batches are written for PostgreSQL and H2; on any other database the job
+ * fails the start-up instead of every run.</p>
+ *
+ * <p>Reclaimed rows are logged and counted in {@code join.table.purged.rows}, tagged by table.</p>
+ *
+ * @see JoinTablePurgeProperties
+ */
+@Slf4j
+@Component
+public class JoinTablePurgeJob {
+
+    private static final List<JoinTable> TABLES = List.of(
+            new JoinTable("student_course", "student_id", "course_id"),
+            new JoinTable("teacher_student", "student_id", "teacher_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JoinTablePurgeProperties properties;
+
+    private final Map<String, Counter> purgedCounters = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "join-table-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JoinTablePurgeJob(JdbcTemplate jdbcTemplate, JoinTablePurgeProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        for (JoinTable table : TABLES) {
+            purgedCounters.put(table.name, Counter.builder("join.table.purged.rows")
+                    .description("Orphaned join table rows deleted by the purge job")
+                    .tag("table", table.name)
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled()) {
+            deleteBatchSql(DatabaseProduct.of(jdbcTemplate), TABLES.get(0));
+            scheduler.scheduleWithFixedDelay(this::runSafely, properties.getInitialDelay().toMillis(),
+                    properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Deletes all orphaned rows, batch by batch.
+     *
+     * @return the number of reclaimed rows per table.
+     */
+    public Map<String, Long> purge() {
+        String product = DatabaseProduct.of(jdbcTemplate);
+        Map<String, Long> reclaimed = new LinkedHashMap<>();
+        for (JoinTable table : TABLES) {
+            String sql = deleteBatchSql(product, table);
+            long total = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(sql, properties.getBatchSize());
+                total += deleted;
+                purgedCounters.get(table.name).increment(deleted);
+            } while (deleted == properties.getBatchSize() && pause());
+            if (total > 0) {
+                log.info("Purged {} orphaned rows from {}", total, table.name);
+            }
+            reclaimed.put(table.name, total);
+        }
+        return reclaimed;
+    }
+
+    private void runSafely() {
+        try {
+            purge();
+        } catch (RuntimeException ex) {
+            // keep the schedule alive, the next run starts over
+            log.warn("Purging orphaned join table rows failed", ex);
+        }
+    }
+
+    /**
+     * @return {@code false} if the thread was interrupted, which ends the run.
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String deleteBatchSql(String product, JoinTable table) {
+        String orphaned = table.firstKey + " IS NULL OR " + table.secondKey + " IS NULL";
+        switch (product) {
+            case DatabaseProduct.POSTGRESQL:
+                // PostgreSQL has no DELETE ... LIMIT; the physical row ids of one batch are selected first
+                return "DELETE FROM " + table.name + " WHERE ctid = ANY (ARRAY(SELECT ctid FROM " + table.name
+                        + " WHERE " + orphaned + " LIMIT ?))";
+            case DatabaseProduct.H2:
+                return "DELETE FROM " + table.name + " WHERE " + orphaned + " LIMIT ?";
+            default:
+                throw new IllegalStateException("Cannot purge orphaned join table rows on " + product
+                        + ", only PostgreSQL and H2 are supported");
+        }
+    }
+
+    @Value
+    private static class JoinTable {
+        String name;
+        String firstKey;
+        String secondKey;
+    }
+}
@@ -0,0 +1,60 @@
+package com.infinbank.rest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infinbank.rest.config.OutboxProperties;
+import com.infinbank.rest.dto.ChangeEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Default {@link OutboxSink}: appends every event as one JSON line to {@code outbox.sink-file}, or logs it
+ * when no file is configured. Meant for development and tests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JsonLinesOutboxSink implements OutboxSink {
+
+    private final OutboxProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public synchronized void publish(List<ChangeEventDto> events) {
+        if (!StringUtils.hasText(properties.getSinkFile())) {
+            for (ChangeEventDto event : events) {
+                log.info("Outbox event {}", toJson(event));
+            }
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(properties.getSinkFile()), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChangeEventDto event : events) {
+                writer.write(toJson(event));
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Writing outbox events to " + properties.getSinkFile() + " failed", ex);
+        }
+    }
+
+    private String toJson(ChangeEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Serializing outbox event " + event.getId() + " failed", ex);
+        }
+    }
+}
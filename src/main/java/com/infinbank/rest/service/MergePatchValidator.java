@@ -0,0 +1,68 @@
+package com.infinbank.rest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infinbank.rest.exception.InvalidPatchException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.beans.PropertyDescriptor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Turns a JSON merge patch (RFC 7396) into the attribute values of an entity update.
+ *
+ * <p>Every member of the patch is converted to the type of the DTO property with the same name and
+ * validated against the constraints declared on that property, so a patch is held to the same rules
+ * as a full {@code PUT}. A {@code null} member asks to remove the value; it is rejected by the
+ * {@code @NotNull} constraints like any other invalid value.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class MergePatchValidator {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    /**
+     * @param patchable names of the DTO properties that are also entity attributes and may be patched.
+     * @return converted values by attribute name, in patch order.
+     * @throws InvalidPatchException with one message per offending member.
+     */
+    public Map<String, Object> validate(Class<?> dtoType, Set<String> patchable, Map<String, Object> patch) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        Map<String, String> errors = new TreeMap<>();
+        patch.forEach((name, value) -> {
+            if (!patchable.contains(name)) {
+                errors.put(name, "Field cannot be patched");
+                return;
+            }
+            PropertyDescriptor property = BeanUtils.getPropertyDescriptor(dtoType, name);
+            Object converted;
+            try {
+                converted = objectMapper.convertValue(value, property.getPropertyType());
+            } catch (IllegalArgumentException ex) {
+                errors.put(name, "Should be of type " + property.getPropertyType().getSimpleName());
+                return;
+            }
+            Set<? extends ConstraintViolation<?>> violations = validator.validateValue(dtoType, name, converted);
+            if (violations.isEmpty()) {
+                attributes.put(name, converted);
+            } else {
+                errors.put(name, violations.iterator().next().getMessage());
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(errors);
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,42 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Relays one batch of outbox events in a single transaction: the oldest unclaimed rows are locked with
+ * {@code FOR UPDATE SKIP LOCKED}, published to the {@link OutboxSink} and deleted. Concurrent relays, in
+ * this or another instance, claim disjoint batches.
+ *
+ * @see OutboxRelay
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxBatchRelay {
+
+    private final OutboxRepository outboxRepository;
+
+    private final OutboxSink outboxSink;
+
+    /**
+     * @param batchSize the maximum number of events to relay.
+     * @return the relayed events, empty if no unclaimed events are left.
+     */
+    @Transactional
+    public List<ChangeEventDto> relay(int batchSize) {
+        List<ChangeEventDto> events = outboxRepository.claim(batchSize);
+        if (!events.isEmpty()) {
+            outboxSink.publish(events);
+            outboxRepository.deleteByIds(events.stream()
+                    .map(ChangeEventDto::getId)
+                    .collect(Collectors.toList()));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,150 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.OutboxProperties;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that hands the events of the transactional outbox to the {@link OutboxSink}.
+ *
+ * <p>The services record every change in {@code outbox_event} in the transaction that makes it, so an
+ * event exists exactly when its change was committed. Every {@code outbox.poll-interval} the relay drains
+ * the table batch by batch through {@link OutboxBatchRelay}; a full batch is followed by the next one right
+ * away. A failed batch stays in the outbox and is retried at the next poll.</p>
+ *
+ * <p>Relayed events are counted in {@code outbox.events.published}, the time from recording to relaying
+ * is recorded in {@code outbox.delivery.lag} and the age of the oldest event left behind by the last poll
+ * is exposed as {@code outbox.lag}, which keeps growing while the sink is failing.</p>
+ *
+ * @see OutboxProperties
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxProperties properties;
+
+    private final OutboxBatchRelay batchRelay;
+
+    private final OutboxRepository outboxRepository;
+
+    private final Counter publishedCounter;
+
+    private final Counter failureCounter;
+
+    private final Timer batchTimer;
+
+    private final Timer deliveryLagTimer;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Instant oldestPending;
+
+    public OutboxRelay(OutboxProperties properties, OutboxBatchRelay batchRelay, OutboxRepository outboxRepository,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchRelay = batchRelay;
+        this.outboxRepository = outboxRepository;
+        this.publishedCounter = Counter.builder("outbox.events.published")
+                .description("Outbox events handed to the sink")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("outbox.relay.failures")
+                .description("Polls that stopped on a failed batch")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, publish and delete one batch of outbox events")
+                .register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("outbox.delivery.lag")
+                .description("Time from recording an outbox event until it was handed to the sink")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", this, OutboxRelay::lagSeconds)
+                .description("Age of the oldest outbox event left after the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled() && properties.isRelayEnabled()) {
+            long intervalMillis = properties.getPollInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::runSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // lets a running batch commit instead of publishing it twice
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Relays batches until a batch is not full.
+     *
+     * @return the number of relayed events.
+     */
+    public long drain() {
+        long relayed = 0;
+        List<ChangeEventDto> batch;
+        do {
+            Timer.Sample sample = Timer.start();
+            batch = batchRelay.relay(properties.getBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+            sample.stop(batchTimer);
+            Instant relayedAt = Instant.now();
+            for (ChangeEventDto event : batch) {
+                deliveryLagTimer.record(Duration.between(event.getCommittedAt(), relayedAt));
+            }
+            publishedCounter.increment(batch.size());
+            relayed += batch.size();
+            // the rows left are younger than the last relayed one
+            oldestPending = batch.get(batch.size() - 1).getCommittedAt();
+        } while (batch.size() == properties.getBatchSize() && !Thread.currentThread().isInterrupted());
+        if (batch.size() < properties.getBatchSize()) {
+            oldestPending = null;
+        }
+        return relayed;
+    }
+
+    private void runSafely() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            failureCounter.increment();
+            log.warn("Relaying outbox events failed, retrying in {}", properties.getPollInterval(), ex);
+            try {
+                oldestPending = outboxRepository.findOldestCreatedAt().orElse(null);
+            } catch (RuntimeException lookupFailure) {
+                // keep the previous value, the next poll tries again
+                log.debug("Reading the oldest outbox event failed", lookupFailure);
+            }
+        }
+    }
+
+    private double lagSeconds() {
+        Instant oldest = oldestPending;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,23 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.dto.ChangeEventDto;
+
+import java.util.List;
+
+/**
+ * Destination of the events relayed from the outbox, such as a message broker.
+ *
+ * <p>Delivery is at least once: a batch is deleted from the outbox only after {@link #publish} returned,
+ * and published again if the deletion does not commit. Receivers deduplicate by event id. Ids increase
+ * in the order changes were recorded, which can differ slightly from the order they were committed.</p>
+ *
+ * <p>{@link JsonLinesOutboxSink} is used unless another implementation is declared as {@code @Primary}
+ * bean.</p>
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events, ordered by id. Throwing leaves the whole batch in the outbox.
+     */
+    void publish(List<ChangeEventDto> events);
+}
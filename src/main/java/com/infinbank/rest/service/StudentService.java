@@ -1,6 +1,12 @@
 package com.infinbank.rest.service;
 
+import com.infinbank.rest.config.BulkDeleteProperties;
+import com.infinbank.rest.config.DeltaSyncProperties;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.dto.ChangesDto;
 import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.StudentDetailsDto;
 import com.infinbank.rest.dto.StudentDto;
 import com.infinbank.rest.dto.TeacherDto;
 import com.infinbank.rest.exception.CourseEntityNotFoundException;
@@ -12,20 +18,31 @@ import com.infinbank.rest.mapper.TeacherMapper;
 import com.infinbank.rest.model.Course;
 import com.infinbank.rest.model.Student;
 import com.infinbank.rest.model.Teacher;
+import com.infinbank.rest.model.Tombstone;
 import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.EntityPatchRepository;
 import com.infinbank.rest.repository.StudentRepository;
 import com.infinbank.rest.repository.TeacherRepository;
+import com.infinbank.rest.repository.TombstoneRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StudentService implements CrudService<StudentDto, Integer> {
 
+    private static final Set<String> PATCHABLE = Set.of("firstName", "lastName", "middleName", "age");
+
     private final CourseMapper courseMapper;
 
     private final StudentMapper studentMapper;
@@ -36,8 +53,22 @@ public class StudentService implements CrudService<StudentDto, Integer> {
 
     private final StudentRepository studentRepository;
 
+    private final EntityPatchRepository entityPatchRepository;
+
+    private final MergePatchValidator mergePatchValidator;
+
+    private final BulkDeleteProperties bulkDeleteProperties;
+
     private final TeacherRepository teacherRepository;
 
+    private final EnrollmentIndex enrollmentIndex;
+
+    private final ChangeRecorder changeRecorder;
+
+    private final TombstoneRepository tombstoneRepository;
+
+    private final DeltaSyncProperties deltaSyncProperties;
+
     @Transactional(readOnly = true)
     public StudentDto findById(Integer studentId) {
         Student student = studentRepository.findById(studentId)
@@ -45,6 +76,43 @@ public class StudentService implements CrudService<StudentDto, Integer> {
         return studentMapper.toDto(student);
     }
 
+    /**
+     * Loads the student with the teachers, and their courses, fetched by one query and the courses fetched by
+     * another, so the statement count does not grow with the number of related rows.
+     */
+    @Transactional(readOnly = true)
+    public StudentDetailsDto findDetailsById(Integer studentId, Collection<String> include) {
+        Set<StudentDetailsDto.Include> includes = Includes.parse(StudentDetailsDto.Include.class, include);
+        boolean withCourses = includes.contains(StudentDetailsDto.Include.COURSES);
+        boolean withTeachers = includes.contains(StudentDetailsDto.Include.TEACHERS);
+
+        Optional<Student> found;
+        if (withTeachers) {
+            found = studentRepository.findWithTeachersById(studentId);
+        } else if (withCourses) {
+            found = studentRepository.findWithCoursesById(studentId);
+        } else {
+            found = studentRepository.findById(studentId);
+        }
+        Student student = found.orElseThrow(() -> new StudentEntityNotFoundException(studentId));
+        if (withTeachers && withCourses) {
+            studentRepository.findWithCoursesById(studentId);
+        }
+
+        StudentDetailsDto details = studentMapper.toDetailsDto(student);
+        if (withCourses) {
+            details.setCourses(student.getCourses().stream()
+                    .map(courseMapper::toDto)
+                    .collect(Collectors.toList()));
+        }
+        if (withTeachers) {
+            details.setTeachers(student.getTeachers().stream()
+                    .map(teacherMapper::toDto)
+                    .collect(Collectors.toList()));
+        }
+        return details;
+    }
+
     @Transactional(readOnly = true)
     public List<StudentDto> findAll() {
         List<Student> all = studentRepository.findAll();
@@ -53,10 +121,26 @@ public class StudentService implements CrudService<StudentDto, Integer> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns a page of the students changed or deleted after the sync token {@code since}, see {@link DeltaSync}.
+     */
+    @Transactional(readOnly = true)
+    public ChangesDto<StudentDto> findChangesSince(Long since, int limit) {
+        long sinceSeq = DeltaSync.sequenceOf(since);
+        int pageSize = DeltaSync.pageSize(limit);
+        List<Student> changed = studentRepository.findByUpdatedSeqGreaterThanOrderByUpdatedSeq(sinceSeq,
+                DeltaSync.rowsToRead(pageSize));
+        List<Tombstone> tombstones = tombstoneRepository.findByEntityAndDeletedSeqGreaterThanOrderByDeletedSeq(
+                ChangeEventDto.Entity.STUDENT.name(), sinceSeq, DeltaSync.rowsToRead(pageSize));
+        Instant settledBefore = Instant.now().minus(deltaSyncProperties.getSettleWindow());
+        return DeltaSync.page(sinceSeq, pageSize, settledBefore, changed, tombstones, studentMapper::toDto);
+    }
+
     @Transactional
     public StudentDto save(StudentDto studentDto) {
         Student student = studentMapper.toEntity(studentDto);
         Student savedStudent = studentRepository.save(student);
+        changeRecorder.created(ChangeEventDto.Entity.STUDENT, savedStudent.getId());
         return studentMapper.toDto(savedStudent);
     }
 
@@ -66,14 +150,54 @@ public class StudentService implements CrudService<StudentDto, Integer> {
                 .orElseThrow(() -> new StudentEntityNotFoundException(studentId));
         updateStudent(updatedStudentDto, student);
         Student savedStudent = studentRepository.save(student);
+        changeRecorder.updated(ChangeEventDto.Entity.STUDENT, studentId);
         return studentMapper.toDto(savedStudent);
     }
 
+    /**
+     * Applies a JSON merge patch with a single {@code UPDATE} of the supplied columns, the student is not loaded.
+     */
+    @Transactional
+    public void patch(Integer studentId, Map<String, Object> patch) {
+        Map<String, Object> attributes = mergePatchValidator.validate(StudentDto.class, PATCHABLE, patch);
+        boolean found = attributes.isEmpty()
+                ? studentRepository.existsById(studentId)
+                : entityPatchRepository.updateById(Student.class, studentId, attributes) > 0;
+        if (!found) {
+            throw new StudentEntityNotFoundException(studentId);
+        }
+        if (!attributes.isEmpty()) {
+            changeRecorder.updated(ChangeEventDto.Entity.STUDENT, studentId);
+        }
+    }
+
     @Transactional
     public void deleteById(Integer studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new StudentEntityNotFoundException(studentId));
         studentRepository.delete(student);
+        enrollmentIndex.studentsDeleted(List.of(studentId));
+        changeRecorder.deleted(ChangeEventDto.Entity.STUDENT, List.of(studentId));
+    }
+
+    /**
+     * Deletes the existing students among {@code ids} and their course and teacher links with three
+     * set-based statements. Ids that do not exist are reported as not found.
+     */
+    @Transactional
+    public BulkDeleteResultDto deleteAllById(Collection<Integer> ids) {
+        Set<Integer> requested = BulkDeletes.distinctIds(ids, bulkDeleteProperties.getMaxBatchSize());
+        Set<Integer> existing = requested.isEmpty()
+                ? Collections.emptySet()
+                : studentRepository.findExistingIds(requested);
+        if (!existing.isEmpty()) {
+            studentRepository.deleteCourseLinksByStudentIds(existing);
+            studentRepository.deleteTeacherLinksByStudentIds(existing);
+            studentRepository.deleteRowsByIds(existing);
+            enrollmentIndex.studentsDeleted(existing);
+            changeRecorder.deleted(ChangeEventDto.Entity.STUDENT, existing);
+        }
+        return BulkDeleteResultDto.of(requested, existing);
     }
 
     @Transactional(readOnly = true)
@@ -99,12 +223,14 @@ public class StudentService implements CrudService<StudentDto, Integer> {
         courses.add(course);
         course.getStudents().add(student);
         studentRepository.save(student);
+        enrollmentIndex.enrolled(studentId, courseId);
+        changeRecorder.assigned(ChangeEventDto.Entity.STUDENT, studentId, ChangeEventDto.Entity.COURSE, courseId);
         return true;
     }
 
     @Transactional(readOnly = true)
     public List<TeacherDto> findTeachersByStudentId(Integer studentId) {
-        Student student = studentRepository.findById(studentId)
+        Student student = studentRepository.findWithTeachersById(studentId)
                 .orElseThrow(() -> new StudentEntityNotFoundException(studentId));
         List<Teacher> teachers = student.getTeachers();
 
@@ -127,6 +253,7 @@ public class StudentService implements CrudService<StudentDto, Integer> {
         teachers.add(teacher);
         teacher.getStudents().add(student);
         studentRepository.save(student);
+        changeRecorder.assigned(ChangeEventDto.Entity.STUDENT, studentId, ChangeEventDto.Entity.TEACHER, teacherId);
         return true;
     }
 
@@ -143,6 +270,7 @@ public class StudentService implements CrudService<StudentDto, Integer> {
         }
         teachers.remove(teacher);
         studentRepository.save(student);
+        changeRecorder.unassigned(ChangeEventDto.Entity.STUDENT, studentId, ChangeEventDto.Entity.TEACHER, teacherId);
         return true;
     }
 
@@ -159,6 +287,8 @@ public class StudentService implements CrudService<StudentDto, Integer> {
         }
         courses.remove(course);
         studentRepository.save(student);
+        enrollmentIndex.unenrolled(studentId, courseId);
+        changeRecorder.unassigned(ChangeEventDto.Entity.STUDENT, studentId, ChangeEventDto.Entity.COURSE, courseId);
         return true;
     }
 
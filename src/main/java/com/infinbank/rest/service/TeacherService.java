@@ -1,7 +1,13 @@
 package com.infinbank.rest.service;
 
+import com.infinbank.rest.config.BulkDeleteProperties;
+import com.infinbank.rest.config.DeltaSyncProperties;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.dto.ChangesDto;
 import com.infinbank.rest.dto.CourseDto;
 import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDetailsDto;
 import com.infinbank.rest.dto.TeacherDto;
 import com.infinbank.rest.exception.CourseEntityNotFoundException;
 import com.infinbank.rest.exception.TeacherEntityNotFoundException;
@@ -11,20 +17,30 @@ import com.infinbank.rest.mapper.TeacherMapper;
 import com.infinbank.rest.model.Course;
 import com.infinbank.rest.model.Student;
 import com.infinbank.rest.model.Teacher;
+import com.infinbank.rest.model.Tombstone;
 import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.EntityPatchRepository;
 import com.infinbank.rest.repository.TeacherRepository;
+import com.infinbank.rest.repository.TombstoneRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TeacherService implements CrudService<TeacherDto, Integer> {
 
+    private static final Set<String> PATCHABLE = Set.of("firstName", "lastName", "middleName", "age");
+
     private final CourseMapper courseMapper;
 
     private final StudentMapper studentMapper;
@@ -35,42 +51,130 @@ public class TeacherService implements CrudService<TeacherDto, Integer> {
 
     private final TeacherRepository teacherRepository;
 
+    private final EntityPatchRepository entityPatchRepository;
+
+    private final MergePatchValidator mergePatchValidator;
+
+    private final BulkDeleteProperties bulkDeleteProperties;
+
+    private final ChangeRecorder changeRecorder;
+
+    private final TombstoneRepository tombstoneRepository;
+
+    private final DeltaSyncProperties deltaSyncProperties;
+
     @Transactional(readOnly = true)
     public TeacherDto findById(Integer teacherId) {
-        Teacher teacher = teacherRepository.findById(teacherId)
+        Teacher teacher = teacherRepository.findWithCourseById(teacherId)
                 .orElseThrow(() -> new TeacherEntityNotFoundException(teacherId));
         return teacherMapper.toDto(teacher);
     }
 
+    /**
+     * Loads the teacher with its course, and its students if included, in one statement.
+     */
+    @Transactional(readOnly = true)
+    public TeacherDetailsDto findDetailsById(Integer teacherId, Collection<String> include) {
+        Set<TeacherDetailsDto.Include> includes = Includes.parse(TeacherDetailsDto.Include.class, include);
+        boolean withStudents = includes.contains(TeacherDetailsDto.Include.STUDENTS);
+
+        Optional<Teacher> found = withStudents
+                ? teacherRepository.findWithCourseAndStudentsById(teacherId)
+                : teacherRepository.findWithCourseById(teacherId);
+        Teacher teacher = found.orElseThrow(() -> new TeacherEntityNotFoundException(teacherId));
+
+        TeacherDetailsDto details = teacherMapper.toDetailsDto(teacher);
+        if (withStudents) {
+            details.setStudents(teacher.getStudents().stream()
+                    .map(studentMapper::toDto)
+                    .collect(Collectors.toList()));
+        }
+        return details;
+    }
+
     @Transactional(readOnly = true)
     public List<TeacherDto> findAll() {
-        List<Teacher> all = teacherRepository.findAll();
+        List<Teacher> all = teacherRepository.findAllWithCourseBy();
         return all.stream()
                 .map(teacherMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns a page of the teachers changed or deleted after the sync token {@code since}, see {@link DeltaSync}.
+     * The course of a teacher is loaded with it; renaming a course is a change of the course only.
+     */
+    @Transactional(readOnly = true)
+    public ChangesDto<TeacherDto> findChangesSince(Long since, int limit) {
+        long sinceSeq = DeltaSync.sequenceOf(since);
+        int pageSize = DeltaSync.pageSize(limit);
+        List<Teacher> changed = teacherRepository.findByUpdatedSeqGreaterThanOrderByUpdatedSeq(sinceSeq,
+                DeltaSync.rowsToRead(pageSize));
+        List<Tombstone> tombstones = tombstoneRepository.findByEntityAndDeletedSeqGreaterThanOrderByDeletedSeq(
+                ChangeEventDto.Entity.TEACHER.name(), sinceSeq, DeltaSync.rowsToRead(pageSize));
+        Instant settledBefore = Instant.now().minus(deltaSyncProperties.getSettleWindow());
+        return DeltaSync.page(sinceSeq, pageSize, settledBefore, changed, tombstones, teacherMapper::toDto);
+    }
+
     @Transactional
     public TeacherDto save(TeacherDto teacherDto) {
         Teacher teacher = teacherMapper.toEntity(teacherDto);
         Teacher savedTeacher = teacherRepository.save(teacher);
+        changeRecorder.created(ChangeEventDto.Entity.TEACHER, savedTeacher.getId());
         return teacherMapper.toDto(savedTeacher);
     }
 
     @Transactional
     public TeacherDto update(Integer teacherId, TeacherDto updatedTeacherDto) {
-        Teacher teacher = teacherRepository.findById(teacherId)
+        Teacher teacher = teacherRepository.findWithCourseById(teacherId)
                 .orElseThrow(() -> new TeacherEntityNotFoundException(teacherId));
         updateTeacher(updatedTeacherDto, teacher);
         Teacher savedTeacher = teacherRepository.save(teacher);
+        changeRecorder.updated(ChangeEventDto.Entity.TEACHER, teacherId);
         return teacherMapper.toDto(savedTeacher);
     }
 
+    /**
+     * Applies a JSON merge patch with a single {@code UPDATE} of the supplied columns, the teacher is not loaded.
+     */
+    @Transactional
+    public void patch(Integer teacherId, Map<String, Object> patch) {
+        Map<String, Object> attributes = mergePatchValidator.validate(TeacherDto.class, PATCHABLE, patch);
+        boolean found = attributes.isEmpty()
+                ? teacherRepository.existsById(teacherId)
+                : entityPatchRepository.updateById(Teacher.class, teacherId, attributes) > 0;
+        if (!found) {
+            throw new TeacherEntityNotFoundException(teacherId);
+        }
+        if (!attributes.isEmpty()) {
+            changeRecorder.updated(ChangeEventDto.Entity.TEACHER, teacherId);
+        }
+    }
+
     @Transactional
     public void deleteById(Integer teacherId) {
         Teacher teacher = teacherRepository.findById(teacherId)
                 .orElseThrow(() -> new TeacherEntityNotFoundException(teacherId));
         teacherRepository.delete(teacher);
+        changeRecorder.deleted(ChangeEventDto.Entity.TEACHER, List.of(teacherId));
+    }
+
+    /**
+     * Deletes the existing teachers among {@code ids} and their student links with two set-based
+     * statements. Ids that do not exist are reported as not found.
+     */
+    @Transactional
+    public BulkDeleteResultDto deleteAllById(Collection<Integer> ids) {
+        Set<Integer> requested = BulkDeletes.distinctIds(ids, bulkDeleteProperties.getMaxBatchSize());
+        Set<Integer> existing = requested.isEmpty()
+                ? Collections.emptySet()
+                : teacherRepository.findExistingIds(requested);
+        if (!existing.isEmpty()) {
+            teacherRepository.deleteStudentLinksByTeacherIds(existing);
+            teacherRepository.deleteRowsByIds(existing);
+            changeRecorder.deleted(ChangeEventDto.Entity.TEACHER, existing);
+        }
+        return BulkDeleteResultDto.of(requested, existing);
     }
 
     @Transactional
@@ -86,6 +190,7 @@ public class TeacherService implements CrudService<TeacherDto, Integer> {
         teacher.setCourse(course);
         course.getTeachers().add(teacher);
         teacherRepository.save(teacher);
+        changeRecorder.assigned(ChangeEventDto.Entity.TEACHER, teacherId, ChangeEventDto.Entity.COURSE, courseId);
         return true;
     }
 
@@ -120,6 +225,7 @@ public class TeacherService implements CrudService<TeacherDto, Integer> {
         course.getTeachers().remove(teacher);
         teacher.setCourse(null);
         teacherRepository.save(teacher);
+        changeRecorder.unassigned(ChangeEventDto.Entity.TEACHER, teacherId, ChangeEventDto.Entity.COURSE, courseId);
         return true;
     }
 
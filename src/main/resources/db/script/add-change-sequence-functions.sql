@@ -0,0 +1,21 @@
+-- Numbers an updated row. The trigger only fires for rows whose values changed, so Hibernate rewriting
+-- unchanged columns does not show up as a change. The time is that of the statement, not the start of the
+-- transaction, so a long transaction does not record its changes as older than they are.
+CREATE OR REPLACE FUNCTION touch_change_seq() RETURNS trigger AS
+$$
+BEGIN
+    NEW.updated_seq := nextval('change_seq');
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Writes one tombstone per deleted row of the statement; the entity name is the trigger argument.
+CREATE OR REPLACE FUNCTION record_tombstones() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO entity_tombstone (entity, entity_id)
+    SELECT TG_ARGV[0], id FROM deleted_rows;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
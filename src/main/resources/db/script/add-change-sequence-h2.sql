@@ -0,0 +1,39 @@
+-- The embedded H2 database has no SQL triggers: updates are numbered by ON UPDATE column expressions and
+-- tombstones are written by H2TombstoneTrigger. The change times are taken when the statement runs, as
+-- CURRENT_TIMESTAMP is the start of the transaction.
+CREATE SEQUENCE IF NOT EXISTS change_seq;
+CREATE ALIAS IF NOT EXISTS CLOCK_TIMESTAMP FOR 'com.infinbank.rest.dataset.H2Functions.clockTimestamp';
+
+ALTER TABLE student ADD COLUMN IF NOT EXISTS updated_seq BIGINT
+    DEFAULT NEXT VALUE FOR change_seq ON UPDATE NEXT VALUE FOR change_seq NOT NULL;
+ALTER TABLE student ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE
+    DEFAULT CLOCK_TIMESTAMP() ON UPDATE CLOCK_TIMESTAMP() NOT NULL;
+CREATE INDEX IF NOT EXISTS student_updated_seq_idx ON student (updated_seq);
+
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS updated_seq BIGINT
+    DEFAULT NEXT VALUE FOR change_seq ON UPDATE NEXT VALUE FOR change_seq NOT NULL;
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE
+    DEFAULT CLOCK_TIMESTAMP() ON UPDATE CLOCK_TIMESTAMP() NOT NULL;
+CREATE INDEX IF NOT EXISTS teacher_updated_seq_idx ON teacher (updated_seq);
+
+ALTER TABLE course ADD COLUMN IF NOT EXISTS updated_seq BIGINT
+    DEFAULT NEXT VALUE FOR change_seq ON UPDATE NEXT VALUE FOR change_seq NOT NULL;
+ALTER TABLE course ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE
+    DEFAULT CLOCK_TIMESTAMP() ON UPDATE CLOCK_TIMESTAMP() NOT NULL;
+CREATE INDEX IF NOT EXISTS course_updated_seq_idx ON course (updated_seq);
+
+CREATE TABLE IF NOT EXISTS entity_tombstone
+(
+    deleted_seq BIGINT DEFAULT NEXT VALUE FOR change_seq PRIMARY KEY,
+    entity      VARCHAR(20)              NOT NULL,
+    entity_id   INT                      NOT NULL,
+    deleted_at  TIMESTAMP WITH TIME ZONE DEFAULT CLOCK_TIMESTAMP() NOT NULL
+);
+CREATE INDEX IF NOT EXISTS entity_tombstone_entity_seq_idx ON entity_tombstone (entity, deleted_seq);
+
+CREATE TRIGGER IF NOT EXISTS student_record_tombstones AFTER DELETE ON student
+    FOR EACH ROW CALL 'com.infinbank.rest.dataset.H2TombstoneTrigger';
+CREATE TRIGGER IF NOT EXISTS teacher_record_tombstones AFTER DELETE ON teacher
+    FOR EACH ROW CALL 'com.infinbank.rest.dataset.H2TombstoneTrigger';
+CREATE TRIGGER IF NOT EXISTS course_record_tombstones AFTER DELETE ON course
+    FOR EACH ROW CALL 'com.infinbank.rest.dataset.H2TombstoneTrigger';
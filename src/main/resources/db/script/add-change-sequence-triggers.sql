@@ -0,0 +1,33 @@
+CREATE TRIGGER student_touch_change_seq
+    BEFORE UPDATE ON student
+    FOR EACH ROW WHEN (OLD IS DISTINCT FROM NEW)
+EXECUTE FUNCTION touch_change_seq();
+
+CREATE TRIGGER teacher_touch_change_seq
+    BEFORE UPDATE ON teacher
+    FOR EACH ROW WHEN (OLD IS DISTINCT FROM NEW)
+EXECUTE FUNCTION touch_change_seq();
+
+CREATE TRIGGER course_touch_change_seq
+    BEFORE UPDATE ON course
+    FOR EACH ROW WHEN (OLD IS DISTINCT FROM NEW)
+EXECUTE FUNCTION touch_change_seq();
+
+-- statement level with a transition table, a bulk delete inserts its tombstones with one statement
+CREATE TRIGGER student_record_tombstones
+    AFTER DELETE ON student
+    REFERENCING OLD TABLE AS deleted_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION record_tombstones('STUDENT');
+
+CREATE TRIGGER teacher_record_tombstones
+    AFTER DELETE ON teacher
+    REFERENCING OLD TABLE AS deleted_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION record_tombstones('TEACHER');
+
+CREATE TRIGGER course_record_tombstones
+    AFTER DELETE ON course
+    REFERENCING OLD TABLE AS deleted_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION record_tombstones('COURSE');
@@ -0,0 +1,29 @@
+-- Change sequence for delta sync: every insert and update of a student, teacher or course takes the next
+-- value of change_seq, every delete leaves a tombstone with the next value. The columns are added without
+-- a value, which does not rewrite the tables; new rows take the defaults right away and existing rows are
+-- numbered by backfill-change-sequence.sql.
+CREATE SEQUENCE IF NOT EXISTS change_seq;
+
+ALTER TABLE student ADD COLUMN IF NOT EXISTS updated_seq BIGINT;
+ALTER TABLE student ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE student ALTER COLUMN updated_seq SET DEFAULT nextval('change_seq');
+ALTER TABLE student ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS updated_seq BIGINT;
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE teacher ALTER COLUMN updated_seq SET DEFAULT nextval('change_seq');
+ALTER TABLE teacher ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+
+ALTER TABLE course ADD COLUMN IF NOT EXISTS updated_seq BIGINT;
+ALTER TABLE course ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE course ALTER COLUMN updated_seq SET DEFAULT nextval('change_seq');
+ALTER TABLE course ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+
+CREATE TABLE IF NOT EXISTS entity_tombstone
+(
+    deleted_seq BIGINT PRIMARY KEY DEFAULT nextval('change_seq'),
+    entity      VARCHAR(20)              NOT NULL,
+    entity_id   INT                      NOT NULL,
+    deleted_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp()
+);
+CREATE INDEX IF NOT EXISTS entity_tombstone_entity_seq_idx ON entity_tombstone (entity, deleted_seq);
@@ -0,0 +1,21 @@
+-- Numbers the rows that existed before the change sequence, committing every batch so that no batch locks
+-- its rows for long. Runs outside of a transaction, which lets the block commit.
+DO
+$$
+DECLARE
+    table_name TEXT;
+    updated    INT;
+BEGIN
+    FOREACH table_name IN ARRAY ARRAY ['student', 'teacher', 'course']
+        LOOP
+            LOOP
+                EXECUTE format('UPDATE %I SET updated_seq = nextval(''change_seq''), updated_at = clock_timestamp()'
+                                   || ' WHERE id IN (SELECT id FROM %I WHERE updated_seq IS NULL LIMIT 10000)',
+                               table_name, table_name);
+                GET DIAGNOSTICS updated = ROW_COUNT;
+                EXIT WHEN updated = 0;
+                COMMIT;
+            END LOOP;
+        END LOOP;
+END
+$$;
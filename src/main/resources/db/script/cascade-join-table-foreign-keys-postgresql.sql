@@ -0,0 +1,18 @@
+-- Added NOT VALID, so only rows written from now on are checked and the tables are locked only briefly;
+-- the existing rows are checked by validate-join-table-foreign-keys.sql.
+
+ALTER TABLE student_course
+    ADD CONSTRAINT student_course_student_id_fkey
+        FOREIGN KEY (student_id) REFERENCES student (id) ON DELETE CASCADE NOT VALID;
+
+ALTER TABLE student_course
+    ADD CONSTRAINT student_course_course_id_fkey
+        FOREIGN KEY (course_id) REFERENCES course (id) ON DELETE CASCADE NOT VALID;
+
+ALTER TABLE teacher_student
+    ADD CONSTRAINT teacher_student_student_id_fkey
+        FOREIGN KEY (student_id) REFERENCES student (id) ON DELETE CASCADE NOT VALID;
+
+ALTER TABLE teacher_student
+    ADD CONSTRAINT teacher_student_teacher_id_fkey
+        FOREIGN KEY (teacher_id) REFERENCES teacher (id) ON DELETE CASCADE NOT VALID;
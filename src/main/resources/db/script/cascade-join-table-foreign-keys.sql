@@ -0,0 +1,15 @@
+ALTER TABLE student_course
+    ADD CONSTRAINT student_course_student_id_fkey
+        FOREIGN KEY (student_id) REFERENCES student (id) ON DELETE CASCADE;
+
+ALTER TABLE student_course
+    ADD CONSTRAINT student_course_course_id_fkey
+        FOREIGN KEY (course_id) REFERENCES course (id) ON DELETE CASCADE;
+
+ALTER TABLE teacher_student
+    ADD CONSTRAINT teacher_student_student_id_fkey
+        FOREIGN KEY (student_id) REFERENCES student (id) ON DELETE CASCADE;
+
+ALTER TABLE teacher_student
+    ADD CONSTRAINT teacher_student_teacher_id_fkey
+        FOREIGN KEY (teacher_id) REFERENCES teacher (id) ON DELETE CASCADE;
@@ -0,0 +1,38 @@
+CREATE UNLOGGED TABLE IF NOT EXISTS import_student
+(
+    line        BIGINT GENERATED ALWAYS AS IDENTITY,
+    first_name  TEXT,
+    last_name   TEXT,
+    middle_name TEXT,
+    age         TEXT
+);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS import_teacher
+(
+    line        BIGINT GENERATED ALWAYS AS IDENTITY,
+    first_name  TEXT,
+    last_name   TEXT,
+    middle_name TEXT,
+    age         TEXT,
+    course_name TEXT
+);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS import_enrollment
+(
+    line        BIGINT GENERATED ALWAYS AS IDENTITY,
+    first_name  TEXT,
+    last_name   TEXT,
+    middle_name TEXT,
+    course_name TEXT
+);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS import_tutoring
+(
+    line                BIGINT GENERATED ALWAYS AS IDENTITY,
+    student_first_name  TEXT,
+    student_last_name   TEXT,
+    student_middle_name TEXT,
+    teacher_first_name  TEXT,
+    teacher_last_name   TEXT,
+    teacher_middle_name TEXT
+);
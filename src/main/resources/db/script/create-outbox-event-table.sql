@@ -0,0 +1,12 @@
+-- Changes recorded in the transaction that made them and relayed to the outbox sink by OutboxRelay.
+-- Relayed rows are deleted, so the table only holds the backlog.
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type     VARCHAR(20)              NOT NULL,
+    entity         VARCHAR(20)              NOT NULL,
+    entity_id      INT                      NOT NULL,
+    related_entity VARCHAR(20),
+    related_id     INT,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
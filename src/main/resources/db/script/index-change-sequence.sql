@@ -0,0 +1,5 @@
+-- Built concurrently, so writes go on while the indexes are built.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS student_updated_seq_idx ON student (updated_seq);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS teacher_updated_seq_idx ON teacher (updated_seq);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS teacher_course_id_idx ON teacher (course_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS course_updated_seq_idx ON course (updated_seq);
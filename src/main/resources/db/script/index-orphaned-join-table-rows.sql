@@ -0,0 +1,10 @@
+-- Rows left behind by the former ON DELETE SET NULL constraints, purged by JoinTablePurgeJob.
+-- The indexes only hold those rows, so they are empty once the backlog is gone. They are built concurrently,
+-- so writes to the join tables go on meanwhile.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS student_course_orphaned_idx
+    ON student_course (student_id, course_id)
+    WHERE student_id IS NULL OR course_id IS NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS teacher_student_orphaned_idx
+    ON teacher_student (student_id, teacher_id)
+    WHERE student_id IS NULL OR teacher_id IS NULL;
@@ -0,0 +1,16 @@
+-- SET NOT NULL skips its scan under the ACCESS EXCLUSIVE lock when a validated check constraint already
+-- proves it; the validation scans the table without blocking writes.
+ALTER TABLE student ADD CONSTRAINT student_updated_seq_not_null CHECK (updated_seq IS NOT NULL AND updated_at IS NOT NULL) NOT VALID;
+ALTER TABLE student VALIDATE CONSTRAINT student_updated_seq_not_null;
+ALTER TABLE student ALTER COLUMN updated_seq SET NOT NULL, ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE student DROP CONSTRAINT student_updated_seq_not_null;
+
+ALTER TABLE teacher ADD CONSTRAINT teacher_updated_seq_not_null CHECK (updated_seq IS NOT NULL AND updated_at IS NOT NULL) NOT VALID;
+ALTER TABLE teacher VALIDATE CONSTRAINT teacher_updated_seq_not_null;
+ALTER TABLE teacher ALTER COLUMN updated_seq SET NOT NULL, ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE teacher DROP CONSTRAINT teacher_updated_seq_not_null;
+
+ALTER TABLE course ADD CONSTRAINT course_updated_seq_not_null CHECK (updated_seq IS NOT NULL AND updated_at IS NOT NULL) NOT VALID;
+ALTER TABLE course VALIDATE CONSTRAINT course_updated_seq_not_null;
+ALTER TABLE course ALTER COLUMN updated_seq SET NOT NULL, ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE course DROP CONSTRAINT course_updated_seq_not_null;
@@ -0,0 +1,14 @@
+-- Separate from adding the constraints NOT VALID: validating scans the tables, but only takes a SHARE UPDATE
+-- EXCLUSIVE lock, so reads and writes of the join tables go on meanwhile.
+
+ALTER TABLE student_course
+    VALIDATE CONSTRAINT student_course_student_id_fkey;
+
+ALTER TABLE student_course
+    VALIDATE CONSTRAINT student_course_course_id_fkey;
+
+ALTER TABLE teacher_student
+    VALIDATE CONSTRAINT teacher_student_student_id_fkey;
+
+ALTER TABLE teacher_student
+    VALIDATE CONSTRAINT teacher_student_teacher_id_fkey;
@@ -0,0 +1,35 @@
+package com.infinbank.rest.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("lazy")
+class LazyInitializationConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    public void should_create_critical_beans_on_start_up() {
+        assertTrue(beanFactory.containsSingleton("dataSource"));
+        assertTrue(beanFactory.containsSingleton("liquibase"));
+        assertTrue(beanFactory.containsSingleton("entityManagerFactory"));
+        assertTrue(beanFactory.containsSingleton("enrollmentIndex"));
+        assertTrue(beanFactory.containsSingleton("outboxRelay"));
+        assertTrue(beanFactory.containsSingleton("joinTablePurgeJob"));
+    }
+
+    @Test
+    public void should_defer_other_beans_to_first_use() {
+        assertFalse(beanFactory.containsSingleton("studentController"));
+        assertFalse(beanFactory.containsSingleton("batchService"));
+        assertFalse(beanFactory.containsSingleton("changeFeed"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.infinbank.rest.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SchemaVersionCheckTest {
+
+    private static final String CHANGE_LOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void should_accept_schema_migrated_by_the_changelog() {
+        SchemaVersionCheck check = new SchemaVersionCheck(jdbcTemplate, CHANGE_LOG);
+
+        assertDoesNotThrow(check::afterPropertiesSet);
+    }
+
+    @Test
+    public void should_skip_changesets_of_other_databases() throws Exception {
+        SchemaVersionCheck check = new SchemaVersionCheck(jdbcTemplate, CHANGE_LOG);
+
+        // When
+        List<String> h2 = check.expectedChangeSets("h2");
+        List<String> postgresql = check.expectedChangeSets("postgresql");
+
+        // Then
+        Integer applied = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM databasechangelog", Integer.class);
+        assertEquals(applied, h2.size());
+        assertTrue(postgresql.size() > h2.size());
+    }
+
+    @Test
+    public void should_reject_schema_missing_a_changeset() {
+        SchemaVersionCheck check = new SchemaVersionCheck(jdbcTemplate, CHANGE_LOG);
+        String lastId = jdbcTemplate.queryForObject(
+                "SELECT id FROM databasechangelog ORDER BY orderexecuted DESC LIMIT 1", String.class);
+        jdbcTemplate.update("UPDATE databasechangelog SET id = 'renamed' WHERE id = ?", lastId);
+        try {
+            // When
+            IllegalStateException exception = assertThrows(IllegalStateException.class, check::afterPropertiesSet);
+
+            // Then
+            assertTrue(exception.getMessage().contains("1 changesets are not applied"));
+            assertTrue(exception.getMessage().contains(lastId));
+        } finally {
+            jdbcTemplate.update("UPDATE databasechangelog SET id = ? WHERE id = 'renamed'", lastId);
+        }
+    }
+}
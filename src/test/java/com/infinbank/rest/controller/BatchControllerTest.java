@@ -0,0 +1,147 @@
+package com.infinbank.rest.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchControllerTest {
+
+    private static final String SET_UP_CLASS = "{\"mode\": \"%s\", \"operations\": ["
+            + "{\"ref\": \"course\", \"method\": \"POST\", \"path\": \"/api/courses\","
+            + " \"body\": {\"courseName\": \"Batch course\"}},"
+            + "{\"ref\": \"teacher\", \"method\": \"POST\", \"path\": \"/api/teachers\","
+            + " \"body\": {\"firstName\": \"Batch\", \"lastName\": \"Teacher\", \"middleName\": \"Sam\", \"age\": 40}},"
+            + "{\"method\": \"POST\", \"path\": \"/api/teachers/${teacher}/courses/${course}\"},"
+            + "{\"ref\": \"student\", \"method\": \"POST\", \"path\": \"/api/students\","
+            + " \"body\": {\"firstName\": \"Batch\", \"lastName\": \"Student\", \"middleName\": \"Sam\", \"age\": 20}},"
+            + "{\"method\": \"POST\", \"path\": \"/api/students/${student}/courses/${course}\"},"
+            + "{\"method\": \"POST\", \"path\": \"/api/students/${student}/teachers/${teacher}\"},"
+            + "{\"method\": \"PATCH\", \"path\": \"/api/courses/${course}\", \"body\": {\"courseName\": \"%s\"}}"
+            + "]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_run_atomic_batch_with_references_to_created_ids() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(SET_UP_CLASS, "ATOMIC", "Renamed course")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results.length()").value(7))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].body.courseName").value("Batch course"))
+                .andExpect(jsonPath("$.results[2].status").value(200))
+                .andExpect(jsonPath("$.results[4].body").value("Course assigned to student"))
+                .andExpect(jsonPath("$.results[6].status").value(204));
+
+        assertEquals("Renamed course", jdbcTemplate.queryForObject("SELECT course_name FROM course", String.class));
+        assertEquals(1, count("student_course"));
+        assertEquals(1, count("teacher_student"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM teacher t JOIN course c ON c.id = t.course_id", Integer.class));
+    }
+
+    @Test
+    public void should_roll_back_atomic_batch_on_first_failure() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(SET_UP_CLASS, "ATOMIC", "x")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.results[5].status").value(200))
+                .andExpect(jsonPath("$.results[6].status").value(400))
+                .andExpect(jsonPath("$.results[6].body.errors.courseName").exists());
+
+        assertEquals(0, count("course"));
+        assertEquals(0, count("teacher"));
+        assertEquals(0, count("student"));
+    }
+
+    @Test
+    public void should_skip_operations_after_failure_in_atomic_batch() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": ["
+                                + "{\"method\": \"DELETE\", \"path\": \"/api/students/-1\"},"
+                                + "{\"method\": \"POST\", \"path\": \"/api/courses\", \"body\": {\"courseName\": \"Never\"}}"
+                                + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.results[0].status").value(404))
+                .andExpect(jsonPath("$.results[0].body.statusCode").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[1].status").value(424));
+
+        assertEquals(0, count("course"));
+    }
+
+    @Test
+    public void should_keep_successful_operations_of_independent_batch() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mode\": \"INDEPENDENT\", \"operations\": ["
+                                + "{\"method\": \"POST\", \"path\": \"/api/students/${missing}/courses/1\"},"
+                                + "{\"method\": \"GET\", \"path\": \"/api/unknown\"},"
+                                + "{\"method\": \"POST\", \"path\": \"/api/courses\", \"body\": {\"courseName\": \"Kept\"}}"
+                                + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results[0].status").value(400))
+                .andExpect(jsonPath("$.results[0].body.message")
+                        .value("Unknown ref 'missing', it has to name an earlier successful operation"))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[2].status").value(201));
+
+        assertEquals(1, count("course"));
+    }
+
+    @Test
+    public void should_reject_batch_over_the_limit() throws Exception {
+        String operation = "{\"method\": \"GET\", \"path\": \"/api/courses/1\"}";
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [" + String.join(",", Collections.nCopies(201, operation)) + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot run 201 operations at once, the limit is 200"));
+    }
+
+    @Test
+    public void should_reject_operation_without_path() throws Exception {
+        mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"method\": \"GET\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['operations[0].path']").value("path field is mandatory"));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.infinbank.rest.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.infinbank.rest.config.BinaryFormatConfig;
+import com.infinbank.rest.converter.ProtobufJacksonHttpMessageConverter;
+import com.infinbank.rest.dto.ErrorResponseDto;
+import com.infinbank.rest.dto.StudentDetailsDto;
+import com.infinbank.rest.dto.StudentDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatTest {
+
+    private static final Type STUDENTS = new ParameterizedTypeReference<List<StudentDto>>() { }.getType();
+
+    private final ProtobufJacksonHttpMessageConverter protobuf =
+            new ProtobufJacksonHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student");
+    }
+
+    @Test
+    public void should_create_and_list_students_in_protobuf() throws Exception {
+        MockHttpOutputMessage request = new MockHttpOutputMessage();
+        protobuf.write(student("Proto"), StudentDto.class, ProtobufJacksonHttpMessageConverter.MEDIA_TYPE, request);
+
+        // When
+        mockMvc.perform(post("/api/students")
+                        .contentType(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE)
+                        .accept(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE)
+                        .content(request.getBodyAsBytes()))
+                .andExpect(status().isCreated());
+        byte[] body = mockMvc.perform(get("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        List<StudentDto> students = (List<StudentDto>) protobuf.read(STUDENTS, null, new MockHttpInputMessage(body));
+        assertEquals(1, students.size());
+        assertEquals("Proto", students.get(0).getMiddleName());
+        assertNotNull(students.get(0).getId());
+    }
+
+    @Test
+    public void should_get_student_details_in_protobuf() throws Exception {
+        MockHttpOutputMessage request = new MockHttpOutputMessage();
+        protobuf.write(student("Proto"), StudentDto.class, ProtobufJacksonHttpMessageConverter.MEDIA_TYPE, request);
+        byte[] created = mockMvc.perform(post("/api/students")
+                        .contentType(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE)
+                        .accept(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE)
+                        .content(request.getBodyAsBytes()))
+                .andReturn().getResponse().getContentAsByteArray();
+        Integer id = ((StudentDto) protobuf.read(StudentDto.class, null, new MockHttpInputMessage(created))).getId();
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/students/{id}", id)
+                        .param("include", "courses,teachers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        StudentDetailsDto details = (StudentDetailsDto) protobuf.read(StudentDetailsDto.class, null,
+                new MockHttpInputMessage(body));
+        assertEquals(id, details.getId());
+        assertEquals("Proto", details.getMiddleName());
+    }
+
+    @Test
+    public void should_report_validation_errors_in_protobuf() throws Exception {
+        StudentDto invalid = student("Proto");
+        invalid.setAge(1);
+        MockHttpOutputMessage request = new MockHttpOutputMessage();
+        protobuf.write(invalid, StudentDto.class, ProtobufJacksonHttpMessageConverter.MEDIA_TYPE, request);
+
+        // When
+        byte[] body = mockMvc.perform(post("/api/students")
+                        .contentType(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE)
+                        .accept(ProtobufJacksonHttpMessageConverter.MEDIA_TYPE)
+                        .content(request.getBodyAsBytes()))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        ErrorResponseDto error = (ErrorResponseDto) protobuf.read(ErrorResponseDto.class, null,
+                new MockHttpInputMessage(body));
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        assertEquals("Age should not be less that 5", error.getErrors().get("age"));
+    }
+
+    @Test
+    public void should_exchange_students_in_cbor_and_smile() throws Exception {
+        for (ObjectMapper mapper : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            MediaType mediaType = mapper.getFactory() instanceof CBORFactory
+                    ? MediaType.APPLICATION_CBOR : MediaType.parseMediaType(BinaryFormatConfig.SMILE_VALUE);
+            String middleName = mediaType.getSubtype();
+
+            // When
+            mockMvc.perform(post("/api/students")
+                            .contentType(mediaType)
+                            .accept(mediaType)
+                            .content(mapper.writeValueAsBytes(student(middleName))))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(mediaType));
+            byte[] body = mockMvc.perform(get("/api/students")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            // Then
+            List<StudentDto> students = mapper.readValue(body, new TypeReference<List<StudentDto>>() { });
+            assertTrue(students.stream().anyMatch(student -> middleName.equals(student.getMiddleName())));
+        }
+    }
+
+    @Test
+    public void should_keep_json_as_default_format() throws Exception {
+        mockMvc.perform(get("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private static StudentDto student(String middleName) {
+        return StudentDto.builder()
+                .firstName("Binary")
+                .lastName("Student")
+                .middleName(middleName)
+                .age(20)
+                .build();
+    }
+}
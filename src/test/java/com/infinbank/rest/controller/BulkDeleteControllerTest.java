@@ -0,0 +1,150 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import com.infinbank.rest.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkDeleteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Course course;
+
+    private Course otherCourse;
+
+    private final List<Student> students = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(Course.builder().courseName("Course").build());
+        otherCourse = courseRepository.save(Course.builder().courseName("Other course").build());
+        List<Teacher> teachers = List.of(saveTeacher("First", course), saveTeacher("Second", otherCourse));
+        for (int i = 0; i < 3; i++) {
+            students.add(studentRepository.save(Student.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .middleName("Middle" + i)
+                    .age(18)
+                    .courses(new ArrayList<>(List.of(course, otherCourse)))
+                    .teachers(new ArrayList<>(teachers))
+                    .build()));
+        }
+    }
+
+    private Teacher saveTeacher(String firstName, Course course) {
+        return teacherRepository.save(Teacher.builder()
+                .firstName(firstName)
+                .lastName("Teacher")
+                .middleName("Middle")
+                .age(40)
+                .course(course)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_report_the_outcome_of_every_distinct_id_in_order() throws Exception {
+        Integer first = students.get(0).getId();
+        Integer second = students.get(1).getId();
+
+        // When
+        mockMvc.perform(delete("/api/students")
+                        .param("ids", second + "," + first + ",-1," + second)
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.results.length()").value(3))
+                .andExpect(jsonPath("$.results[0].id").value(second))
+                .andExpect(jsonPath("$.results[0].status").value("DELETED"))
+                .andExpect(jsonPath("$.results[1].id").value(first))
+                .andExpect(jsonPath("$.results[2].id").value(-1))
+                .andExpect(jsonPath("$.results[2].status").value("NOT_FOUND"));
+
+        // Verify
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM teacher_student", Integer.class));
+    }
+
+    @Test
+    public void should_remove_enrollments_and_keep_teachers_of_deleted_courses() throws Exception {
+        // When
+        mockMvc.perform(delete("/api/courses")
+                        .param("ids", String.valueOf(course.getId()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+
+        // Verify
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course WHERE course_id = ? OR course_id IS NULL",
+                Integer.class, course.getId()));
+        assertEquals(students.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course WHERE course_id = ?", Integer.class, otherCourse.getId()));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM teacher", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM teacher WHERE course_id IS NULL", Integer.class));
+    }
+
+    @Test
+    public void should_reject_more_ids_than_the_max_batch_size() throws Exception {
+        String ids = IntStream.rangeClosed(1, 501).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        // When
+        mockMvc.perform(delete("/api/teachers").param("ids", ids).contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot delete 501 ids at once, the limit is 500"));
+
+        // Verify
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM teacher", Integer.class));
+    }
+}
@@ -0,0 +1,166 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.metrics.QueryCountFilter;
+import com.infinbank.rest.service.ChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The change stream as a client sees it: events arrive after the commit of the change and a client
+ * resuming with {@code Last-Event-ID} receives what it missed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeControllerTest {
+
+    private static final String STUDENT_JSON =
+            "{\"firstName\":\"Will\",\"lastName\":\"Salas\",\"middleName\":\"%s\",\"age\":20}";
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+-\\d+)$", Pattern.MULTILINE);
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student");
+    }
+
+    @Test
+    public void should_stream_committed_changes() throws Exception {
+        MockHttpServletResponse stream = openStream(null);
+
+        // When
+        createStudent("First");
+        Integer studentId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM student", Integer.class);
+        mockMvc.perform(delete("/api/students/{id}", studentId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful());
+
+        // Then
+        String content = awaitContent(stream, "event:deleted");
+        assertTrue(content.contains("event:created\ndata:{\"id\":"));
+        assertTrue(content.contains("\"type\":\"CREATED\",\"entity\":\"STUDENT\",\"entityId\":" + studentId));
+        assertTrue(content.indexOf("event:created") < content.indexOf("event:deleted"));
+    }
+
+    @Test
+    public void should_replay_missed_events_to_resuming_client() throws Exception {
+        MockHttpServletResponse first = openStream(null);
+        createStudent("First");
+        createStudent("Second");
+        List<String> ids = eventIds(awaitEvents(first, 2));
+
+        // When
+        MockHttpServletResponse resumed = openStream(ids.get(0));
+
+        // Then
+        assertEquals(List.of(ids.get(1)), eventIds(awaitEvents(resumed, 1)));
+    }
+
+    @Test
+    public void should_send_reset_when_missed_events_are_gone() throws Exception {
+        // When
+        MockHttpServletResponse stream = openStream("1");
+
+        // Then
+        // the event is written in parts, so wait for its data rather than its name
+        assertTrue(awaitContent(stream, "\"lastEventId\":").contains("event:" + ChangeFeed.RESET_EVENT));
+    }
+
+    @Test
+    public void should_send_reset_for_event_id_of_another_instance() throws Exception {
+        MockHttpServletResponse first = openStream(null);
+        createStudent("First");
+        createStudent("Second");
+        String[] id = eventIds(awaitEvents(first, 2)).get(0).split("-");
+
+        // When
+        MockHttpServletResponse stream = openStream((Long.parseLong(id[0]) + 1) + "-" + id[1]);
+
+        // Then
+        String content = awaitContent(stream, "\"lastEventId\":");
+        assertTrue(content.contains("event:" + ChangeFeed.RESET_EVENT));
+        assertFalse(content.contains("event:created"));
+    }
+
+    private MockHttpServletResponse openStream(String lastEventId) throws Exception {
+        int subscribers = changeFeed.subscriberCount();
+        MockHttpServletRequestBuilder builder = get("/api/changes/stream").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                // the work of a stream happens after the first dispatch
+                .andExpect(header().doesNotExist(QueryCountFilter.HEADER))
+                .andReturn();
+        assertEquals(subscribers + 1, changeFeed.subscriberCount());
+        return result.getResponse();
+    }
+
+    private void createStudent(String middleName) throws Exception {
+        mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(STUDENT_JSON, middleName)))
+                .andExpect(status().isCreated());
+    }
+
+    private static String awaitContent(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String content = stream.getContentAsString();
+        while (!content.contains(expected)) {
+            assertTrue(System.currentTimeMillis() < deadline, "no " + expected + " in " + content);
+            Thread.sleep(10);
+            content = stream.getContentAsString();
+        }
+        return content;
+    }
+
+    private static String awaitEvents(MockHttpServletResponse stream, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String content = stream.getContentAsString();
+        while (eventIds(content).size() < count) {
+            assertTrue(System.currentTimeMillis() < deadline, "fewer than " + count + " events in " + content);
+            Thread.sleep(10);
+            content = stream.getContentAsString();
+        }
+        return content;
+    }
+
+    private static List<String> eventIds(String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        return matcher.results()
+                .map(match -> match.group(1))
+                .collect(Collectors.toList());
+    }
+}
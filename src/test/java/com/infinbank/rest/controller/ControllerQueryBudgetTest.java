@@ -0,0 +1,455 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.metrics.QueryCountFilter;
+import com.infinbank.rest.metrics.QueryCounter;
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import com.infinbank.rest.repository.TeacherRepository;
+import com.infinbank.rest.service.CourseSimilarityIndex;
+import com.infinbank.rest.service.EnrollmentIndex;
+import com.infinbank.rest.service.MergePatchValidator;
+import com.infinbank.rest.support.QueryBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the read endpoints. Budgets must hold regardless of the number of rows,
+ * so every test runs against {@value #STUDENT_COUNT} students spread over {@value #COURSE_COUNT} courses
+ * and {@value #TEACHER_COUNT} teachers, every teacher assigned to a course, and
+ * {@link #statement_count_should_not_depend_on_row_count(String)} runs every budgeted endpoint once more
+ * after multiplying the rows. Responses are only checked as far as needed to tell that the rows were read,
+ * what the endpoints return is covered by their own controller tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ControllerQueryBudgetTest {
+
+    private static final int STUDENT_COUNT = 30;
+
+    private static final int COURSE_COUNT = 6;
+
+    private static final int TEACHER_COUNT = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private CourseSimilarityIndex courseSimilarityIndex;
+
+    private final List<Course> courses = new ArrayList<>();
+
+    private final List<Teacher> teachers = new ArrayList<>();
+
+    private final List<Integer> courseIds = new ArrayList<>();
+
+    private final List<Integer> studentIds = new ArrayList<>();
+
+    private int addedStudents;
+
+    private Integer studentId;
+
+    private Integer courseId;
+
+    private Integer teacherId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < COURSE_COUNT; i++) {
+            courses.add(courseRepository.save(Course.builder().courseName("Course " + i).build()));
+        }
+        addTeachers(TEACHER_COUNT);
+        for (Integer id : addStudents(STUDENT_COUNT)) {
+            studentId = id;
+            studentIds.add(studentId);
+        }
+        courses.forEach(course -> courseIds.add(course.getId()));
+        courseId = courses.get(0).getId();
+        teacherId = teachers.get(0).getId();
+        // the rows were written through the repositories, not the services that maintain the index
+        enrollmentIndex.rebuild();
+    }
+
+    private void addTeachers(int count) {
+        for (int i = teachers.size(), end = teachers.size() + count; i < end; i++) {
+            teachers.add(teacherRepository.save(Teacher.builder()
+                    .firstName("Teacher" + i)
+                    .lastName("Last" + i)
+                    .middleName("Middle" + i)
+                    .age(40)
+                    .course(courses.get(i % courses.size()))
+                    .build()));
+        }
+    }
+
+    private List<Integer> addStudents(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = addedStudents, end = addedStudents + count; i < end; i++) {
+            ids.add(studentRepository.save(Student.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .middleName("Middle" + i)
+                    .age(18)
+                    .courses(new ArrayList<>(List.of(
+                            courses.get(i % courses.size()),
+                            courses.get((i + 1) % courses.size()))))
+                    .teachers(new ArrayList<>(List.of(
+                            teachers.get(i % teachers.size()),
+                            teachers.get((i + 1) % teachers.size()))))
+                    .build()).getId());
+        }
+        addedStudents += count;
+        return ids;
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_all_students_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/students").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(STUDENT_COUNT))
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_student_by_id_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/students/{id}", studentId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses").doesNotExist());
+    }
+
+    @Test
+    @QueryBudget(2)
+    public void get_courses_of_student_should_issue_two_statements() throws Exception {
+        mockMvc.perform(get("/api/students/{id}/courses", studentId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_all_courses_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/courses").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(COURSE_COUNT));
+    }
+
+    @Test
+    @QueryBudget(2)
+    public void get_students_of_course_should_issue_two_statements() throws Exception {
+        mockMvc.perform(get("/api/courses/{id}/students", courseId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2 * STUDENT_COUNT / COURSE_COUNT));
+    }
+
+    @Test
+    @QueryBudget(2)
+    public void get_teacher_changes_should_issue_two_statements() throws Exception {
+        // skips the tombstones of the teachers deleted by earlier tests
+        Long since = jdbcTemplate.queryForObject("SELECT MIN(updated_seq) - 1 FROM teacher", Long.class);
+        mockMvc.perform(get("/api/teachers/changes")
+                        .param("since", String.valueOf(since))
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(5))
+                .andExpect(jsonPath("$.changed[0].course").exists())
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void missing_student_should_report_query_count_on_error_response() throws Exception {
+        mockMvc.perform(get("/api/students/{id}", -1).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_all_teachers_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/teachers").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TEACHER_COUNT))
+                .andExpect(jsonPath("$[0].course.courseName").exists())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_teacher_by_id_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/teachers/{id}", teacherId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.course.id").value(courseId));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_teachers_of_student_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/students/{id}/teachers", studentId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].course.courseName").exists())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_teachers_of_course_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/courses/{id}/teachers", courseId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TEACHER_COUNT / COURSE_COUNT))
+                .andExpect(jsonPath("$[0].course.id").value(courseId))
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(2)
+    public void get_students_of_teacher_should_issue_two_statements() throws Exception {
+        mockMvc.perform(get("/api/teachers/{id}/students", teacherId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_course_of_teacher_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/teachers/{id}/courses", teacherId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    public void get_student_with_courses_and_teachers_should_issue_two_statements() throws Exception {
+        mockMvc.perform(get("/api/students/{id}", studentId)
+                        .param("include", "courses,teachers")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "2"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_student_with_courses_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/students/{id}", studentId)
+                        .param("include", "courses")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_teacher_with_students_should_issue_one_statement() throws Exception {
+        mockMvc.perform(get("/api/teachers/{id}", teacherId)
+                        .param("include", "students")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    public void get_course_with_students_and_teachers_should_issue_two_statements() throws Exception {
+        mockMvc.perform(get("/api/courses/{id}", courseId)
+                        .param("include", "students", "teachers")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    public void unknown_include_should_be_rejected_without_statements() throws Exception {
+        mockMvc.perform(get("/api/courses/{id}", courseId)
+                        .param("include", "teachers,rooms")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void patch_student_should_issue_one_update() throws Exception {
+        mockMvc.perform(patch("/api/students/{id}", studentId)
+                        .contentType(MergePatchValidator.MEDIA_TYPE)
+                        .content("{\"age\": 30}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void patch_missing_course_should_be_not_found() throws Exception {
+        mockMvc.perform(patch("/api/courses/{id}", -1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"courseName\": \"Patched course\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(0)
+    public void invalid_teacher_patch_should_be_rejected_without_statements() throws Exception {
+        mockMvc.perform(patch("/api/teachers/{id}", teacherId)
+                        .contentType(MergePatchValidator.MEDIA_TYPE)
+                        .content("{\"age\": 2, \"firstName\": null, \"course\": 1, \"lastName\": [1]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @QueryBudget(4)
+    public void bulk_delete_students_should_issue_four_statements() throws Exception {
+        mockMvc.perform(delete("/api/students")
+                        .param("ids", studentId + "," + (studentId - 1) + ",-1," + studentId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "4"));
+    }
+
+    @Test
+    @QueryBudget(0)
+    public void bulk_delete_above_max_batch_size_should_be_rejected() throws Exception {
+        String ids = IntStream.rangeClosed(1, 501).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mockMvc.perform(delete("/api/teachers").param("ids", ids).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @QueryBudget(0)
+    public void course_query_should_be_answered_without_statements() throws Exception {
+        mockMvc.perform(get("/api/courses/query")
+                        .param("and", String.valueOf(courseIds.get(1)))
+                        .param("not", String.valueOf(courseIds.get(0)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/courses/query")
+                        .param("and", courseIds.get(0) + "," + courseIds.get(1))
+                        .param("count", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    public void course_query_without_courses_should_be_rejected() throws Exception {
+        mockMvc.perform(get("/api/courses/query").param("and", "").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_related_courses_should_issue_one_statement() throws Exception {
+        // computed from the in-memory enrollment index, without statements
+        courseSimilarityIndex.refresh();
+
+        mockMvc.perform(get("/api/courses/{id}/related", courseId).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    @QueryBudget(1)
+    public void get_related_courses_of_missing_course_should_be_not_found() throws Exception {
+        mockMvc.perform(get("/api/courses/{id}/related", -1).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/students",
+            "/api/students/{student}",
+            "/api/students/{student}?include=courses,teachers",
+            "/api/students/{student}/courses",
+            "/api/students/{student}/teachers",
+            "/api/courses",
+            "/api/courses/{course}?include=students,teachers",
+            "/api/courses/{course}/students",
+            "/api/courses/{course}/teachers",
+            "/api/courses/{course}/related",
+            "/api/courses/query?and={course}",
+            "/api/teachers",
+            "/api/teachers/changes?since={since}&limit=5",
+            "/api/teachers/{teacher}?include=students",
+            "/api/teachers/{teacher}/students",
+            "/api/teachers/{teacher}/courses"
+    })
+    public void statement_count_should_not_depend_on_row_count(String path) throws Exception {
+        long small = countStatements(path);
+
+        // four times the students and twice the teachers, and the measured student in every course and
+        // with every teacher
+        addTeachers(TEACHER_COUNT);
+        addStudents(3 * STUDENT_COUNT);
+        courseIds.stream().skip(2).forEach(id -> jdbcTemplate.update(
+                "INSERT INTO student_course (student_id, course_id) VALUES (?, ?)", studentId, id));
+        teachers.stream().skip(2).forEach(teacher -> jdbcTemplate.update(
+                "INSERT INTO teacher_student (teacher_id, student_id) VALUES (?, ?)", teacher.getId(), studentId));
+        enrollmentIndex.rebuild();
+
+        // When
+        long large = countStatements(path);
+
+        // Then
+        assertEquals(small, large, path);
+    }
+
+    private long countStatements(String path) throws Exception {
+        courseSimilarityIndex.refresh();
+        // skips the tombstones of the teachers deleted by earlier tests
+        Long since = jdbcTemplate.queryForObject("SELECT MIN(updated_seq) - 1 FROM teacher", Long.class);
+        String uri = path.replace("{student}", String.valueOf(studentId))
+                .replace("{course}", String.valueOf(courseId))
+                .replace("{teacher}", String.valueOf(teacherId))
+                .replace("{since}", String.valueOf(since));
+        long start = QueryCounter.current();
+        mockMvc.perform(get(uri).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        return QueryCounter.current() - start;
+    }
+}
@@ -0,0 +1,174 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import com.infinbank.rest.service.EnrollmentIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Student {@code i} is enrolled in courses {@code i % 6} and {@code (i + 1) % 6}, so every course has ten
+ * students and shares five of them with each neighbouring course.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseQueryControllerTest {
+
+    private static final int STUDENT_COUNT = 30;
+
+    private static final int COURSE_COUNT = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    private final List<Integer> courseIds = new ArrayList<>();
+
+    private final List<Integer> studentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSE_COUNT; i++) {
+            courses.add(courseRepository.save(Course.builder().courseName("Course " + i).build()));
+            courseIds.add(courses.get(i).getId());
+        }
+        for (int i = 0; i < STUDENT_COUNT; i++) {
+            studentIds.add(studentRepository.save(Student.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .middleName("Middle" + i)
+                    .age(18)
+                    .courses(new ArrayList<>(List.of(
+                            courses.get(i % COURSE_COUNT),
+                            courses.get((i + 1) % COURSE_COUNT))))
+                    .build()).getId());
+        }
+        // the rows were written through the repositories, not the services that maintain the index
+        enrollmentIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_combine_and_and_not_courses() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/query")
+                        .param("and", String.valueOf(courseIds.get(1)))
+                        .param("not", String.valueOf(courseIds.get(0)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(STUDENT_COUNT / COURSE_COUNT))
+                .andExpect(jsonPath("$.studentIds.length()").value(STUDENT_COUNT / COURSE_COUNT))
+                .andExpect(jsonPath("$.studentIds[0]").value(studentIds.get(1)))
+                .andExpect(jsonPath("$.studentIds[4]").value(studentIds.get(25)));
+    }
+
+    @Test
+    public void should_only_count_when_asked_to() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/query")
+                        .param("and", courseIds.get(0) + "," + courseIds.get(1))
+                        .param("count", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(STUDENT_COUNT / COURSE_COUNT))
+                .andExpect(jsonPath("$.studentIds").doesNotExist());
+    }
+
+    @Test
+    public void should_page_through_ids() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/query")
+                        .param("and", String.valueOf(courseIds.get(1)))
+                        .param("after", String.valueOf(studentIds.get(1)))
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2 * STUDENT_COUNT / COURSE_COUNT))
+                .andExpect(jsonPath("$.studentIds.length()").value(2))
+                .andExpect(jsonPath("$.studentIds[0]").value(studentIds.get(6)))
+                .andExpect(jsonPath("$.studentIds[1]").value(studentIds.get(7)));
+    }
+
+    @Test
+    public void should_follow_enrollment_changes() throws Exception {
+        String and = courseIds.get(1) + "," + courseIds.get(2);
+
+        // When
+        mockMvc.perform(delete("/api/students/{studentId}/courses/{courseId}", studentIds.get(1), courseIds.get(1))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/api/courses/query").param("and", and).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.count").value(STUDENT_COUNT / COURSE_COUNT - 1));
+
+        // When
+        mockMvc.perform(post("/api/students/{studentId}/courses/{courseId}", studentIds.get(1), courseIds.get(1))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(delete("/api/students/{id}", studentIds.get(7)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful());
+
+        // Then
+        mockMvc.perform(get("/api/courses/query").param("and", and).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.count").value(STUDENT_COUNT / COURSE_COUNT - 1))
+                .andExpect(jsonPath("$.studentIds[0]").value(studentIds.get(1)));
+
+        // When
+        mockMvc.perform(delete("/api/courses").param("ids", String.valueOf(courseIds.get(2)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/api/courses/query").param("and", and).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    public void should_reject_query_without_courses() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/query").param("and", "").contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Parameter 'and' is required"));
+    }
+}
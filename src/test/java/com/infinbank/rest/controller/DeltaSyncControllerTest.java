@@ -0,0 +1,168 @@
+package com.infinbank.rest.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DeltaSyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // skip the changes left by other test classes sharing the database
+        JsonNode page;
+        do {
+            page = changes(token, 10_000);
+            token = page.get("token").asText();
+        } while (page.get("hasMore").asBoolean());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student");
+    }
+
+    @Test
+    public void should_return_only_the_changes_since_the_token() throws Exception {
+        Student first = save("First");
+        Student second = save("Second");
+        Student third = save("Third");
+        JsonNode created = changes(token, 100);
+        assertEquals(List.of(first.getId(), second.getId(), third.getId()), ids(created.get("changed")));
+        assertEquals(0, created.get("deleted").size());
+
+        // When
+        jdbcTemplate.update("UPDATE student SET age = 30 WHERE id = ?", second.getId());
+        studentRepository.deleteById(third.getId());
+        JsonNode updated = changes(created.get("token").asText(), 100);
+
+        // Then
+        assertEquals(List.of(second.getId()), ids(updated.get("changed")));
+        assertEquals(30, updated.get("changed").get(0).get("age").asInt());
+        assertEquals(List.of(third.getId()), ids(updated.get("deleted")));
+        assertFalse(updated.get("hasMore").asBoolean());
+
+        JsonNode unchanged = changes(updated.get("token").asText(), 100);
+        assertEquals(0, unchanged.get("changed").size());
+        assertEquals(0, unchanged.get("deleted").size());
+        assertEquals(updated.get("token").asText(), unchanged.get("token").asText());
+    }
+
+    @Test
+    public void should_page_through_the_changes() throws Exception {
+        Student first = save("First");
+        Student second = save("Second");
+        Student third = save("Third");
+
+        // When
+        JsonNode firstPage = changes(token, 2);
+        JsonNode secondPage = changes(firstPage.get("token").asText(), 2);
+
+        // Then
+        assertEquals(List.of(first.getId(), second.getId()), ids(firstPage.get("changed")));
+        assertTrue(firstPage.get("hasMore").asBoolean());
+        assertEquals(List.of(third.getId()), ids(secondPage.get("changed")));
+        assertFalse(secondPage.get("hasMore").asBoolean());
+    }
+
+    @Test
+    public void should_record_the_statement_time_of_a_change() {
+        // When
+        List<Timestamp> updatedAt = transactionTemplate.execute(status -> {
+            Student first = save("First");
+            sleep();
+            Student second = save("Second");
+            return List.of(updatedAt(first), updatedAt(second));
+        });
+
+        // Then
+        assertTrue(updatedAt.get(1).after(updatedAt.get(0)));
+    }
+
+    @Test
+    public void should_reject_invalid_token() throws Exception {
+        mockMvc.perform(get("/api/students/changes")
+                        .param("since", "not-a-token")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode changes(String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder builder = get("/api/students/changes")
+                .param("limit", String.valueOf(limit))
+                .contentType(MediaType.APPLICATION_JSON);
+        if (since != null) {
+            builder.param("since", since);
+        }
+        String body = mockMvc.perform(builder)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Student save(String middleName) {
+        return studentRepository.save(Student.builder()
+                .firstName("Delta")
+                .lastName("Student")
+                .middleName(middleName)
+                .age(20)
+                .build());
+    }
+
+    private Timestamp updatedAt(Student student) {
+        return jdbcTemplate.queryForObject("SELECT updated_at FROM student WHERE id = ?", Timestamp.class,
+                student.getId());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Integer> ids(JsonNode nodes) {
+        List<Integer> ids = new ArrayList<>();
+        nodes.forEach(node -> ids.add(node.isObject() ? node.get("id").asInt() : node.asInt()));
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package com.infinbank.rest.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class HttpMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PrometheusMeterRegistry registry;
+
+    @Test
+    public void should_export_latency_histogram_per_route_and_error() throws Exception {
+        mockMvc.perform(get("/api/students/{id}/courses", -1).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/courses").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/courses").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // When
+        List<String> lines = Arrays.stream(registry.scrape().split("\n"))
+                .filter(line -> line.startsWith("http_server_requests_seconds"))
+                .collect(Collectors.toList());
+
+        // Then
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{")
+                && line.contains("error=\"EntityNotFoundException\"")
+                && line.contains("status=\"404\"")
+                && line.contains("uri=\"/api/students/{id}/courses\"")
+                && line.contains("le=\"0.25\"")), "SLO bucket of the failed route");
+        assertTrue(lines.stream().anyMatch(line -> line.contains("error=\"MethodArgumentNotValidException\"")
+                && line.contains("uri=\"/api/courses\"")
+                && line.contains("status=\"400\"")));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("http_server_requests_seconds{")
+                && line.contains("error=\"none\"")
+                && line.contains("uri=\"/api/courses\"")
+                && line.contains("quantile=\"0.99\"")), "percentile of the successful route");
+    }
+}
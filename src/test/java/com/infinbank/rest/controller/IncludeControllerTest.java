@@ -0,0 +1,163 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import com.infinbank.rest.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IncludeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Course course;
+
+    private Teacher teacher;
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(Course.builder().courseName("Course").build());
+        Course otherCourse = courseRepository.save(Course.builder().courseName("Other course").build());
+        teacher = saveTeacher("First", course);
+        Teacher otherTeacher = saveTeacher("Second", otherCourse);
+        for (int i = 0; i < 3; i++) {
+            student = studentRepository.save(Student.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .middleName("Middle" + i)
+                    .age(18)
+                    .courses(new ArrayList<>(i == 0 ? List.of(course) : List.of(course, otherCourse)))
+                    .teachers(new ArrayList<>(i == 0 ? List.of(teacher) : List.of(teacher, otherTeacher)))
+                    .build());
+        }
+    }
+
+    private Teacher saveTeacher(String firstName, Course course) {
+        return teacherRepository.save(Teacher.builder()
+                .firstName(firstName)
+                .lastName("Teacher")
+                .middleName("Middle")
+                .age(40)
+                .course(course)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_not_include_associations_by_default() throws Exception {
+        // When
+        mockMvc.perform(get("/api/students/{id}", student.getId()).contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(student.getId()))
+                .andExpect(jsonPath("$.courses").doesNotExist())
+                .andExpect(jsonPath("$.teachers").doesNotExist());
+    }
+
+    @Test
+    public void should_include_courses_and_teachers_of_student() throws Exception {
+        // When
+        mockMvc.perform(get("/api/students/{id}", student.getId())
+                        .param("include", "courses,teachers")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(student.getId()))
+                .andExpect(jsonPath("$.courses.length()").value(2))
+                .andExpect(jsonPath("$.teachers.length()").value(2))
+                .andExpect(jsonPath("$.teachers[0].course.courseName").exists());
+    }
+
+    @Test
+    public void should_include_only_the_requested_association() throws Exception {
+        // When
+        mockMvc.perform(get("/api/students/{id}", student.getId())
+                        .param("include", "courses")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.length()").value(2))
+                .andExpect(jsonPath("$.teachers").doesNotExist());
+    }
+
+    @Test
+    public void should_include_students_of_teacher() throws Exception {
+        // When
+        mockMvc.perform(get("/api/teachers/{id}", teacher.getId())
+                        .param("include", "students")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.course.id").value(course.getId()))
+                .andExpect(jsonPath("$.students.length()").value(3));
+    }
+
+    @Test
+    public void should_include_students_and_teachers_of_course() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/{id}", course.getId())
+                        .param("include", "students", "teachers")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courseName").value("Course"))
+                .andExpect(jsonPath("$.students.length()").value(3))
+                .andExpect(jsonPath("$.teachers.length()").value(1))
+                .andExpect(jsonPath("$.teachers[0].id").value(teacher.getId()))
+                .andExpect(jsonPath("$.teachers[0].course.id").value(course.getId()));
+    }
+
+    @Test
+    public void should_reject_unknown_include() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/{id}", course.getId())
+                        .param("include", "teachers,rooms")
+                        .contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("Cannot include 'rooms', supported values are [students, teachers]"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import com.infinbank.rest.repository.TeacherRepository;
+import com.infinbank.rest.service.MergePatchValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_only_change_supplied_columns() throws Exception {
+        Student student = studentRepository.save(Student.builder()
+                .firstName("First")
+                .lastName("Last")
+                .middleName("Middle")
+                .age(18)
+                .build());
+
+        // When
+        mockMvc.perform(patch("/api/students/{id}", student.getId())
+                        .contentType(MergePatchValidator.MEDIA_TYPE)
+                        .content("{\"firstName\": \"Patched\", \"age\": 30}"))
+                .andExpect(status().isNoContent());
+
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT first_name, last_name, middle_name, age FROM student WHERE id = ?", student.getId());
+        assertEquals("Patched", row.get("FIRST_NAME"));
+        assertEquals("Last", row.get("LAST_NAME"));
+        assertEquals("Middle", row.get("MIDDLE_NAME"));
+        assertEquals(30, row.get("AGE"));
+    }
+
+    @Test
+    public void should_report_every_invalid_field() throws Exception {
+        Course course = courseRepository.save(Course.builder().courseName("Course").build());
+        Teacher teacher = teacherRepository.save(Teacher.builder()
+                .firstName("Teacher")
+                .lastName("Last")
+                .middleName("Middle")
+                .age(40)
+                .course(course)
+                .build());
+
+        // When
+        mockMvc.perform(patch("/api/teachers/{id}", teacher.getId())
+                        .contentType(MergePatchValidator.MEDIA_TYPE)
+                        .content("{\"age\": 2, \"firstName\": null, \"course\": 1, \"lastName\": [1]}"))
+                // Then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.age").value("Age should not be less that 5"))
+                .andExpect(jsonPath("$.errors.firstName").value("firstName field is mandatory"))
+                .andExpect(jsonPath("$.errors.course").value("Field cannot be patched"))
+                .andExpect(jsonPath("$.errors.lastName").value("Should be of type String"));
+
+        // Verify
+        assertEquals(40, jdbcTemplate.queryForObject(
+                "SELECT age FROM teacher WHERE id = ?", Integer.class, teacher.getId()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.infinbank.rest.controller;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.StudentRepository;
+import com.infinbank.rest.service.CourseSimilarityIndex;
+import com.infinbank.rest.service.EnrollmentIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Student {@code i} is enrolled in courses {@code i % 6} and {@code (i + 1) % 6}, so every course has ten
+ * students and shares five of them with each neighbouring course.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RelatedCoursesControllerTest {
+
+    private static final int STUDENT_COUNT = 30;
+
+    private static final int COURSE_COUNT = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    private CourseSimilarityIndex courseSimilarityIndex;
+
+    private final List<Integer> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSE_COUNT; i++) {
+            courses.add(courseRepository.save(Course.builder().courseName("Course " + i).build()));
+            courseIds.add(courses.get(i).getId());
+        }
+        for (int i = 0; i < STUDENT_COUNT; i++) {
+            studentRepository.save(Student.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .middleName("Middle" + i)
+                    .age(18)
+                    .courses(new ArrayList<>(List.of(
+                            courses.get(i % COURSE_COUNT),
+                            courses.get((i + 1) % COURSE_COUNT))))
+                    .build());
+        }
+        // the rows were written through the repositories, not the services that maintain the index
+        enrollmentIndex.rebuild();
+        courseSimilarityIndex.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_rank_courses_by_common_students() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/{id}/related", courseIds.get(0)).contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                // course 0 shares five students with course 1 and with course 5, the tie goes to the lower id
+                .andExpect(jsonPath("$[0].id").value(courseIds.get(1)))
+                .andExpect(jsonPath("$[0].courseName").value("Course 1"))
+                .andExpect(jsonPath("$[0].commonStudents").value(STUDENT_COUNT / COURSE_COUNT))
+                .andExpect(jsonPath("$[0].score").value(1.0 / 3))
+                .andExpect(jsonPath("$[1].id").value(courseIds.get(COURSE_COUNT - 1)))
+                .andExpect(jsonPath("$[1].commonStudents").value(STUDENT_COUNT / COURSE_COUNT));
+    }
+
+    @Test
+    public void should_not_find_related_courses_of_missing_course() throws Exception {
+        // When
+        mockMvc.perform(get("/api/courses/{id}/related", -1).contentType(MediaType.APPLICATION_JSON))
+                // Then
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,85 @@
+package com.infinbank.rest.dataset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO course (course_name) VALUES ('Mathematics'), ('Physics')");
+        jdbcTemplate.update("INSERT INTO student (first_name, last_name, middle_name, age) VALUES ('Ann', 'Lee', 'Marie', 10)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_insert_update_and_reject_students() {
+        String csv = "first_name,last_name,middle_name,age\n"
+                + "Ann,Lee,Marie,11\n"
+                + "Bob,\"Smith, Jr\",James,12\n"
+                + "Bob,\"Smith, Jr\",James,13\n"
+                + "Carl,Young,Ray,4\n"
+                + "Dana,,Kay,14\n"
+                + "Eve,Hall,Rose,old\n";
+
+        ImportResult result = importService.importCsv(ImportDataset.STUDENTS, new StringReader(csv));
+
+        assertEquals(new ImportResult(ImportDataset.STUDENTS, 6, 1, 1, 3), result);
+        assertEquals(11, jdbcTemplate.queryForObject("SELECT age FROM student WHERE first_name = 'Ann'", Integer.class));
+        assertEquals(13, jdbcTemplate.queryForObject("SELECT age FROM student WHERE last_name = 'Smith, Jr'", Integer.class));
+    }
+
+    @Test
+    public void should_import_teachers_and_links_by_natural_key() {
+        importService.importCsv(ImportDataset.TEACHERS, new StringReader("first_name,last_name,middle_name,age,course_name\n"
+                + "Tom,Hill,Paul,40,Physics\n"
+                + "Sue,King,Jean,35,\n"
+                + "Max,Cook,Lee,50,Chemistry\n"));
+
+        ImportResult enrollments = importService.importCsv(ImportDataset.ENROLLMENTS, new StringReader(
+                "first_name,last_name,middle_name,course_name\n"
+                        + "Ann,Lee,Marie,Mathematics\n"
+                        + "Ann,Lee,Marie,Mathematics\n"
+                        + "Ann,Lee,Marie,Chemistry\n"
+                        + "Nobody,Lee,Marie,Physics\n"));
+        ImportResult tutoring = importService.importCsv(ImportDataset.TUTORING, new StringReader(
+                "student_first_name,student_last_name,student_middle_name,"
+                        + "teacher_first_name,teacher_last_name,teacher_middle_name\n"
+                        + "Ann,Lee,Marie,Tom,Hill,Paul\n"
+                        + "Ann,Lee,Marie,Max,Cook,Lee\n"));
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM teacher", Integer.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT course_id FROM teacher WHERE first_name = 'Sue'", Integer.class));
+        assertEquals(new ImportResult(ImportDataset.ENROLLMENTS, 4, 1, 0, 2), enrollments);
+        assertEquals(new ImportResult(ImportDataset.TUTORING, 2, 1, 0, 1), tutoring);
+    }
+
+    @Test
+    public void should_reject_file_with_wrong_column_count() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(ImportDataset.STUDENTS,
+                new StringReader("first_name,last_name,middle_name,age\nAnn,Lee,10\n")));
+    }
+}
@@ -0,0 +1,85 @@
+package com.infinbank.rest.dataset;
+
+import com.infinbank.rest.config.DatasetGeneratorProperties;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DatasetGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_generate_configured_cardinalities_with_skewed_course_popularity() {
+        DatasetGeneratorProperties properties = properties();
+
+        DatasetGenerator.Result result = new DatasetGenerator(jdbcTemplate, properties).generate();
+
+        assertEquals(properties.getStudents(), count("student"));
+        assertEquals(properties.getTeachers(), count("teacher"));
+        assertEquals(properties.getCourses(), count("course"));
+        assertEquals(result.getEnrollments(), count("student_course"));
+        assertEquals(result.getTutoring(), count("teacher_student"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT student_id, course_id "
+                + "FROM student_course GROUP BY student_id, course_id HAVING COUNT(*) > 1) duplicates", Long.class));
+
+        List<Long> popularity = jdbcTemplate.queryForList("SELECT COUNT(*) FROM student_course "
+                + "GROUP BY course_id ORDER BY course_id", Long.class);
+        assertTrue(popularity.get(0) > 3 * popularity.get(popularity.size() - 1),
+                "first course should be far more popular than the last one: " + popularity);
+    }
+
+    @Test
+    public void should_append_to_existing_rows_and_keep_identity_usable() {
+        DatasetGeneratorProperties properties = properties();
+        DatasetGenerator generator = new DatasetGenerator(jdbcTemplate, properties);
+
+        generator.generate();
+        generator.generate();
+        Student saved = studentRepository.save(Student.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .middleName("Ann")
+                .age(20)
+                .build());
+
+        assertEquals(2L * properties.getStudents(), count("student") - 1);
+        assertEquals(2 * properties.getStudents() + 1, saved.getId());
+    }
+
+    private DatasetGeneratorProperties properties() {
+        DatasetGeneratorProperties properties = new DatasetGeneratorProperties();
+        properties.setStudents(500);
+        properties.setTeachers(30);
+        properties.setCourses(10);
+        properties.setThreads(3);
+        properties.setBatchSize(64);
+        return properties;
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.infinbank.rest.metrics;
+
+import com.infinbank.rest.model.Course;
+import com.infinbank.rest.repository.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "persistence.metrics.enabled=true")
+@AutoConfigureMetrics
+class MicrometerStatisticsTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_tag_query_meters_with_repository_method() {
+        courseRepository.save(Course.builder().courseName("Metrics").build());
+
+        // When
+        assertEquals(1, courseRepository.findAll().size());
+
+        // Then
+        assertTrue(meterRegistry.get("hibernate.query.execution")
+                .tag("repository", "CourseRepository.findAll")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get("hibernate.query.rows")
+                .tag("repository", "CourseRepository.findAll")
+                .summary().totalAmount() >= 1);
+    }
+
+    @Test
+    public void should_tag_entity_loads_with_repository_method() {
+        Integer id = courseRepository.save(Course.builder().courseName("Metrics").build()).getId();
+
+        // When
+        assertTrue(courseRepository.findById(id).isPresent());
+
+        // Then
+        assertTrue(meterRegistry.get("hibernate.repository.entity.loads")
+                .tag("entity", Course.class.getName())
+                .tag("repository", "CourseRepository.findById")
+                .counter().count() >= 1);
+        assertEquals(RepositoryMethodContext.NONE, RepositoryMethodContext.current());
+    }
+}
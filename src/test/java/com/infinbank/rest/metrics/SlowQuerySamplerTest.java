@@ -0,0 +1,134 @@
+package com.infinbank.rest.metrics;
+
+import com.infinbank.rest.config.SlowQueryProperties;
+import com.infinbank.rest.dto.SlowQueryDto;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQuerySamplerTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private SlowQueryProperties properties;
+
+    private JdbcTemplate target;
+
+    private SlowQuerySampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:slow-query;DB_CLOSE_DELAY=-1");
+        target = new JdbcTemplate(dataSource);
+        target.execute("CREATE TABLE student (id INT PRIMARY KEY, first_name VARCHAR(50))");
+        target.execute("INSERT INTO student VALUES (1, 'Ann'), (2, 'Bob'), (3, 'Cid')");
+
+        properties = new SlowQueryProperties();
+        properties.setThreshold(Duration.ZERO);
+        properties.setExplainSampleRate(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sampler != null) {
+            sampler.stop();
+        }
+        target.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void should_record_slow_query_with_parameters_and_plan() throws Exception {
+        // When
+        String name = proxy().queryForObject("SELECT first_name FROM student WHERE id = ?", String.class, 2);
+
+        // Then
+        assertEquals("Bob", name);
+        SlowQueryDto query = awaitExplained();
+        assertEquals("SELECT first_name FROM student WHERE id = ?", query.getSql());
+        assertEquals(List.of("2"), query.getParameters());
+        assertEquals(RepositoryMethodContext.NONE, query.getRepository());
+        assertEquals(1, query.getBatchSize());
+        assertEquals(SlowQueryDto.Explain.CAPTURED, query.getExplain());
+        // EXPLAIN ANALYZE of H2 reports the rows scanned
+        assertTrue(query.getPlan().contains("scanCount"), query.getPlan());
+    }
+
+    @Test
+    public void should_explain_update_without_applying_it() throws Exception {
+        // When
+        proxy().update("UPDATE student SET first_name = first_name || ? WHERE id = ?", "!", 1);
+
+        // Then
+        SlowQueryDto query = awaitExplained();
+        assertEquals(List.of("!", "1"), query.getParameters());
+        assertEquals(SlowQueryDto.Explain.CAPTURED, query.getExplain());
+        assertTrue(query.getPlan().startsWith("UPDATE"), query.getPlan());
+        assertFalse(query.getPlan().contains("scanCount"), query.getPlan());
+        assertEquals("Ann!", target.queryForObject("SELECT first_name FROM student WHERE id = 1", String.class));
+    }
+
+    @Test
+    public void should_ignore_statements_below_threshold() {
+        // Mock the calls
+        properties.setThreshold(Duration.ofHours(1));
+
+        // When
+        proxy().queryForList("SELECT * FROM student");
+
+        // Then
+        assertTrue(sampler.recent().isEmpty());
+    }
+
+    @Test
+    public void should_keep_most_recent_statements_only() {
+        // Mock the calls
+        properties.setBufferSize(2);
+        properties.setExplainSampleRate(0);
+        JdbcTemplate proxy = proxy();
+
+        // When
+        for (int id = 1; id <= 3; id++) {
+            proxy.queryForObject("SELECT first_name FROM student WHERE id = " + id, String.class);
+        }
+
+        // Then
+        List<SlowQueryDto> recent = sampler.recent();
+        assertEquals(List.of("SELECT first_name FROM student WHERE id = 3",
+                        "SELECT first_name FROM student WHERE id = 2"),
+                recent.stream().map(SlowQueryDto::getSql).collect(Collectors.toList()));
+        assertTrue(recent.stream().allMatch(query -> query.getExplain() == SlowQueryDto.Explain.NOT_SAMPLED));
+
+        // Verify
+        sampler.clear();
+        assertTrue(sampler.recent().isEmpty());
+    }
+
+    private JdbcTemplate proxy() {
+        sampler = new SlowQuerySampler(properties);
+        SlowQueryDataSourceBeanPostProcessor postProcessor = new SlowQueryDataSourceBeanPostProcessor(() -> sampler);
+        return new JdbcTemplate((DataSource) postProcessor.postProcessAfterInitialization(
+                target.getDataSource(), "dataSource"));
+    }
+
+    private SlowQueryDto awaitExplained() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        List<SlowQueryDto> recent = sampler.recent();
+        while (recent.isEmpty() || recent.get(0).getExplain() == SlowQueryDto.Explain.PENDING) {
+            assertTrue(System.currentTimeMillis() < deadline, "no plan in " + recent);
+            Thread.sleep(10);
+            recent = sampler.recent();
+        }
+        assertEquals(1, recent.size());
+        return recent.get(0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.ChangeFeedProperties;
+import com.infinbank.rest.dto.ChangeEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private final CountDownLatch sendersBlocked = new CountDownLatch(1);
+
+    private ExecutorService senders;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setBufferSize(2);
+        properties.setMaxSubscribers(2);
+        meterRegistry = new SimpleMeterRegistry();
+        // the only sender thread waits until the test ends, so nothing is drained from the buffers
+        senders = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        senders.execute(() -> {
+            started.countDown();
+            try {
+                sendersBlocked.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        changeFeed = new ChangeFeed(properties, meterRegistry, senders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sendersBlocked.countDown();
+        changeFeed.stop();
+    }
+
+    @Test
+    public void should_disconnect_subscriber_whose_buffer_is_full() {
+        changeFeed.subscribe(null);
+
+        // When
+        changeFeed.created(ChangeEventDto.Entity.STUDENT, 1);
+        changeFeed.updated(ChangeEventDto.Entity.STUDENT, 1);
+        assertEquals(1, changeFeed.subscriberCount());
+        changeFeed.deleted(ChangeEventDto.Entity.STUDENT, List.of(1));
+
+        // Then
+        assertEquals(0, changeFeed.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("change.feed.subscribers.disconnected").tag("reason", "slow")
+                .counter().count());
+        assertEquals(3.0, meterRegistry.get("change.feed.events.published").counter().count());
+    }
+
+    @Test
+    public void should_reject_subscribers_over_the_limit() {
+        // When
+        assertTrue(changeFeed.subscribe(null).isPresent());
+        assertTrue(changeFeed.subscribe(null).isPresent());
+
+        // Then
+        assertTrue(changeFeed.subscribe(null).isEmpty());
+        assertEquals(2, changeFeed.subscriberCount());
+    }
+}
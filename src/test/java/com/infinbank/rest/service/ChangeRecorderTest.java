@@ -0,0 +1,79 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.OutboxProperties;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.repository.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChangeRecorderTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    private OutboxProperties outboxProperties;
+
+    private ChangeRecorder changeRecorder;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        outboxProperties = new OutboxProperties();
+        changeRecorder = new ChangeRecorder(outboxProperties, outboxRepository, changeFeed);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_append_changes_to_the_outbox_and_publish_them() {
+        // When
+        changeRecorder.deleted(ChangeEventDto.Entity.COURSE, List.of(1, 2));
+        changeRecorder.assigned(ChangeEventDto.Entity.STUDENT, 3, ChangeEventDto.Entity.COURSE, 1);
+
+        // Then
+        ArgumentCaptor<List<ChangeEventDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository, times(2)).append(captor.capture());
+        List<ChangeEventDto> deleted = captor.getAllValues().get(0);
+        assertEquals(2, deleted.size());
+        assertEquals(ChangeEventDto.Type.DELETED, deleted.get(0).getType());
+        assertEquals(2, deleted.get(1).getEntityId());
+        ChangeEventDto assigned = captor.getAllValues().get(1).get(0);
+        assertEquals(ChangeEventDto.Type.ASSIGNED, assigned.getType());
+        assertEquals(ChangeEventDto.Entity.COURSE, assigned.getRelatedEntity());
+        assertEquals(1, assigned.getRelatedId());
+
+        // Verify
+        verify(changeFeed, times(1)).deleted(ChangeEventDto.Entity.COURSE, List.of(1, 2));
+        verify(changeFeed, times(1)).assigned(ChangeEventDto.Entity.STUDENT, 3, ChangeEventDto.Entity.COURSE, 1);
+    }
+
+    @Test
+    public void should_only_publish_when_the_outbox_is_disabled() {
+        outboxProperties.setEnabled(false);
+
+        // When
+        changeRecorder.created(ChangeEventDto.Entity.STUDENT, 1);
+
+        // Then
+        verifyNoInteractions(outboxRepository);
+        verify(changeFeed, times(1)).created(ChangeEventDto.Entity.STUDENT, 1);
+    }
+}
@@ -1,8 +1,12 @@
 package com.infinbank.rest.service;
 
+import com.infinbank.rest.config.BulkDeleteProperties;
+import com.infinbank.rest.config.DeltaSyncProperties;
 import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.RelatedCourseDto;
 import com.infinbank.rest.dto.StudentDto;
 import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.exception.BulkDeleteLimitExceededException;
 import com.infinbank.rest.exception.CourseEntityNotFoundException;
 import com.infinbank.rest.mapper.CourseMapper;
 import com.infinbank.rest.mapper.StudentMapper;
@@ -11,6 +15,8 @@ import com.infinbank.rest.model.Course;
 import com.infinbank.rest.model.Student;
 import com.infinbank.rest.model.Teacher;
 import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.EntityPatchRepository;
+import com.infinbank.rest.repository.TombstoneRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +25,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,6 +45,22 @@ class CourseServiceTest {
     private TeacherMapper teacherMapper;
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private EntityPatchRepository entityPatchRepository;
+    @Mock
+    private MergePatchValidator mergePatchValidator;
+    @Mock
+    private BulkDeleteProperties bulkDeleteProperties;
+    @Mock
+    private EnrollmentIndex enrollmentIndex;
+    @Mock
+    private CourseSimilarityIndex courseSimilarityIndex;
+    @Mock
+    private ChangeRecorder changeRecorder;
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+    @Mock
+    private DeltaSyncProperties deltaSyncProperties;
     private AutoCloseable mocks;
 
     @BeforeEach
@@ -323,7 +346,7 @@ class CourseServiceTest {
                 .build();
 
         // mocking calls
-        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        when(courseRepository.findWithTeachersById(COURSE_ID)).thenReturn(Optional.of(course));
         when(teacherMapper.toDto(teacher1)).thenReturn(teacherDto1);
         when(teacherMapper.toDto(teacher2)).thenReturn(teacherDto2);
 
@@ -337,8 +360,61 @@ class CourseServiceTest {
         assertTrue(resultTeachers.contains(teacherDto2));
 
         // verify
-        verify(courseRepository, times(1)).findById(COURSE_ID);
+        verify(courseRepository, times(1)).findWithTeachersById(COURSE_ID);
         verify(teacherMapper, times(1)).toDto(teacher1);
         verify(teacherMapper, times(1)).toDto(teacher2);
     }
+
+    @Test
+    public void should_only_check_existence_when_patch_is_empty() {
+        final int COURSE_ID = 1;
+        Map<String, Object> patch = Map.of();
+
+        // mocking calls
+        when(mergePatchValidator.validate(eq(CourseDto.class), anySet(), eq(patch))).thenReturn(patch);
+        when(courseRepository.existsById(COURSE_ID)).thenReturn(false);
+
+        // when & then
+        assertThrows(CourseEntityNotFoundException.class, () -> courseService.patch(COURSE_ID, patch));
+
+        // verify
+        verify(courseRepository, times(1)).existsById(COURSE_ID);
+        verify(entityPatchRepository, never()).updateById(any(), any(), any());
+    }
+
+    @Test
+    public void should_reject_bulk_delete_above_max_batch_size() {
+        // mocking calls
+        when(bulkDeleteProperties.getMaxBatchSize()).thenReturn(2);
+
+        // when & then
+        assertThrows(BulkDeleteLimitExceededException.class, () -> courseService.deleteAllById(List.of(1, 2, 3)));
+
+        // verify
+        verify(courseRepository, never()).findExistingIds(any());
+        verify(courseRepository, never()).deleteRowsByIds(any());
+    }
+
+    @Test
+    public void should_find_related_courses_and_skip_deleted_ones() {
+        final int COURSE_ID = 1;
+
+        // mocking calls
+        when(courseSimilarityIndex.findRelated(COURSE_ID)).thenReturn(List.of(
+                new CourseSimilarityIndex.RelatedCourse(3, 0.5, 4),
+                new CourseSimilarityIndex.RelatedCourse(2, 0.25, 2),
+                new CourseSimilarityIndex.RelatedCourse(4, 0.1, 1)));
+        when(courseRepository.findAllById(List.of(COURSE_ID, 3, 2))).thenReturn(List.of(
+                Course.builder().id(COURSE_ID).courseName("Math").build(),
+                Course.builder().id(3).courseName("Physics").build()));
+
+        // when
+        List<RelatedCourseDto> related = courseService.findRelatedCourses(COURSE_ID, 2);
+
+        // then
+        assertEquals(List.of(new RelatedCourseDto(3, "Physics", 0.5, 4)), related);
+
+        // verify
+        verify(courseRepository, times(1)).findAllById(List.of(COURSE_ID, 3, 2));
+    }
 }
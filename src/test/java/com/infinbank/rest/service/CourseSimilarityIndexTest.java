@@ -0,0 +1,118 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.CourseSimilarityProperties;
+import com.infinbank.rest.config.EnrollmentIndexProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSimilarityIndexTest {
+
+    private static final int COURSES = 40;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private EnrollmentIndex enrollmentIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        enrollmentIndex = new EnrollmentIndex(jdbcTemplate, new EnrollmentIndexProperties());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    public void should_rank_courses_by_jaccard_similarity() {
+        // Mock the calls
+        for (int studentId = 1; studentId <= 4; studentId++) {
+            enrollmentIndex.enrolled(studentId, 1);
+        }
+        enrollmentIndex.enrolled(1, 2);
+        enrollmentIndex.enrolled(2, 2);
+        enrollmentIndex.enrolled(1, 3);
+        enrollmentIndex.enrolled(5, 3);
+        enrollmentIndex.enrolled(6, 4);
+        CourseSimilarityIndex similarityIndex = similarityIndex(10);
+
+        // When
+        similarityIndex.refresh();
+
+        // Then
+        assertEquals(List.of(
+                new CourseSimilarityIndex.RelatedCourse(2, 0.5, 2),
+                new CourseSimilarityIndex.RelatedCourse(3, 0.2, 1)), similarityIndex.findRelated(1));
+        assertEquals(List.of(
+                new CourseSimilarityIndex.RelatedCourse(1, 0.5, 2),
+                new CourseSimilarityIndex.RelatedCourse(3, 1.0 / 3, 1)), similarityIndex.findRelated(2));
+        assertTrue(similarityIndex.findRelated(4).isEmpty());
+    }
+
+    @Test
+    public void incremental_refresh_should_match_full_computation() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int studentId = 1; studentId <= 500; studentId++) {
+            for (int i = 0; i < 3; i++) {
+                enrollmentIndex.enrolled(studentId, 1 + random.nextInt(COURSES));
+            }
+        }
+        CourseSimilarityIndex incremental = similarityIndex(3);
+        incremental.refresh();
+
+        for (int round = 0; round < 20; round++) {
+            // When
+            enrollmentIndex.enrolled(1000 + round, 1 + random.nextInt(COURSES));
+            for (int change = 0; change < 5; change++) {
+                int studentId = 1 + random.nextInt(500);
+                int courseId = 1 + random.nextInt(COURSES);
+                if (random.nextBoolean()) {
+                    enrollmentIndex.enrolled(studentId, courseId);
+                } else {
+                    enrollmentIndex.unenrolled(studentId, courseId);
+                }
+            }
+            if (round == 10) {
+                enrollmentIndex.studentsDeleted(List.of(1, 2, 3));
+                enrollmentIndex.coursesDeleted(List.of(7));
+            }
+            incremental.refresh();
+            CourseSimilarityIndex full = similarityIndex(3);
+            full.refresh();
+
+            // Then
+            for (int courseId = 1; courseId <= COURSES; courseId++) {
+                assertEquals(full.findRelated(courseId), incremental.findRelated(courseId),
+                        "round " + round + ", course " + courseId);
+            }
+            full.stop();
+        }
+        incremental.stop();
+        assertEquals(20, meterRegistry.get("course.similarity.refresh").tag("type", "incremental").timer().count());
+    }
+
+    private CourseSimilarityIndex similarityIndex(int topK) {
+        CourseSimilarityProperties properties = new CourseSimilarityProperties();
+        properties.setTopK(topK);
+        properties.setFullRefreshRatio(1.0);
+        properties.setParallelism(2);
+        return new CourseSimilarityIndex(properties, enrollmentIndex, meterRegistry);
+    }
+}
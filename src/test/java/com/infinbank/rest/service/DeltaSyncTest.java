@@ -0,0 +1,75 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.dto.ChangesDto;
+import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Tombstone;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaSyncTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Test
+    public void should_merge_changes_and_tombstones_by_sequence() {
+        List<Student> changed = List.of(student(1, 11, NOW), student(2, 14, NOW));
+        List<Tombstone> tombstones = List.of(tombstone(3, 12, NOW), tombstone(4, 13, NOW));
+
+        // When
+        ChangesDto<Integer> page = DeltaSync.page(10, 3, NOW, changed, tombstones, Student::getId);
+
+        // Then
+        assertEquals(List.of(1), page.getChanged());
+        assertEquals(List.of(3, 4), page.getDeleted());
+        assertEquals("13", page.getToken());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    public void should_stop_the_token_before_the_first_unsettled_change() {
+        Instant settledBefore = NOW.minusSeconds(5);
+        List<Student> changed = List.of(student(1, 11, settledBefore), student(2, 13, NOW));
+        List<Tombstone> tombstones = List.of(tombstone(3, 12, NOW));
+
+        // When
+        ChangesDto<Integer> page = DeltaSync.page(10, 10, settledBefore, changed, tombstones, Student::getId);
+
+        // Then
+        assertEquals(List.of(1, 2), page.getChanged());
+        assertEquals(List.of(3), page.getDeleted());
+        assertEquals("11", page.getToken());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    public void should_keep_the_token_when_nothing_changed() {
+        // When
+        ChangesDto<Integer> page = DeltaSync.page(42, 10, NOW, List.of(), List.of(), Student::getId);
+
+        // Then
+        assertTrue(page.getChanged().isEmpty());
+        assertTrue(page.getDeleted().isEmpty());
+        assertEquals("42", page.getToken());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    public void should_cap_the_page_size() {
+        assertEquals(1, DeltaSync.pageSize(0));
+        assertEquals(DeltaSync.MAX_PAGE_SIZE, DeltaSync.pageSize(Integer.MAX_VALUE));
+        assertEquals(0, DeltaSync.sequenceOf(null));
+        assertEquals(0, DeltaSync.sequenceOf(-5L));
+    }
+
+    private static Student student(int id, long seq, Instant at) {
+        return Student.builder().id(id).updatedSeq(seq).updatedAt(at).build();
+    }
+
+    private static Tombstone tombstone(int entityId, long seq, Instant at) {
+        return Tombstone.builder().entity("STUDENT").entityId(entityId).deletedSeq(seq).deletedAt(at).build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.EnrollmentIndexProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnrollmentIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private EnrollmentIndex enrollmentIndex;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        enrollmentIndex = new EnrollmentIndex(jdbcTemplate, new EnrollmentIndexProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    public void should_intersect_required_courses_and_subtract_excluded_ones() {
+        // Mock the calls
+        for (int studentId = 1; studentId <= 10; studentId++) {
+            enrollmentIndex.enrolled(studentId, 1);
+            if (studentId % 2 == 0) {
+                enrollmentIndex.enrolled(studentId, 2);
+            }
+            if (studentId % 4 == 0) {
+                enrollmentIndex.enrolled(studentId, 3);
+            }
+        }
+
+        // When
+        RoaringBitmap result = enrollmentIndex.query(List.of(1, 2), List.of(3));
+        RoaringBitmap unknownCourse = enrollmentIndex.query(List.of(1, 99), List.of());
+
+        // Then
+        assertEquals(RoaringBitmap.bitmapOf(2, 6, 10), result);
+        assertTrue(unknownCourse.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> enrollmentIndex.query(List.of(), List.of()));
+    }
+
+    @Test
+    public void should_apply_changes_only_after_commit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            enrollmentIndex.enrolled(1, 1);
+            enrollmentIndex.enrolled(2, 1);
+
+            // Then
+            assertTrue(enrollmentIndex.query(List.of(1), List.of()).isEmpty());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCommit();
+            assertEquals(RoaringBitmap.bitmapOf(1), enrollmentIndex.query(List.of(1), List.of()));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void should_report_courses_changed_by_a_rebuild() throws Exception {
+        // Mock the calls
+        for (int studentId = 1; studentId <= 100; studentId++) {
+            enrollmentIndex.enrolled(studentId, 1);
+        }
+        enrollmentIndex.enrolled(5, 2);
+        enrollmentIndex.enrolled(8, 4);
+        enrollmentIndex.snapshot();
+        int[][] rows = new int[103][];
+        for (int studentId = 1; studentId <= 100; studentId++) {
+            rows[studentId - 1] = new int[]{1, studentId};
+        }
+        rows[100] = new int[]{2, 5};
+        rows[101] = new int[]{2, 6};
+        rows[102] = new int[]{3, 7};
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt(1)).thenReturn(row[0]);
+                when(rs.getInt(2)).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        // When
+        enrollmentIndex.rebuild();
+
+        // Then
+        EnrollmentIndex.Snapshot snapshot = enrollmentIndex.snapshot();
+        assertEquals(RoaringBitmap.bitmapOf(2, 3, 4), snapshot.getChangedCourses());
+        assertEquals(RoaringBitmap.bitmapOf(5, 6), enrollmentIndex.query(List.of(2), List.of()));
+        assertTrue(enrollmentIndex.query(List.of(4), List.of()).isEmpty());
+    }
+}
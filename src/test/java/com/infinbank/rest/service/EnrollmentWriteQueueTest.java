@@ -0,0 +1,191 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.EnrollmentWriteQueueProperties;
+import com.infinbank.rest.exception.StudentEntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class EnrollmentWriteQueueTest {
+
+    @Mock
+    private EnrollmentBatchWriter batchWriter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EnrollmentWriteQueue queue;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        EnrollmentWriteQueueProperties properties = new EnrollmentWriteQueueProperties();
+        properties.setEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        // start() is not called, so flushing happens only when the test calls flush()
+        queue = new EnrollmentWriteQueue(properties, batchWriter, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_coalesce_changes_of_the_same_pair() throws Exception {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenReturn(List.of(EnrollmentChange.Outcome.APPLIED));
+
+        // When
+        CompletableFuture<Boolean> assigned = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> removed = queue.removeCourseFromStudent(10, 1);
+        assertEquals(1, queue.depth());
+        queue.flush();
+
+        // Then
+        assertFalse(assigned.get());
+        assertTrue(removed.get());
+        assertEquals(0, queue.depth());
+        assertEquals(1.0, meterRegistry.get("enrollment.write.queue.coalesced").counter().count());
+
+        // Verify
+        ArgumentCaptor<List<EnrollmentChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, times(1)).write(captor.capture());
+        assertEquals(List.of(new EnrollmentChange(1, 10, EnrollmentChange.Operation.REMOVE)), captor.getValue());
+    }
+
+    @Test
+    public void should_apply_only_the_first_of_duplicate_changes() throws Exception {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenReturn(List.of(EnrollmentChange.Outcome.APPLIED));
+
+        // When
+        CompletableFuture<Boolean> removed = queue.removeCourseFromStudent(10, 1);
+        CompletableFuture<Boolean> first = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> second = queue.assignCourseToStudent(10, 1);
+        queue.flush();
+
+        // Then
+        assertFalse(removed.get());
+        assertTrue(first.get());
+        assertFalse(second.get());
+    }
+
+    @Test
+    public void should_report_unchanged_to_every_waiter() throws Exception {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenReturn(List.of(EnrollmentChange.Outcome.UNCHANGED));
+
+        // When
+        CompletableFuture<Boolean> first = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> second = queue.assignCourseToStudent(10, 1);
+        queue.flush();
+
+        // Then
+        assertFalse(first.get());
+        assertFalse(second.get());
+    }
+
+    @Test
+    public void should_report_each_change_of_an_unchanged_pair_in_order() throws Exception {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenReturn(List.of(EnrollmentChange.Outcome.UNCHANGED));
+
+        // When
+        CompletableFuture<Boolean> assigned = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> removed = queue.removeCourseFromStudent(10, 1);
+        queue.flush();
+
+        // Then
+        assertTrue(assigned.get());
+        assertTrue(removed.get());
+    }
+
+    @Test
+    public void should_report_each_change_of_an_applied_pair_in_order() throws Exception {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenReturn(List.of(EnrollmentChange.Outcome.APPLIED));
+
+        // When
+        CompletableFuture<Boolean> first = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> removed = queue.removeCourseFromStudent(10, 1);
+        CompletableFuture<Boolean> second = queue.assignCourseToStudent(10, 1);
+        queue.flush();
+
+        // Then
+        assertTrue(first.get());
+        assertTrue(removed.get());
+        assertTrue(second.get());
+    }
+
+    @Test
+    public void should_complete_exceptionally_when_student_not_found() {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenReturn(List.of(
+                EnrollmentChange.Outcome.STUDENT_NOT_FOUND,
+                EnrollmentChange.Outcome.UNCHANGED));
+
+        // When
+        CompletableFuture<Boolean> missingStudent = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> alreadyAssigned = queue.assignCourseToStudent(10, 2);
+        queue.flush();
+
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, missingStudent::get);
+        assertInstanceOf(StudentEntityNotFoundException.class, ex.getCause());
+        assertFalse(alreadyAssigned.join());
+        assertEquals(2, meterRegistry.get("enrollment.write.queue.latency").timer().count());
+    }
+
+    @Test
+    public void should_fail_all_waiters_when_batch_write_fails() {
+        // Mock the calls
+        when(batchWriter.write(anyList())).thenThrow(new IllegalStateException("connection lost"));
+
+        // When
+        CompletableFuture<Boolean> first = queue.assignCourseToStudent(10, 1);
+        CompletableFuture<Boolean> second = queue.removeCourseFromStudent(11, 1);
+        queue.flush();
+
+        // Then
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    public void should_complete_exceptionally_when_stopped() throws Exception {
+        queue.stop();
+
+        // When
+        CompletableFuture<Boolean> assigned = queue.assignCourseToStudent(10, 1);
+
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, assigned::get);
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals(0, queue.depth());
+        verify(batchWriter, never()).write(anyList());
+    }
+
+    @Test
+    public void should_reject_changes_when_disabled() {
+        EnrollmentWriteQueue disabledQueue = new EnrollmentWriteQueue(
+                new EnrollmentWriteQueueProperties(), batchWriter, new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, () -> disabledQueue.assignCourseToStudent(10, 1));
+        verify(batchWriter, never()).write(anyList());
+    }
+}
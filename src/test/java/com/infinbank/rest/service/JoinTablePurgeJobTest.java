@@ -0,0 +1,91 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.config.JoinTablePurgeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JoinTablePurgeJobTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int studentId;
+
+    private int courseId;
+
+    private int teacherId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO course (course_name) VALUES ('Purge course')");
+        courseId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM course", Integer.class);
+        jdbcTemplate.update("INSERT INTO student (first_name, last_name, middle_name, age) "
+                + "VALUES ('Purge', 'Student', 'Kept', 20)");
+        studentId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM student", Integer.class);
+        jdbcTemplate.update("INSERT INTO teacher (first_name, last_name, middle_name, age, course_id) "
+                + "VALUES ('Purge', 'Teacher', 'Kept', 40, ?)", courseId);
+        teacherId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM teacher", Integer.class);
+        jdbcTemplate.update("INSERT INTO student_course (student_id, course_id) VALUES (?, ?)", studentId, courseId);
+        jdbcTemplate.update("INSERT INTO teacher_student (student_id, teacher_id) VALUES (?, ?)", studentId, teacherId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM student_course");
+        jdbcTemplate.execute("DELETE FROM teacher_student");
+        jdbcTemplate.execute("DELETE FROM teacher");
+        jdbcTemplate.execute("DELETE FROM student");
+        jdbcTemplate.execute("DELETE FROM course");
+    }
+
+    @Test
+    public void should_purge_orphaned_rows_in_batches_and_keep_valid_links() {
+        // rows as the former ON DELETE SET NULL constraints left them behind
+        for (int i = 0; i < 4; i++) {
+            jdbcTemplate.update("INSERT INTO student_course (student_id, course_id) VALUES (NULL, ?)", courseId);
+        }
+        jdbcTemplate.update("INSERT INTO student_course (student_id, course_id) VALUES (?, NULL)", studentId);
+        jdbcTemplate.update("INSERT INTO teacher_student (student_id, teacher_id) VALUES (NULL, NULL)");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        Map<String, Long> reclaimed = new JoinTablePurgeJob(jdbcTemplate, properties(), meterRegistry).purge();
+
+        assertEquals(Map.of("student_course", 5L, "teacher_student", 1L), reclaimed);
+        assertEquals(5.0, meterRegistry.get("join.table.purged.rows").tag("table", "student_course").counter().count());
+        assertEquals(1, count("student_course"));
+        assertEquals(1, count("teacher_student"));
+    }
+
+    @Test
+    public void should_cascade_deletes_to_join_tables() {
+        jdbcTemplate.update("DELETE FROM course WHERE id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM student WHERE id = ?", studentId);
+
+        assertEquals(0, count("student_course"));
+        assertEquals(0, count("teacher_student"));
+        assertNull(jdbcTemplate.queryForObject("SELECT course_id FROM teacher WHERE id = ?", Integer.class, teacherId));
+    }
+
+    private JoinTablePurgeProperties properties() {
+        JoinTablePurgeProperties properties = new JoinTablePurgeProperties();
+        properties.setEnabled(false);
+        properties.setBatchSize(2);
+        properties.setPause(Duration.ZERO);
+        return properties;
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.infinbank.rest.service;
+
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.repository.OutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private OutboxSink outboxSink;
+
+    @BeforeEach
+    void setUp() {
+        // changes recorded by other test classes sharing the database
+        jdbcTemplate.execute("DELETE FROM outbox_event");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM outbox_event");
+        jdbcTemplate.execute("DELETE FROM student");
+    }
+
+    @Test
+    public void should_record_changes_only_when_their_transaction_commits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        StudentDto saved = studentService.save(student("Committed"));
+        transaction.executeWithoutResult(status -> {
+            studentService.save(student("Rolled back"));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        List<ChangeEventDto> events = jdbcTemplate.query("SELECT * FROM outbox_event",
+                (rs, rowNum) -> new ChangeEventDto(rs.getLong("id"),
+                        ChangeEventDto.Type.valueOf(rs.getString("event_type")),
+                        ChangeEventDto.Entity.valueOf(rs.getString("entity")),
+                        rs.getInt("entity_id"), null, null, null));
+        assertEquals(1, events.size());
+        assertEquals(ChangeEventDto.Type.CREATED, events.get(0).getType());
+        assertEquals(ChangeEventDto.Entity.STUDENT, events.get(0).getEntity());
+        assertEquals(saved.getId(), events.get(0).getEntityId());
+    }
+
+    @Test
+    public void should_publish_in_batches_and_delete_relayed_events() {
+        for (int courseId = 1; courseId <= 5; courseId++) {
+            insertEvent(courseId);
+        }
+        double published = meterRegistry.get("outbox.events.published").counter().count();
+
+        // When
+        long relayed = outboxRelay.drain();
+
+        // Then
+        assertEquals(5, relayed);
+        assertEquals(0, count());
+        assertEquals(published + 5, meterRegistry.get("outbox.events.published").counter().count());
+        assertEquals(0.0, meterRegistry.get("outbox.lag").gauge().value());
+
+        // Verify
+        verify(outboxSink, times(1)).publish(argThat(events -> events.size() == 5
+                && events.get(0).getEntityId() == 1
+                && events.get(0).getRelatedEntity() == ChangeEventDto.Entity.STUDENT
+                && events.get(0).getCommittedAt() != null));
+    }
+
+    @Test
+    public void should_keep_events_when_the_sink_fails() {
+        insertEvent(1);
+        doThrow(new IllegalStateException("sink unavailable")).doNothing().when(outboxSink).publish(anyList());
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> outboxRelay.drain());
+        assertEquals(1, count());
+        assertEquals(1, outboxRelay.drain());
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void should_skip_events_claimed_by_another_relay() throws Exception {
+        insertEvent(1);
+        insertEvent(2);
+        insertEvent(3);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CompletableFuture<List<ChangeEventDto>> otherRelay = CompletableFuture.supplyAsync(() ->
+                transaction.execute(status -> {
+                    List<ChangeEventDto> events = outboxRepository.claim(2);
+                    claimed.countDown();
+                    await(release);
+                    return events;
+                }));
+        assertTrue(claimed.await(5, TimeUnit.SECONDS));
+
+        // When
+        long relayed = outboxRelay.drain();
+        release.countDown();
+
+        // Then
+        assertEquals(1, relayed);
+        assertEquals(2, otherRelay.get(5, TimeUnit.SECONDS).size());
+        assertEquals(2, count());
+    }
+
+    private void insertEvent(int courseId) {
+        jdbcTemplate.update("INSERT INTO outbox_event (event_type, entity, entity_id, related_entity, related_id) "
+                + "VALUES ('ASSIGNED', 'COURSE', ?, 'STUDENT', 1)", courseId);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Integer.class);
+    }
+
+    private static StudentDto student(String middleName) {
+        StudentDto student = new StudentDto();
+        student.setFirstName("Outbox");
+        student.setLastName("Student");
+        student.setMiddleName(middleName);
+        student.setAge(20);
+        return student;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
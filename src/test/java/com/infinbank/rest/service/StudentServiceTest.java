@@ -1,14 +1,26 @@
 package com.infinbank.rest.service;
 
+import com.infinbank.rest.config.BulkDeleteProperties;
+import com.infinbank.rest.config.DeltaSyncProperties;
+import com.infinbank.rest.dto.BulkDeleteResultDto;
+import com.infinbank.rest.dto.ChangeEventDto;
+import com.infinbank.rest.dto.CourseDto;
+import com.infinbank.rest.dto.StudentDetailsDto;
 import com.infinbank.rest.dto.StudentDto;
+import com.infinbank.rest.dto.TeacherDto;
+import com.infinbank.rest.exception.InvalidIncludeException;
 import com.infinbank.rest.exception.StudentEntityNotFoundException;
 import com.infinbank.rest.mapper.CourseMapper;
 import com.infinbank.rest.mapper.StudentMapper;
 import com.infinbank.rest.mapper.TeacherMapper;
+import com.infinbank.rest.model.Course;
 import com.infinbank.rest.model.Student;
+import com.infinbank.rest.model.Teacher;
 import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.EntityPatchRepository;
 import com.infinbank.rest.repository.StudentRepository;
 import com.infinbank.rest.repository.TeacherRepository;
+import com.infinbank.rest.repository.TombstoneRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,7 +29,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +53,20 @@ class StudentServiceTest {
     private StudentRepository studentRepository;
     @Mock
     private TeacherRepository teacherRepository;
+    @Mock
+    private EntityPatchRepository entityPatchRepository;
+    @Mock
+    private MergePatchValidator mergePatchValidator;
+    @Mock
+    private BulkDeleteProperties bulkDeleteProperties;
+    @Mock
+    private EnrollmentIndex enrollmentIndex;
+    @Mock
+    private ChangeRecorder changeRecorder;
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+    @Mock
+    private DeltaSyncProperties deltaSyncProperties;
     private AutoCloseable mocks;
 
     @BeforeEach
@@ -257,24 +285,106 @@ class StudentServiceTest {
         verify(studentRepository, times(1)).save(oldStudent);
         verify(studentMapper, times(1)).toDto(updatedStudent);
     }
-}
 
+    @Test
+    public void should_patch_student_without_loading_it() {
+        final int STUDENT_ID = 1;
+        Map<String, Object> patch = Map.of("age", 23);
 
+        // Mock the calls
+        when(mergePatchValidator.validate(eq(StudentDto.class), anySet(), eq(patch))).thenReturn(patch);
+        when(entityPatchRepository.updateById(Student.class, STUDENT_ID, patch)).thenReturn(1);
 
+        // When
+        studentService.patch(STUDENT_ID, patch);
 
+        // Verify
+        verify(entityPatchRepository, times(1)).updateById(Student.class, STUDENT_ID, patch);
+        verify(studentRepository, never()).findById(any());
+        verify(studentRepository, never()).save(any());
+        verify(changeRecorder, times(1)).updated(ChangeEventDto.Entity.STUDENT, STUDENT_ID);
+    }
 
+    @Test
+    public void should_throw_exception_when_patched_student_not_found() {
+        final int STUDENT_ID = 1;
+        Map<String, Object> patch = Map.of("firstName", "Will new");
 
+        // Mock the calls
+        when(mergePatchValidator.validate(eq(StudentDto.class), anySet(), eq(patch))).thenReturn(patch);
+        when(entityPatchRepository.updateById(Student.class, STUDENT_ID, patch)).thenReturn(0);
 
+        // When & Then
+        assertThrows(StudentEntityNotFoundException.class, () -> studentService.patch(STUDENT_ID, patch));
 
+        // Verify
+        verify(entityPatchRepository, times(1)).updateById(Student.class, STUDENT_ID, patch);
+        verifyNoInteractions(changeRecorder);
+    }
 
+    @Test
+    public void should_bulk_delete_existing_students_and_report_missing_ones() {
+        List<Integer> ids = List.of(3, 1, 2, 3);
 
+        // Mock the calls
+        when(bulkDeleteProperties.getMaxBatchSize()).thenReturn(10);
+        when(studentRepository.findExistingIds(Set.of(1, 2, 3))).thenReturn(Set.of(1, 3));
 
+        // When
+        BulkDeleteResultDto result = studentService.deleteAllById(ids);
 
+        // Then
+        assertEquals(2, result.getDeleted());
+        assertEquals(1, result.getNotFound());
+        assertEquals(List.of(
+                new BulkDeleteResultDto.IdResult(3, BulkDeleteResultDto.Status.DELETED),
+                new BulkDeleteResultDto.IdResult(1, BulkDeleteResultDto.Status.DELETED),
+                new BulkDeleteResultDto.IdResult(2, BulkDeleteResultDto.Status.NOT_FOUND)), result.getResults());
 
+        // Verify
+        verify(studentRepository, times(1)).deleteCourseLinksByStudentIds(Set.of(1, 3));
+        verify(studentRepository, times(1)).deleteTeacherLinksByStudentIds(Set.of(1, 3));
+        verify(studentRepository, times(1)).deleteRowsByIds(Set.of(1, 3));
+        verify(studentRepository, never()).findById(any());
+        verify(enrollmentIndex, times(1)).studentsDeleted(Set.of(1, 3));
+        verify(changeRecorder, times(1)).deleted(ChangeEventDto.Entity.STUDENT, Set.of(1, 3));
+    }
 
+    @Test
+    public void should_get_student_with_courses_and_teachers() {
+        final int STUDENT_ID = 1;
+        Student student = Student.builder()
+                .id(STUDENT_ID)
+                .courses(List.of(new Course()))
+                .teachers(List.of(new Teacher()))
+                .build();
+        StudentDetailsDto details = StudentDetailsDto.builder().id(STUDENT_ID).build();
 
+        // Mock the calls
+        when(studentRepository.findWithTeachersById(STUDENT_ID)).thenReturn(Optional.of(student));
+        when(studentRepository.findWithCoursesById(STUDENT_ID)).thenReturn(Optional.of(student));
+        when(studentMapper.toDetailsDto(student)).thenReturn(details);
+        when(courseMapper.toDto(any())).thenReturn(new CourseDto());
+        when(teacherMapper.toDto(any())).thenReturn(new TeacherDto());
 
+        // When
+        StudentDetailsDto result = studentService.findDetailsById(STUDENT_ID, List.of("teachers", " courses"));
 
+        // Then
+        assertEquals(1, result.getCourses().size());
+        assertEquals(1, result.getTeachers().size());
 
+        // Verify
+        verify(studentRepository, times(1)).findWithTeachersById(STUDENT_ID);
+        verify(studentRepository, times(1)).findWithCoursesById(STUDENT_ID);
+        verify(studentRepository, never()).findById(any());
+    }
 
+    @Test
+    public void should_reject_unknown_include_before_loading_student() {
+        assertThrows(InvalidIncludeException.class,
+                () -> studentService.findDetailsById(1, List.of("courses", "grades")));
 
+        verifyNoInteractions(studentRepository);
+    }
+}
@@ -1,5 +1,7 @@
 package com.infinbank.rest.service;
 
+import com.infinbank.rest.config.BulkDeleteProperties;
+import com.infinbank.rest.config.DeltaSyncProperties;
 import com.infinbank.rest.dto.CourseDto;
 import com.infinbank.rest.dto.TeacherDto;
 import com.infinbank.rest.exception.TeacherEntityNotFoundException;
@@ -9,7 +11,9 @@ import com.infinbank.rest.mapper.TeacherMapper;
 import com.infinbank.rest.model.Course;
 import com.infinbank.rest.model.Teacher;
 import com.infinbank.rest.repository.CourseRepository;
+import com.infinbank.rest.repository.EntityPatchRepository;
 import com.infinbank.rest.repository.TeacherRepository;
+import com.infinbank.rest.repository.TombstoneRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +23,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +44,18 @@ class TeacherServiceTest {
     private CourseRepository courseRepository;
     @Mock
     private TeacherRepository teacherRepository;
+    @Mock
+    private EntityPatchRepository entityPatchRepository;
+    @Mock
+    private MergePatchValidator mergePatchValidator;
+    @Mock
+    private BulkDeleteProperties bulkDeleteProperties;
+    @Mock
+    private ChangeRecorder changeRecorder;
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+    @Mock
+    private DeltaSyncProperties deltaSyncProperties;
     private AutoCloseable mocks;
     @BeforeEach
     void setUp() {
@@ -138,7 +155,7 @@ class TeacherServiceTest {
                 .build();
 
         // Mock the calls
-        when(teacherRepository.findAll()).thenReturn(List.of(teacher1, teacher2));
+        when(teacherRepository.findAllWithCourseBy()).thenReturn(List.of(teacher1, teacher2));
         when(teacherMapper.toDto(teacher1)).thenReturn(teacherDto1);
         when(teacherMapper.toDto(teacher2)).thenReturn(teacherDto2);
 
@@ -151,7 +168,7 @@ class TeacherServiceTest {
         assertEquals(List.of(teacherDto1, teacherDto2), actualTeacherDtos);
 
         // Verify
-        verify(teacherRepository, times(1)).findAll();
+        verify(teacherRepository, times(1)).findAllWithCourseBy();
         verify(teacherMapper, times(1)).toDto(teacher1);
         verify(teacherMapper, times(1)).toDto(teacher2);
     }
@@ -176,7 +193,7 @@ class TeacherServiceTest {
                 .build();
 
         // Mock the calls
-        when(teacherRepository.findById(TEACHER_ID)).thenReturn(Optional.of(teacher));
+        when(teacherRepository.findWithCourseById(TEACHER_ID)).thenReturn(Optional.of(teacher));
         when(teacherMapper.toDto(teacher)).thenReturn(expectedTeacherDto);
 
         // When
@@ -191,7 +208,7 @@ class TeacherServiceTest {
         assertEquals(expectedTeacherDto.getAge(), actualTeacherDto.getAge());
 
         // Verify
-        verify(teacherRepository, times(1)).findById(TEACHER_ID);
+        verify(teacherRepository, times(1)).findWithCourseById(TEACHER_ID);
         verify(teacherMapper, times(1)).toDto(teacher);
 
     }
@@ -200,13 +217,13 @@ class TeacherServiceTest {
     public void should_throw_exception_when_teacher_not_found() {
         final int TEACHER_ID = 1;
 
-        when(teacherRepository.findById(TEACHER_ID)).thenReturn(Optional.empty());
+        when(teacherRepository.findWithCourseById(TEACHER_ID)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(TeacherEntityNotFoundException.class, () -> teacherService.findById(TEACHER_ID));
 
         // Verify
-        verify(teacherRepository, times(1)).findById(TEACHER_ID);
+        verify(teacherRepository, times(1)).findWithCourseById(TEACHER_ID);
         verify(teacherMapper, never()).toDto(any());
     }
 
@@ -236,7 +253,7 @@ class TeacherServiceTest {
                 .build();
 
         // Mock the calls
-        when(teacherRepository.findById(TEACHER_ID)).thenReturn(Optional.of(oldTeacher));
+        when(teacherRepository.findWithCourseById(TEACHER_ID)).thenReturn(Optional.of(oldTeacher));
         when(teacherRepository.save(oldTeacher)).thenReturn(updatedTeacher);
         when(teacherMapper.toDto(updatedTeacher)).thenReturn(expectedTeacherDto);
 
@@ -252,7 +269,7 @@ class TeacherServiceTest {
         assertEquals(expectedTeacherDto.getAge(), actualTeacherDto.getAge());
 
         // Verify
-        verify(teacherRepository, times(1)).findById(TEACHER_ID);
+        verify(teacherRepository, times(1)).findWithCourseById(TEACHER_ID);
         verify(teacherRepository, times(1)).save(oldTeacher);
         verify(teacherMapper, times(1)).toDto(updatedTeacher);
     }
@@ -350,4 +367,22 @@ class TeacherServiceTest {
         verify(courseRepository, times(1)).findByTeacherId(TEACHER_ID);
         verify(courseMapper, times(1)).toDto(course);
     }
+
+    @Test
+    public void should_patch_teacher_without_loading_it() {
+        final int TEACHER_ID = 1;
+        Map<String, Object> patch = Map.of("lastName", "Salas new", "age", 41);
+
+        // Mock the calls
+        when(mergePatchValidator.validate(eq(TeacherDto.class), anySet(), eq(patch))).thenReturn(patch);
+        when(entityPatchRepository.updateById(Teacher.class, TEACHER_ID, patch)).thenReturn(1);
+
+        // When
+        teacherService.patch(TEACHER_ID, patch);
+
+        // Verify
+        verify(entityPatchRepository, times(1)).updateById(Teacher.class, TEACHER_ID, patch);
+        verify(teacherRepository, never()).findWithCourseById(any());
+        verify(teacherRepository, never()).save(any());
+    }
 }
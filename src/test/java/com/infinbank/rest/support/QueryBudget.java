@@ -0,0 +1,26 @@
+package com.infinbank.rest.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the annotated test if its body issues more than {@link #value()} SQL statements.
+ * <p>
+ * Only the test method itself is measured; data seeded in {@code @BeforeEach} methods does not count.
+ * Requests performed through {@code MockMvc} run on the test thread and are therefore included.
+ * </p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    /**
+     * Maximum number of statements the test may issue.
+     */
+    long value();
+}
@@ -0,0 +1,35 @@
+package com.infinbank.rest.support;
+
+import com.infinbank.rest.metrics.QueryCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    private static final String START_COUNT = "startCount";
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(START_COUNT, QueryCounter.current());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        long issued = QueryCounter.current() - context.getStore(NAMESPACE).get(START_COUNT, Long.class);
+        if (issued > budget.value()) {
+            throw new AssertionFailedError(String.format("%s issued %d SQL statements, budget is %d",
+                    context.getDisplayName(), issued, budget.value()), budget.value(), issued);
+        }
+    }
+}